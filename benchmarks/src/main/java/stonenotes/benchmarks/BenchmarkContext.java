@@ -0,0 +1,27 @@
+package stonenotes.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import stonenotes.StoneNotesApplication;
+
+// Boots the application without a web server against an in-memory H2 database.
+// Settings are passed as command line arguments so they win over application(-local).properties.
+final class BenchmarkContext {
+
+    private BenchmarkContext() {}
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(StoneNotesApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--cors.allowed-origins=http://localhost",
+                        "--logging.level.root=WARN");
+    }
+}
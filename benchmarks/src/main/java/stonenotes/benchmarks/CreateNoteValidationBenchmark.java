@@ -0,0 +1,44 @@
+package stonenotes.benchmarks;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import stonenotes.dto.CreateNoteDto;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateNoteValidationBenchmark {
+    // A short note, the largest valid content and the smallest rejected one
+    @Param({"100", "" + CreateNoteDto.MAX_CONTENT_LENGTH, "" + (CreateNoteDto.MAX_CONTENT_LENGTH + 1)})
+    private int contentLength;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CreateNoteDto dto;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        dto = new CreateNoteDto("Benchmark note", "a".repeat(contentLength));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateNoteDto>> validate() {
+        return validator.validate(dto);
+    }
+}
@@ -0,0 +1,46 @@
+package stonenotes.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.model.Note;
+import stonenotes.service.NoteService;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteMappingBenchmark {
+    private ConfigurableApplicationContext context;
+    private NoteService noteService;
+    private Note note;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        noteService = context.getBean(NoteService.class);
+
+        note = new Note();
+        note.setId(42L);
+        note.setTitle("Benchmark note");
+        note.setContent("x".repeat(2_000));
+        note.setUserId("bench-user");
+        note.setCreatedAt(Instant.now());
+        note.setUpdatedAt(Instant.now());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public NoteResponseDto convertToResponseDto() {
+        return noteService.convertToResponseDto(note);
+    }
+}
@@ -0,0 +1,72 @@
+package stonenotes.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import stonenotes.model.Note;
+import stonenotes.repository.NoteRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteRepositoryBenchmark {
+    private static final String USER_ID = "bench-user";
+
+    @Param({"100", "1000", "10000"})
+    private int notesPerUser;
+
+    private ConfigurableApplicationContext context;
+    private NoteRepository noteRepository;
+    private List<Long> noteIds;
+    private Pageable firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        noteRepository = context.getBean(NoteRepository.class);
+
+        List<Note> notes = new ArrayList<>(notesPerUser);
+        for (int i = 0; i < notesPerUser; i++) {
+            Note note = new Note();
+            note.setTitle("Note " + i);
+            note.setContent("Content for note " + i);
+            note.setUserId(USER_ID);
+            notes.add(note);
+        }
+        noteIds = noteRepository.saveAll(notes).stream().map(Note::getId).toList();
+        firstPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Note> findFirstPageByUserId() {
+        return noteRepository.findByUserId(USER_ID, firstPage);
+    }
+
+    @Benchmark
+    public Optional<Note> findByIdAndUserId() {
+        Long id = noteIds.get(ThreadLocalRandom.current().nextInt(noteIds.size()));
+        return noteRepository.findByIdAndUserId(id, USER_ID);
+    }
+
+    @Benchmark
+    public List<Note> findAllByUserIdOrderedByCreatedAt() {
+        return noteRepository.findByUserIdOrderByCreatedAtDesc(USER_ID);
+    }
+}
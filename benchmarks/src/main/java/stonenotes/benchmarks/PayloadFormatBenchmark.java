@@ -0,0 +1,73 @@
+package stonenotes.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import stonenotes.common.ApiResponse;
+import stonenotes.dto.NoteResponseDto;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares JSON with the CBOR and Smile encodings served on Accept: application/cbor / application/x-jackson-smile.
+// Encoded sizes are printed once per trial since JMH only reports timings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+    private static final TypeReference<ApiResponse<List<NoteResponseDto>>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"10", "100", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper mapper;
+    private ApiResponse<List<NoteResponseDto>> response;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        mapper = switch (format) {
+            case "cbor" -> context.getBean(MappingJackson2CborHttpMessageConverter.class).getObjectMapper();
+            case "smile" -> context.getBean(MappingJackson2SmileHttpMessageConverter.class).getObjectMapper();
+            default -> context.getBean(ObjectMapper.class);
+        };
+
+        List<NoteResponseDto> notes = new ArrayList<>(pageSize);
+        Instant now = Instant.now();
+        for (long i = 0; i < pageSize; i++) {
+            notes.add(new NoteResponseDto(i, "Note title " + i, "Note content ".repeat(40), now, now));
+        }
+        response = ApiResponse.success(notes, "Notes retrieved successfully", 200);
+        encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n%s payload for %d notes: %d bytes%n", format, pageSize, encoded.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public ApiResponse<List<NoteResponseDto>> decode() throws IOException {
+        return mapper.readValue(encoded, RESPONSE_TYPE);
+    }
+}
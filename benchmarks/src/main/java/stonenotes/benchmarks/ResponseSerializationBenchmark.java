@@ -0,0 +1,71 @@
+package stonenotes.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import stonenotes.common.ApiResponse;
+import stonenotes.common.ApiResponseJsonWriter;
+import stonenotes.dto.NoteResponseDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    @Param({"1", "10", "100", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ApiResponseJsonWriter apiResponseJsonWriter;
+    private ByteArrayOutputStream buffer;
+    private ApiResponse<Page<NoteResponseDto>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        objectMapper = context.getBean(ObjectMapper.class);
+        apiResponseJsonWriter = context.getBean(ApiResponseJsonWriter.class);
+        buffer = new ByteArrayOutputStream(64 * 1024);
+
+        List<NoteResponseDto> notes = new ArrayList<>(pageSize);
+        Instant now = Instant.now();
+        for (long i = 0; i < pageSize; i++) {
+            notes.add(new NoteResponseDto(i, "Note title " + i, "Note content ".repeat(40), now, now));
+        }
+        Page<NoteResponseDto> page = new PageImpl<>(notes, PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")), pageSize * 10L);
+        response = ApiResponse.success(page, "Notes retrieved successfully", 200);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    // Stands in for the servlet output stream, so only the writer's own allocations are measured
+    @Benchmark
+    public int streamPage() throws IOException {
+        buffer.reset();
+        apiResponseJsonWriter.write(response, buffer);
+        return buffer.size();
+    }
+}
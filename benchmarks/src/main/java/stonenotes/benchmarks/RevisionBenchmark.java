@@ -0,0 +1,87 @@
+package stonenotes.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import stonenotes.revision.TextDelta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Note history storage: a chain of small edits stored as TextDelta revisions with a full snapshot every snapshotInterval
+// revisions (1 stores a full copy per update). Stored size against full copies is printed once per trial;
+// the benchmarks time encoding one update and rebuilding the revision furthest from its snapshot.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevisionBenchmark {
+    private static final int REVISIONS = 200;
+
+    @Param({"1", "10", "20", "50"})
+    private int snapshotInterval;
+
+    @Param({"2000", "10000"})
+    private int contentLength;
+
+    private List<String> versions;
+    private String snapshot;
+    private List<String> chain;
+    private String previous;
+    private String current;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(contentLength);
+        while (text.length() < contentLength) {
+            text.append("Sentence ").append(random.nextInt(10_000)).append(" of a note that is edited a little at a time. ");
+        }
+        versions = new ArrayList<>(REVISIONS);
+        versions.add(text.toString());
+        for (int i = 1; i < REVISIONS; i++) {
+            int position = random.nextInt(text.length());
+            if (random.nextBoolean()) {
+                text.insert(position, "Added sentence " + i + ". ");
+            } else {
+                text.delete(position, Math.min(text.length(), position + 1 + random.nextInt(30)));
+            }
+            versions.add(text.toString());
+        }
+
+        long fullCopies = 0;
+        long stored = 0;
+        for (int i = 0; i < REVISIONS; i++) {
+            fullCopies += versions.get(i).length();
+            stored += i % snapshotInterval == 0 ? versions.get(i).length() : TextDelta.encode(versions.get(i - 1), versions.get(i)).length();
+        }
+        System.out.printf("%nsnapshot interval %d, %d chars: %d revisions stored in %d chars, %.1f%% of full copies%n",
+                snapshotInterval, contentLength, REVISIONS, stored, 100.0 * stored / fullCopies);
+
+        // The revision just before the next snapshot has the longest delta chain
+        int snapshotIndex = REVISIONS - snapshotInterval;
+        snapshot = versions.get(snapshotIndex);
+        chain = new ArrayList<>(snapshotInterval - 1);
+        for (int i = snapshotIndex + 1; i < REVISIONS; i++) {
+            chain.add(TextDelta.encode(versions.get(i - 1), versions.get(i)));
+        }
+        previous = versions.get(REVISIONS - 2);
+        current = versions.get(REVISIONS - 1);
+    }
+
+    @Benchmark
+    public String encode() {
+        return TextDelta.encode(previous, current);
+    }
+
+    @Benchmark
+    public String reconstruct() {
+        String content = snapshot;
+        for (String delta : chain) {
+            content = TextDelta.apply(content, delta);
+        }
+        return content;
+    }
+}
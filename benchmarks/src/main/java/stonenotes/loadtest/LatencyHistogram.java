@@ -0,0 +1,67 @@
+package stonenotes.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+// Lock-free log-linear histogram of microsecond latencies. Each power of two is split into
+// 64 linear sub-buckets, so recorded percentiles are within ~1.6% of the true value.
+final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(value));
+        max.accumulate(value);
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), max());
+            }
+        }
+        return max();
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        int magnitude = index / SUB_BUCKETS;
+        long subBucket = index % SUB_BUCKETS;
+        if (magnitude == 0) {
+            return subBucket;
+        }
+        return ((SUB_BUCKETS + subBucket + 1) << (magnitude - 1)) - 1;
+    }
+}
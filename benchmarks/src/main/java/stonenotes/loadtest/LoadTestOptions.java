@@ -0,0 +1,61 @@
+package stonenotes.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Options are given as --name=value. Anything not recognised (e.g. --spring.datasource.url=...)
+// is passed through to the application under test.
+record LoadTestOptions(int users,
+                       int notesPerUser,
+                       List<Integer> concurrencyLevels,
+                       Duration warmup,
+                       Duration duration,
+                       Map<Workload.Operation, Integer> mix,
+                       Path report,
+                       List<String> applicationArgs) {
+
+    static LoadTestOptions parse(String[] args) {
+        int users = 20;
+        int notesPerUser = 100;
+        List<Integer> concurrencyLevels = List.of(8, 32, 128, 512);
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        String mix = "list:45,get:30,create:10,update:10,delete:4,stream:1";
+        Path report = Path.of("target", "loadtest-report.json");
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = separator > 0 ? arg.substring(0, separator) : arg;
+            String value = separator > 0 ? arg.substring(separator + 1) : "";
+            switch (name) {
+                case "--users" -> users = Integer.parseInt(value);
+                case "--notes-per-user" -> notesPerUser = Integer.parseInt(value);
+                case "--concurrency" -> concurrencyLevels = Arrays.stream(value.split(",")).map(String::trim).map(Integer::valueOf).toList();
+                case "--warmup" -> warmup = Duration.parse(value);
+                case "--duration" -> duration = Duration.parse(value);
+                case "--mix" -> mix = value;
+                case "--report" -> report = Path.of(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+        return new LoadTestOptions(users, notesPerUser, concurrencyLevels, warmup, duration, parseMix(mix), report, applicationArgs);
+    }
+
+    private static Map<Workload.Operation, Integer> parseMix(String mix) {
+        Map<Workload.Operation, Integer> weights = new EnumMap<>(Workload.Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            weights.put(Workload.Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,163 @@
+package stonenotes.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import stonenotes.StoneNotesApplication;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// End-to-end load test: boots the service in-process on a random port with a local JWT key,
+// seeds notes through the API, then drives the configured mix at each concurrency level.
+//
+//   mvn -f benchmarks/pom.xml compile exec:exec -Ploadtest -Dloadtest.args="--users=50 --concurrency=16,64,256"
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LocalTokenMinter tokenMinter = new LocalTokenMinter();
+        Path publicKey = tokenMinter.writePublicKey();
+
+        try (ConfigurableApplicationContext context = startApplication(publicKey, options.applicationArgs())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HikariDataSource dataSource = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+            ObjectMapper objectMapper = new ObjectMapper();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            Workload workload = new Workload(httpClient, URI.create("http://localhost:" + port), objectMapper, options.mix());
+
+            List<Workload.Session> sessions = new ArrayList<>();
+            for (int i = 0; i < options.users(); i++) {
+                String userId = "loadtest-user-" + i;
+                sessions.add(new Workload.Session(userId, tokenMinter.mint(userId, Duration.ofHours(12))));
+            }
+            seed(workload, sessions, options.notesPerUser());
+
+            System.out.printf("Warming up for %s%n", options.warmup());
+            runLevel(workload, sessions, options.concurrencyLevels().get(0), options.warmup(), dataSource);
+
+            List<Map<String, Object>> levels = new ArrayList<>();
+            for (int concurrency : options.concurrencyLevels()) {
+                levels.add(runLevel(workload, sessions, concurrency, options.duration(), dataSource));
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("users", options.users());
+            report.put("notesPerUser", options.notesPerUser());
+            report.put("mix", options.mix());
+            report.put("levels", levels);
+            Files.createDirectories(options.report().toAbsolutePath().getParent());
+            objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(options.report().toFile(), report);
+            System.out.printf("Report written to %s%n", options.report().toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(Path publicKey, List<String> applicationArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=",
+                "--spring.security.oauth2.resourceserver.jwt.public-key-location=file:" + publicKey.toAbsolutePath(),
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--cors.allowed-origins=http://localhost",
+                "--logging.level.root=WARN"));
+        // Later arguments win, so callers can point the run at a real database
+        args.addAll(applicationArgs);
+        return new SpringApplicationBuilder(StoneNotesApplication.class).run(args.toArray(new String[0]));
+    }
+
+    private static void seed(Workload workload, List<Workload.Session> sessions, int notesPerUser) {
+        System.out.printf("Seeding %d notes for each of %d users%n", notesPerUser, sessions.size());
+        Workload.Recorder recorder = new Workload.Recorder();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Workload.Session session : sessions) {
+                executor.submit(() -> {
+                    for (int i = 0; i < notesPerUser; i++) {
+                        workload.run(Workload.Operation.CREATE, session, recorder);
+                    }
+                });
+            }
+        }
+        long failed = recorder.errors.get(Workload.Operation.CREATE).sum();
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " seed requests failed");
+        }
+    }
+
+    private static Map<String, Object> runLevel(Workload workload, List<Workload.Session> sessions, int concurrency,
+                                                Duration duration, HikariDataSource dataSource) {
+        Workload.Recorder recorder = new Workload.Recorder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        PoolSampler.PoolStats poolStats;
+        try (PoolSampler sampler = new PoolSampler(dataSource.getHikariPoolMXBean(), 50)) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < concurrency; i++) {
+                    Workload.Session session = sessions.get(i % sessions.size());
+                    executor.submit(() -> {
+                        while (System.nanoTime() < deadline) {
+                            workload.runRandom(session, recorder);
+                        }
+                    });
+                }
+            }
+            poolStats = sampler.stats();
+        }
+
+        long totalRequests = 0;
+        Map<String, Object> operations = new LinkedHashMap<>();
+        System.out.printf("%nconcurrency=%d%n%-8s %9s %7s %9s %9s %9s %9s%n",
+                concurrency, "op", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            LatencyHistogram histogram = recorder.latencies.get(operation);
+            long count = histogram.count();
+            if (count == 0) {
+                continue;
+            }
+            totalRequests += count;
+            long errors = recorder.errors.get(operation).sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", count);
+            stats.put("errors", errors);
+            stats.put("p50Ms", histogram.percentile(50) / 1000.0);
+            stats.put("p95Ms", histogram.percentile(95) / 1000.0);
+            stats.put("p99Ms", histogram.percentile(99) / 1000.0);
+            stats.put("maxMs", histogram.max() / 1000.0);
+            operations.put(operation.name().toLowerCase(), stats);
+            System.out.printf("%-8s %9d %7d %9.2f %9.2f %9.2f %9.2f%n", operation.name().toLowerCase(), count, errors,
+                    stats.get("p50Ms"), stats.get("p95Ms"), stats.get("p99Ms"), stats.get("maxMs"));
+        }
+        double throughput = totalRequests / (duration.toMillis() / 1000.0);
+        System.out.printf("throughput=%.1f req/s, pool size=%d, max active=%d, max waiting=%d, saturated=%.0f%%%n",
+                throughput, poolStats.poolSize(), poolStats.maxActive(), poolStats.maxPending(), poolStats.saturatedRatio() * 100);
+
+        Map<String, Object> level = new LinkedHashMap<>();
+        level.put("concurrency", concurrency);
+        level.put("durationSeconds", duration.toMillis() / 1000.0);
+        level.put("throughputPerSecond", throughput);
+        level.put("operations", operations);
+        level.put("pool", poolStats);
+        return level;
+    }
+}
@@ -0,0 +1,54 @@
+package stonenotes.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Stand-in for the OAuth2 issuer: signs RS256 tokens with a throwaway key pair whose public half is
+// handed to the resource server through spring.security.oauth2.resourceserver.jwt.public-key-location.
+final class LocalTokenMinter {
+    private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final KeyPair keyPair;
+
+    LocalTokenMinter() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        this.keyPair = generator.generateKeyPair();
+    }
+
+    Path writePublicKey() throws IOException {
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        Path file = Files.createTempFile("stonenotes-loadtest", ".pem");
+        Files.writeString(file, pem);
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    String mint(String subject, Duration validity) throws GeneralSecurityException {
+        Instant now = Instant.now();
+        String header = encode("{\"alg\":\"RS256\",\"typ\":\"JWT\"}");
+        String claims = encode("{\"sub\":\"" + subject + "\",\"scope\":\"read write\",\"iat\":" + now.getEpochSecond()
+                + ",\"exp\":" + now.plus(validity).getEpochSecond() + "}");
+        String signingInput = header + "." + claims;
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + URL_ENCODER.encodeToString(signature.sign());
+    }
+
+    private static String encode(String json) {
+        return URL_ENCODER.encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
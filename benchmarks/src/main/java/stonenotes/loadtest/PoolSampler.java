@@ -0,0 +1,50 @@
+package stonenotes.loadtest;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Samples Hikari pool occupancy while a load level runs
+final class PoolSampler implements AutoCloseable {
+    private final HikariPoolMXBean pool;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private int samples;
+    private int saturatedSamples;
+    private int maxActive;
+    private int maxPending;
+    private long pendingTotal;
+
+    PoolSampler(HikariPoolMXBean pool, long intervalMillis) {
+        this.pool = pool;
+        scheduler.scheduleAtFixedRate(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void sample() {
+        int active = pool.getActiveConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        samples++;
+        if (active >= pool.getTotalConnections() && pending > 0) {
+            saturatedSamples++;
+        }
+        maxActive = Math.max(maxActive, active);
+        maxPending = Math.max(maxPending, pending);
+        pendingTotal += pending;
+    }
+
+    synchronized PoolStats stats() {
+        return new PoolStats(pool.getTotalConnections(), maxActive, maxPending,
+                samples == 0 ? 0 : (double) pendingTotal / samples,
+                samples == 0 ? 0 : (double) saturatedSamples / samples);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    record PoolStats(int poolSize, int maxActive, int maxPending, double avgPending, double saturatedRatio) {
+    }
+}
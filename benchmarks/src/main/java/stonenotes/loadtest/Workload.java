@@ -0,0 +1,173 @@
+package stonenotes.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+// Issues one request per NoteController endpoint and records its latency
+final class Workload {
+    enum Operation {
+        LIST,
+        GET,
+        CREATE,
+        UPDATE,
+        DELETE,
+        STREAM
+    }
+
+    private final HttpClient httpClient;
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Workload(HttpClient httpClient, URI baseUri, ObjectMapper objectMapper, Map<Operation, Integer> mix) {
+        this.httpClient = httpClient;
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static final class Session {
+        final String userId;
+        final String token;
+        private final List<Long> noteIds = new ArrayList<>();
+
+        Session(String userId, String token) {
+            this.userId = userId;
+            this.token = token;
+        }
+
+        synchronized void add(Long noteId) {
+            noteIds.add(noteId);
+        }
+
+        synchronized Long any() {
+            return noteIds.isEmpty() ? null : noteIds.get(ThreadLocalRandom.current().nextInt(noteIds.size()));
+        }
+
+        synchronized Long takeAny() {
+            if (noteIds.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(noteIds.size());
+            Long last = noteIds.remove(noteIds.size() - 1);
+            return index < noteIds.size() ? noteIds.set(index, last) : last;
+        }
+    }
+
+    static final class Recorder {
+        final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+        final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        Recorder() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+                errors.put(operation, new LongAdder());
+            }
+        }
+    }
+
+    void runRandom(Session session, Recorder recorder) {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (roll >= cumulativeWeights[index]) {
+            index++;
+        }
+        run(operations[index], session, recorder);
+    }
+
+    void run(Operation operation, Session session, Recorder recorder) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = switch (operation) {
+                case LIST -> send(session, "GET", "/api/notes?page=0&size=20", null) == 200;
+                case GET -> get(session);
+                case CREATE -> create(session);
+                case UPDATE -> update(session);
+                case DELETE -> delete(session);
+                case STREAM -> stream(session);
+            };
+        } catch (IOException ex) {
+            ok = false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.latencies.get(operation).record((System.nanoTime() - start) / 1_000);
+        if (!ok) {
+            recorder.errors.get(operation).increment();
+        }
+    }
+
+    boolean create(Session session) throws IOException, InterruptedException {
+        String body = "{\"title\":\"Load test note\",\"content\":\"" + "lorem ipsum ".repeat(40) + "\"}";
+        HttpResponse<String> response = httpClient.send(request(session, "POST", "/api/notes", body), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        session.add(objectMapper.readTree(response.body()).path("data").path("id").asLong());
+        return true;
+    }
+
+    private boolean get(Session session) throws IOException, InterruptedException {
+        Long noteId = session.any();
+        return noteId == null || send(session, "GET", "/api/notes/" + noteId, null) == 200;
+    }
+
+    private boolean update(Session session) throws IOException, InterruptedException {
+        Long noteId = session.any();
+        String body = "{\"title\":\"Updated load test note\",\"content\":\"updated " + System.nanoTime() + "\"}";
+        return noteId == null || send(session, "PUT", "/api/notes/" + noteId, body) == 200;
+    }
+
+    private boolean delete(Session session) throws IOException, InterruptedException {
+        Long noteId = session.takeAny();
+        return noteId == null || send(session, "DELETE", "/api/notes/" + noteId, null) == 200;
+    }
+
+    // Measures time until the event stream is established, then disconnects
+    private boolean stream(Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/api/notes/stream"))
+                .header("Authorization", "Bearer " + session.token)
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        response.body().close();
+        return response.statusCode() == 200;
+    }
+
+    private int send(Session session, String method, String path, String body) throws IOException, InterruptedException {
+        return httpClient.send(request(session, method, path, body), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest request(Session session, String method, String path, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + session.token);
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Side-by-side load comparison of the servlet (NoteController) and WebFlux (ReactiveNoteController) runtimes.
+#
+# Start both applications against the same database first, e.g.
+#   mvn spring-boot:run -Dspring-boot.run.arguments=--server.port=8081
+#   mvn spring-boot:run -Dspring-boot.run.main-class=stonenotes.reactive.ReactiveNotesApplication \
+#       -Dspring-boot.run.arguments=--server.port=8082
+#
+# Requires `hey` (https://github.com/rakyll/hey) and a bearer token for a user with seeded notes:
+#   TOKEN=... ./scripts/bench-servlet-vs-reactive.sh
+set -euo pipefail
+
+SERVLET_URL=${SERVLET_URL:-http://localhost:8081}
+REACTIVE_URL=${REACTIVE_URL:-http://localhost:8082}
+DURATION=${DURATION:-30s}
+CONCURRENCY_LEVELS=${CONCURRENCY_LEVELS:-"16 64 256 1024"}
+OUT_DIR=${OUT_DIR:-target/bench-servlet-vs-reactive}
+
+: "${TOKEN:?Set TOKEN to a bearer token accepted by both applications}"
+mkdir -p "$OUT_DIR"
+
+run() {
+  local name=$1 url=$2 concurrency=$3
+  hey -z "$DURATION" -c "$concurrency" -H "Authorization: Bearer $TOKEN" "$url" \
+    | tee "$OUT_DIR/$name-c$concurrency.txt" \
+    | grep -E "Requests/sec|50%|95%|99%" | sed "s/^/[$name c=$concurrency] /"
+}
+
+for concurrency in $CONCURRENCY_LEVELS; do
+  run servlet "$SERVLET_URL/api/notes?size=20" "$concurrency"
+  run reactive "$REACTIVE_URL/api/notes?size=20" "$concurrency"
+done
+
+echo "Full reports written to $OUT_DIR"
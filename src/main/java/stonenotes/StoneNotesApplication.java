@@ -2,8 +2,10 @@ package stonenotes;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// The R2DBC stack is only used by stonenotes.reactive.ReactiveNotesApplication
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class StoneNotesApplication {
 
 	public static void main(String[] args) {
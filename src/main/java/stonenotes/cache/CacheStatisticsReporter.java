@@ -0,0 +1,55 @@
+package stonenotes.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class CacheStatisticsReporter {
+    private static final Logger log = LoggerFactory.getLogger(CacheStatisticsReporter.class);
+
+    private final Statistics statistics;
+
+    public CacheStatisticsReporter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public Map<String, RegionStats> regionStatistics() {
+        Map<String, RegionStats> regions = new LinkedHashMap<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions;
+        }
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, new RegionStats(region.getHitCount(), region.getMissCount(),
+                        region.getPutCount(), region.getElementCountInMemory()));
+            }
+        }
+        return regions;
+    }
+
+    @Scheduled(fixedDelayString = "${notes.cache.stats-report-interval:PT5M}",
+            initialDelayString = "${notes.cache.stats-report-interval:PT5M}")
+    public void report() {
+        regionStatistics().forEach((region, stats) -> log.info(
+                "L2 cache region '{}': hits={}, misses={}, puts={}, entries={}, hitRatio={}",
+                region, stats.hits(), stats.misses(), stats.puts(), stats.entries(),
+                String.format("%.2f", stats.hitRatio())));
+    }
+
+    public record RegionStats(long hits, long misses, long puts, long entries) {
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package stonenotes.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class InMemoryNoteInvalidationBus implements NoteInvalidationBus {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryNoteInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<NoteChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(NoteChangeEvent.Type type, Long noteId, String userId) {
+        NoteChangeEvent event = new NoteChangeEvent(type, noteId, userId, nodeId, Instant.now());
+        for (NoteChangeListener listener : listeners) {
+            try {
+                listener.onNoteChange(event);
+            } catch (RuntimeException ex) {
+                log.warn("Note change listener failed for note {}", noteId, ex);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(NoteChangeListener listener) {
+        listeners.add(listener);
+    }
+}
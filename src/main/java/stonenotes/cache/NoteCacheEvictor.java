@@ -0,0 +1,22 @@
+package stonenotes.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import stonenotes.model.Note;
+
+@Component
+public class NoteCacheEvictor {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public NoteCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evict(Long noteId) {
+        entityManagerFactory.getCache().evict(Note.class, noteId);
+    }
+
+    public void evictAll() {
+        entityManagerFactory.getCache().evict(Note.class);
+    }
+}
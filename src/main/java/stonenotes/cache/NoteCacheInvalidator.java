@@ -0,0 +1,104 @@
+package stonenotes.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Applies note changes made on other instances to the local second-level cache.
+// Events are queued and evicted in batches; if the queue overflows the whole region is dropped.
+@Component
+public class NoteCacheInvalidator implements NoteChangeListener {
+    private static final Logger log = LoggerFactory.getLogger(NoteCacheInvalidator.class);
+
+    private final NoteCacheEvictor noteCacheEvictor;
+    private final String localNodeId;
+    private final BlockingQueue<NoteChangeEvent> pending;
+    private final int batchSize;
+    private final Duration maxLag;
+    private final Clock clock;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxObservedLagMillis = new AtomicLong();
+
+    public NoteCacheInvalidator(NoteCacheEvictor noteCacheEvictor,
+                                NoteInvalidationBus noteInvalidationBus,
+                                @Value("${notes.invalidation.queue-capacity:10000}") int queueCapacity,
+                                @Value("${notes.invalidation.batch-size:500}") int batchSize,
+                                @Value("${notes.invalidation.max-lag:PT5S}") Duration maxLag) {
+        this(noteCacheEvictor, noteInvalidationBus, queueCapacity, batchSize, maxLag, Clock.systemUTC());
+    }
+
+    NoteCacheInvalidator(NoteCacheEvictor noteCacheEvictor, NoteInvalidationBus noteInvalidationBus,
+                         int queueCapacity, int batchSize, Duration maxLag, Clock clock) {
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.localNodeId = noteInvalidationBus.nodeId();
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxLag = maxLag;
+        this.clock = clock;
+        noteInvalidationBus.subscribe(this);
+    }
+
+    @Override
+    public void onNoteChange(NoteChangeEvent event) {
+        if (localNodeId.equals(event.originNodeId()) || event.type() == NoteChangeEvent.Type.CREATED) {
+            return;
+        }
+        received.incrementAndGet();
+        if (!pending.offer(event)) {
+            overflows.incrementAndGet();
+            pending.clear();
+            noteCacheEvictor.evictAll();
+            log.warn("Note invalidation queue overflowed, evicted the entire notes region");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notes.invalidation.flush-interval:PT0.1S}")
+    public void flush() {
+        List<NoteChangeEvent> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            Set<Long> noteIds = new LinkedHashSet<>();
+            long oldestMillis = Long.MAX_VALUE;
+            for (NoteChangeEvent event : batch) {
+                noteIds.add(event.noteId());
+                oldestMillis = Math.min(oldestMillis, event.occurredAt().toEpochMilli());
+            }
+            noteIds.forEach(noteCacheEvictor::evict);
+
+            long lagMillis = Math.max(0, clock.millis() - oldestMillis);
+            lastLagMillis.set(lagMillis);
+            maxObservedLagMillis.accumulateAndGet(lagMillis, Math::max);
+            evicted.addAndGet(noteIds.size());
+            batches.incrementAndGet();
+            if (lagMillis > maxLag.toMillis()) {
+                log.warn("Note invalidation lag {}ms exceeds bound of {}ms", lagMillis, maxLag.toMillis());
+            }
+            batch.clear();
+        }
+    }
+
+    public InvalidationStats stats() {
+        return new InvalidationStats(received.get(), evicted.get(), batches.get(), overflows.get(),
+                pending.size(), lastLagMillis.get(), maxObservedLagMillis.get());
+    }
+
+    public record InvalidationStats(long received, long evicted, long batches, long overflows,
+                                    int pending, long lastLagMillis, long maxLagMillis) {
+    }
+}
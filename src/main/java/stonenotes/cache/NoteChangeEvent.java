@@ -0,0 +1,11 @@
+package stonenotes.cache;
+
+import java.time.Instant;
+
+public record NoteChangeEvent(Type type, Long noteId, String userId, String originNodeId, Instant occurredAt) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
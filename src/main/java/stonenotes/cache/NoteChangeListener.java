@@ -0,0 +1,6 @@
+package stonenotes.cache;
+
+@FunctionalInterface
+public interface NoteChangeListener {
+    void onNoteChange(NoteChangeEvent event);
+}
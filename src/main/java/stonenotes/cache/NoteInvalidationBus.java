@@ -0,0 +1,10 @@
+package stonenotes.cache;
+
+public interface NoteInvalidationBus {
+    // Identifies this instance so listeners can skip events they already applied locally
+    String nodeId();
+
+    void publish(NoteChangeEvent.Type type, Long noteId, String userId);
+
+    void subscribe(NoteChangeListener listener);
+}
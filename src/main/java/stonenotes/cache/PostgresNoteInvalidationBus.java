@@ -0,0 +1,143 @@
+package stonenotes.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Fans note changes out to every instance through Postgres LISTEN/NOTIFY.
+// One connection is held for the lifetime of the listener thread.
+public class PostgresNoteInvalidationBus implements NoteInvalidationBus, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(PostgresNoteInvalidationBus.class);
+
+    static final String CHANNEL = "note_changes";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<NoteChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresNoteInvalidationBus(DataSource dataSource, ObjectMapper objectMapper,
+                                       Duration pollTimeout, Duration reconnectDelay) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.objectMapper = objectMapper;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public String nodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public void publish(NoteChangeEvent.Type type, Long noteId, String userId) {
+        NoteChangeEvent event = new NoteChangeEvent(type, noteId, userId, nodeId, Instant.now());
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSetExtractor<Void>) rs -> null, CHANNEL, payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize note change event", ex);
+        }
+    }
+
+    @Override
+    public void subscribe(NoteChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "note-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            listenerThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Lost note invalidation connection, reconnecting in {}", reconnectDelay, ex);
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        NoteChangeEvent event;
+        try {
+            event = objectMapper.readValue(payload, NoteChangeEvent.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring malformed note change payload: {}", payload);
+            return;
+        }
+        for (NoteChangeListener listener : listeners) {
+            try {
+                listener.onNoteChange(event);
+            } catch (RuntimeException ex) {
+                log.warn("Note change listener failed for note {}", event.noteId(), ex);
+            }
+        }
+    }
+}
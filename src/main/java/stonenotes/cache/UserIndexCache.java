@@ -0,0 +1,104 @@
+package stonenotes.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// In-memory per-user indexes, built by the loader on a user's first read and then kept current by the owner applying
+// this instance's writes through ifLoaded. A change published by another instance drops the user's index instead,
+// since the write never passed through here.
+// Indexes not read for the idle timeout are dropped, and beyond the maximum number of users the least recently read
+// go first; a dropped index is simply rebuilt by the next read.
+public class UserIndexCache<T> implements NoteChangeListener {
+    private static final class Entry<T> {
+        private final T index;
+        private volatile long lastAccess;
+
+        Entry(T index) {
+            this.index = index;
+        }
+    }
+
+    private final Function<String, T> loader;
+    private final String localNodeId;
+    private final Clock clock;
+    private final Counter loads;
+    private final Map<String, Entry<T>> users = new ConcurrentHashMap<>();
+
+    // Registers <metricPrefix>.loads and <metricPrefix>.users, described after the kind of index
+    public UserIndexCache(String metricPrefix, String kind, Function<String, T> loader, NoteInvalidationBus noteInvalidationBus,
+                          MeterRegistry meterRegistry, Clock clock) {
+        this.loader = loader;
+        this.localNodeId = noteInvalidationBus.nodeId();
+        this.clock = clock;
+        this.loads = Counter.builder(metricPrefix + ".loads")
+                .description("Per-user " + kind + " indexes built from the database")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".users", users, Map::size)
+                .description("Users with a " + kind + " index in memory")
+                .register(meterRegistry);
+        noteInvalidationBus.subscribe(this);
+    }
+
+    // Loading runs inside computeIfAbsent, so writes for this user wait until the loaded index is in place and then apply to it
+    public T get(String userId) {
+        Entry<T> entry = users.computeIfAbsent(userId, id -> {
+            T index = loader.apply(id);
+            loads.increment();
+            return new Entry<>(index);
+        });
+        entry.lastAccess = clock.millis();
+        return entry.index;
+    }
+
+    // Writes for users without a loaded index are skipped, since the next load reads them anyway
+    public void ifLoaded(String userId, Consumer<T> update) {
+        users.computeIfPresent(userId, (id, entry) -> {
+            update.accept(entry.index);
+            return entry;
+        });
+    }
+
+    @Override
+    public void onNoteChange(NoteChangeEvent event) {
+        if (!localNodeId.equals(event.originNodeId())) {
+            users.remove(event.userId());
+        }
+    }
+
+    public void evictIdle(Duration idleTimeout, int maxUsers) {
+        long idleBefore = clock.millis() - idleTimeout.toMillis();
+        users.entrySet().removeIf(entry -> entry.getValue().lastAccess < idleBefore);
+        int excess = users.size() - maxUsers;
+        if (excess > 0) {
+            users.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(users::remove);
+        }
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    // Adds up a measure over the indexes of all loaded users, for gauges
+    public long sum(ToLongFunction<T> measure) {
+        long total = 0;
+        for (Entry<T> entry : users.values()) {
+            total += measure.applyAsLong(entry.index);
+        }
+        return total;
+    }
+}
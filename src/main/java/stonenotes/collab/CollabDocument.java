@@ -0,0 +1,40 @@
+package stonenotes.collab;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// A note open for collaborative editing on this node. All fields are guarded by the document's monitor.
+@Getter
+@Setter
+class CollabDocument {
+    private final Long noteId;
+    private final String userId;
+    private final Set<WebSocketSession> sessions = new LinkedHashSet<>();
+    private RgaDocument content;
+    // The note content as of the last load or compaction, to detect writes made outside this session
+    private String baseContent;
+    private int nextSite;
+    private boolean dirty;
+    private boolean closed;
+
+    CollabDocument(Long noteId, String userId, String content) {
+        this.noteId = noteId;
+        this.userId = userId;
+        reset(content);
+    }
+
+    // Each load of the content gets a fresh site, so ids sent against an earlier load are unknown rather than misapplied
+    void reset(String content) {
+        this.content = RgaDocument.of(content, nextSite++);
+        this.baseContent = content == null ? "" : content;
+        this.dirty = false;
+    }
+
+    int assignSite() {
+        return nextSite++;
+    }
+}
@@ -0,0 +1,62 @@
+package stonenotes.collab;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriTemplate;
+import stonenotes.exception.NoteNotFoundException;
+
+import java.util.Map;
+
+// The upgrade request has already been authenticated by the resource server filter chain;
+// this resolves the note from the path and refuses the handshake unless the user may edit it.
+public class CollabHandshakeInterceptor implements HandshakeInterceptor {
+    public static final String PATH = "/api/notes/{noteId}/collab";
+    private static final UriTemplate PATH_TEMPLATE = new UriTemplate(PATH);
+
+    private final CollaborationService collaborationService;
+
+    public CollabHandshakeInterceptor(CollaborationService collaborationService) {
+        this.collaborationService = collaborationService;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        if (!(request.getPrincipal() instanceof JwtAuthenticationToken authentication)) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        String userId = authentication.getToken().getClaim("sub");
+        Long noteId;
+        try {
+            noteId = Long.valueOf(PATH_TEMPLATE.match(request.getURI().getPath()).get("noteId"));
+        } catch (NumberFormatException ex) {
+            response.setStatusCode(HttpStatus.BAD_REQUEST);
+            return false;
+        }
+
+        try {
+            collaborationService.checkAccess(noteId, userId);
+        } catch (NoteNotFoundException ex) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+            return false;
+        } catch (IllegalArgumentException ex) {
+            response.setStatusCode(HttpStatus.UNPROCESSABLE_ENTITY);
+            return false;
+        } catch (IllegalStateException ex) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return false;
+        }
+        attributes.put(CollaborationService.NOTE_ID, noteId);
+        attributes.put(CollaborationService.USER_ID, userId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler, Exception exception) {
+    }
+}
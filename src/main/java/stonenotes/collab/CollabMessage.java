@@ -0,0 +1,48 @@
+package stonenotes.collab;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+// Frames of the collaborative editing channel, one JSON object per WebSocket text message.
+// Client to server (and relayed to the other sessions): insert {id, after, text} and delete {spans}.
+// Server to client: init {site, clock, runs} on join and whenever the client has to start over, and error {message}.
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CollabMessage {
+    public static final String INSERT = "insert";
+    public static final String DELETE = "delete";
+    public static final String INIT = "init";
+    public static final String ERROR = "error";
+
+    private String type;
+    private ElementId id;
+    private ElementId after;
+    private String text;
+    private List<RgaDocument.Span> spans;
+    private Integer site;
+    private Integer clock;
+    private List<RgaDocument.Run> runs;
+    private String message;
+
+    public CollabMessage() {}
+
+    public static CollabMessage init(int site, RgaDocument document) {
+        CollabMessage init = new CollabMessage();
+        init.setType(INIT);
+        init.setSite(site);
+        init.setClock(document.clock());
+        init.setRuns(document.runs());
+        return init;
+    }
+
+    public static CollabMessage error(String message) {
+        CollabMessage error = new CollabMessage();
+        error.setType(ERROR);
+        error.setMessage(message);
+        return error;
+    }
+}
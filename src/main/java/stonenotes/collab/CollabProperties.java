@@ -0,0 +1,19 @@
+package stonenotes.collab;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.collab")
+public class CollabProperties {
+    // Open documents held in memory on this node; further sessions for other notes are refused
+    private int maxDocuments = 5000;
+
+    // A session whose outgoing messages back up beyond either limit is closed and has to rejoin
+    private Duration sendTimeLimit = Duration.ofSeconds(5);
+    private int sendBufferSize = 512 * 1024;
+}
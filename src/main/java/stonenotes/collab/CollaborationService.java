@@ -0,0 +1,291 @@
+package stonenotes.collab;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import stonenotes.content.ContentStoreProperties;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.exception.NoteNotFoundException;
+import stonenotes.service.NoteService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Merges the CRDT operations of every session editing a note. Each open note is one in-memory RgaDocument;
+// operations are applied under the document's monitor and relayed unchanged to the other sessions, so traffic
+// grows with the size of each edit. Merged content is compacted into the note periodically and when the last
+// session leaves, after which the document is dropped.
+// Sessions for the same note must reach the same node; a write from elsewhere (another node, or PUT) is detected
+// at compaction, wins, and resets the sessions to it.
+public class CollaborationService {
+    private static final Logger log = LoggerFactory.getLogger(CollaborationService.class);
+
+    public static final String NOTE_ID = "collab.noteId";
+    public static final String USER_ID = "collab.userId";
+    static final String SITE = "collab.site";
+    static final String DOCUMENT = "collab.document";
+    static final String SESSION = "collab.session";
+    // Keeps a frame within the container's default 8 KB text message buffer; larger pastes are sent as several inserts
+    static final int MAX_INSERT_LENGTH = 2000;
+
+    private final NoteService noteService;
+    private final ObjectMapper objectMapper;
+    private final CollabProperties properties;
+    // Compaction writes the merged text back inline, so it must stay below the chunk store's threshold
+    private final int maxContentLength;
+    private final Map<Long, CollabDocument> documents = new ConcurrentHashMap<>();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final Counter operations;
+    private final Counter resyncs;
+
+    public CollaborationService(NoteService noteService, ObjectMapper objectMapper, CollabProperties properties,
+                                ContentStoreProperties contentStoreProperties, MeterRegistry meterRegistry) {
+        this.noteService = noteService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.maxContentLength = contentStoreProperties.getInlineThreshold();
+        this.operations = Counter.builder("notes.collab.operations")
+                .description("Collaborative editing operations merged")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("notes.collab.resyncs")
+                .description("Sessions sent the full document again after an unknown reference or an outside write")
+                .register(meterRegistry);
+        Gauge.builder("notes.collab.documents", documents, Map::size)
+                .description("Notes open for collaborative editing on this node")
+                .register(meterRegistry);
+        Gauge.builder("notes.collab.sessions", sessions, AtomicInteger::get)
+                .description("Open collaborative editing sessions on this node")
+                .register(meterRegistry);
+    }
+
+    // Checked during the handshake, before a session is opened
+    public void checkAccess(Long noteId, String userId) {
+        NoteResponseDto note = noteService.findNoteByIdAndUserId(noteId, userId);
+        if (note.getContentSize() != null) {
+            throw new IllegalArgumentException("Large notes cannot be edited collaboratively");
+        }
+        if (!documents.containsKey(noteId) && documents.size() >= properties.getMaxDocuments()) {
+            throw new IllegalStateException("Too many notes open for collaborative editing");
+        }
+    }
+
+    public void join(WebSocketSession session) {
+        Long noteId = (Long) session.getAttributes().get(NOTE_ID);
+        String userId = (String) session.getAttributes().get(USER_ID);
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session,
+                (int) properties.getSendTimeLimit().toMillis(), properties.getSendBufferSize());
+        while (true) {
+            CollabDocument document = documents.computeIfAbsent(noteId, id -> load(id, userId));
+            synchronized (document) {
+                // Lost a race with the last session leaving; the next load sees its compacted content
+                if (document.isClosed()) {
+                    continue;
+                }
+                int site = document.assignSite();
+                session.getAttributes().put(SITE, site);
+                session.getAttributes().put(DOCUMENT, document);
+                session.getAttributes().put(SESSION, out);
+                document.getSessions().add(out);
+                sessions.incrementAndGet();
+                send(out, CollabMessage.init(site, document.getContent()));
+                return;
+            }
+        }
+    }
+
+    public void leave(WebSocketSession session) {
+        CollabDocument document = (CollabDocument) session.getAttributes().get(DOCUMENT);
+        if (document == null) {
+            return;
+        }
+        synchronized (document) {
+            if (!document.getSessions().remove((WebSocketSession) session.getAttributes().get(SESSION))) {
+                return;
+            }
+            sessions.decrementAndGet();
+            if (document.getSessions().isEmpty() && !document.isClosed()) {
+                if (document.isDirty()) {
+                    compact(document);
+                }
+                close(document);
+            }
+        }
+    }
+
+    public void handle(WebSocketSession session, String payload) {
+        CollabDocument document = (CollabDocument) session.getAttributes().get(DOCUMENT);
+        WebSocketSession out = (WebSocketSession) session.getAttributes().get(SESSION);
+        int site = (Integer) session.getAttributes().get(SITE);
+        CollabMessage message;
+        try {
+            message = objectMapper.readValue(payload, CollabMessage.class);
+        } catch (JsonProcessingException ex) {
+            send(out, CollabMessage.error("Malformed message"));
+            return;
+        }
+
+        synchronized (document) {
+            if (document.isClosed()) {
+                return;
+            }
+            RgaDocument content = document.getContent();
+            boolean applied;
+            try {
+                applied = switch (message.getType() == null ? "" : message.getType()) {
+                    case CollabMessage.INSERT -> insert(content, message, site);
+                    case CollabMessage.DELETE -> delete(content, message);
+                    default -> throw new IllegalArgumentException("Unknown message type: " + message.getType());
+                };
+            } catch (IllegalArgumentException ex) {
+                send(out, CollabMessage.error(ex.getMessage()));
+                return;
+            }
+            if (!applied) {
+                // The client is behind the document it references, typically after a reset
+                resyncs.increment();
+                send(out, CollabMessage.init(site, content));
+                return;
+            }
+            operations.increment();
+            document.setDirty(true);
+            TextMessage relayed = new TextMessage(payload);
+            for (WebSocketSession other : List.copyOf(document.getSessions())) {
+                if (other != out) {
+                    send(other, relayed);
+                }
+            }
+        }
+    }
+
+    private boolean insert(RgaDocument content, CollabMessage message, int site) {
+        if (message.getId() == null || message.getText() == null) {
+            throw new IllegalArgumentException("Insert requires id and text");
+        }
+        if (message.getId().site() != site) {
+            throw new IllegalArgumentException("Insert ids must use the site assigned to this session");
+        }
+        if (message.getText().length() > MAX_INSERT_LENGTH) {
+            throw new IllegalArgumentException("At most " + MAX_INSERT_LENGTH + " characters can be inserted at once");
+        }
+        if (content.length() + message.getText().length() > maxContentLength) {
+            throw new IllegalArgumentException("Collaboratively edited content cannot exceed " + maxContentLength + " characters");
+        }
+        return content.insert(message.getId(), message.getAfter(), message.getText());
+    }
+
+    // All spans are checked before any is applied, so a delete is never half done
+    private static boolean delete(RgaDocument content, CollabMessage message) {
+        List<RgaDocument.Span> spans = message.getSpans();
+        if (spans == null || spans.isEmpty() || spans.stream().anyMatch(span -> span.length() <= 0)) {
+            throw new IllegalArgumentException("Delete requires non-empty spans");
+        }
+        if (!spans.stream().allMatch(content::contains)) {
+            return false;
+        }
+        spans.forEach(content::delete);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${notes.collab.compact-interval:PT5S}",
+            initialDelayString = "${notes.collab.compact-interval:PT5S}")
+    public void compactAll() {
+        for (CollabDocument document : documents.values()) {
+            synchronized (document) {
+                if (!document.isClosed() && document.isDirty()) {
+                    compact(document);
+                }
+            }
+        }
+    }
+
+    // Called with the document's monitor held
+    private void compact(CollabDocument document) {
+        try {
+            NoteResponseDto current = noteService.findNoteByIdAndUserId(document.getNoteId(), document.getUserId());
+            if (current.getContentSize() != null) {
+                // Made large outside this session; its content is not loaded here, so the sessions end instead of resetting
+                log.info("Note {} became too large for collaborative editing, closing {} sessions", document.getNoteId(), document.getSessions().size());
+                closeAll(document, CloseStatus.GOING_AWAY.withReason("Note too large for collaborative editing"));
+                return;
+            }
+            String currentContent = current.getContent() == null ? "" : current.getContent();
+            if (!currentContent.equals(document.getBaseContent())) {
+                // Written outside this session since the last compaction: that write wins and every session starts over from it
+                log.info("Note {} changed outside its collaborative session, resetting {} sessions", document.getNoteId(), document.getSessions().size());
+                document.reset(currentContent);
+                resyncAll(document);
+                return;
+            }
+            String merged = document.getContent().text();
+            noteService.updateNoteContent(document.getNoteId(), merged, document.getUserId());
+            document.setBaseContent(merged);
+            document.setDirty(false);
+        } catch (NoteNotFoundException ex) {
+            closeAll(document, CloseStatus.GOING_AWAY.withReason("Note not found"));
+        } catch (RuntimeException ex) {
+            // Stays dirty and is retried on the next run
+            log.warn("Failed to compact collaborative edits of note {}", document.getNoteId(), ex);
+        }
+    }
+
+    private CollabDocument load(Long noteId, String userId) {
+        NoteResponseDto note = noteService.findNoteByIdAndUserId(noteId, userId);
+        return new CollabDocument(noteId, userId, note.getContent());
+    }
+
+    private void close(CollabDocument document) {
+        document.setClosed(true);
+        documents.remove(document.getNoteId(), document);
+    }
+
+    private void closeAll(CollabDocument document, CloseStatus status) {
+        close(document);
+        for (WebSocketSession session : List.copyOf(document.getSessions())) {
+            closeQuietly(session, status);
+        }
+    }
+
+    private void resyncAll(CollabDocument document) {
+        for (WebSocketSession session : List.copyOf(document.getSessions())) {
+            resyncs.increment();
+            send(session, CollabMessage.init((Integer) session.getAttributes().get(SITE), document.getContent()));
+        }
+    }
+
+    private void send(WebSocketSession session, CollabMessage message) {
+        try {
+            send(session, new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private void send(WebSocketSession session, TextMessage message) {
+        try {
+            session.sendMessage(message);
+        } catch (IOException | RuntimeException ex) {
+            // The decorator closes sessions that exceed the send limits; their leave() follows
+            log.debug("Dropping message to collaborative session {}", session.getId(), ex);
+        }
+    }
+
+    private static void closeQuietly(WebSocketSession session, CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (IOException ex) {
+            log.debug("Failed to close collaborative session {}", session.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package stonenotes.collab;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// Identifies one character of a collaborative document: a Lamport counter and the site (session) that inserted it.
+// Sent as [counter, site]. Concurrent inserts at the same position are ordered by descending id.
+@JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"counter", "site"})
+public record ElementId(int counter, int site) implements Comparable<ElementId> {
+
+    @Override
+    public int compareTo(ElementId other) {
+        int byCounter = Integer.compare(counter, other.counter);
+        return byCounter != 0 ? byCounter : Integer.compare(site, other.site);
+    }
+}
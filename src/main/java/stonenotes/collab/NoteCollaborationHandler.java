@@ -0,0 +1,29 @@
+package stonenotes.collab;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+public class NoteCollaborationHandler extends TextWebSocketHandler {
+    private final CollaborationService collaborationService;
+
+    public NoteCollaborationHandler(CollaborationService collaborationService) {
+        this.collaborationService = collaborationService;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        collaborationService.join(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        collaborationService.handle(session, message.getPayload());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        collaborationService.leave(session);
+    }
+}
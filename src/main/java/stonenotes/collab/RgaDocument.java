@@ -0,0 +1,201 @@
+package stonenotes.collab;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Replicated growable array (RGA) over runs of characters. A run inserted as one operation is kept as one item,
+// and is only split when another insert or a delete lands inside it, so memory grows with the number of edits
+// rather than the number of characters. Deleted runs stay as tombstones without their text, since concurrent
+// inserts may still reference them. Not thread-safe; callers synchronize on the owning document.
+public class RgaDocument {
+
+    // One run of the document in order, as sent to a joining client; deleted runs carry their length only
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Run(ElementId id, String text, Integer deleted) {
+    }
+
+    // Characters counter .. counter + length - 1 of one site, sent as [counter, site, length]
+    @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+    @JsonPropertyOrder({"counter", "site", "length"})
+    public record Span(int counter, int site, int length) {
+    }
+
+    private static final class Item {
+        private final int site;
+        private final int counter;
+        // Null once deleted
+        private String text;
+        private int length;
+        private Item next;
+
+        private Item(int site, int counter, String text, int length) {
+            this.site = site;
+            this.counter = counter;
+            this.text = text;
+            this.length = length;
+        }
+    }
+
+    private final Item head = new Item(-1, 0, "", 0);
+    private final Map<Integer, TreeMap<Integer, Item>> index = new HashMap<>();
+    private int visibleLength;
+    private int clock;
+
+    // The initial content is one run of the given site, with counters starting at 1
+    public static RgaDocument of(String content, int site) {
+        RgaDocument document = new RgaDocument();
+        if (content != null && !content.isEmpty()) {
+            document.link(document.head, new Item(site, 1, content, content.length()));
+            document.visibleLength = content.length();
+            document.clock = content.length();
+        }
+        return document;
+    }
+
+    // Inserts text after the given character, or at the start when after is null. Returns false if after is unknown.
+    // Re-delivered inserts are ignored.
+    public boolean insert(ElementId id, ElementId after, String text) {
+        if (find(id.site(), id.counter()) != null) {
+            return true;
+        }
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Inserted text cannot be empty");
+        }
+        TreeMap<Integer, Item> own = index.get(id.site());
+        if (own != null && id.counter() < own.lastKey() + own.lastEntry().getValue().length) {
+            throw new IllegalArgumentException("Insert ids must follow the previous inserts of their site");
+        }
+        Item left = head;
+        if (after != null) {
+            left = find(after.site(), after.counter());
+            if (left == null) {
+                return false;
+            }
+            if (id.counter() <= after.counter()) {
+                throw new IllegalArgumentException("Insert ids must be greater than the character they follow");
+            }
+            int offset = after.counter() - left.counter + 1;
+            if (offset < left.length) {
+                split(left, offset);
+            }
+        }
+        // Concurrent inserts after the same character, and everything inserted after them, have greater ids
+        while (left.next != null && compare(left.next, id) > 0) {
+            left = left.next;
+        }
+        link(left, new Item(id.site(), id.counter(), text, text.length()));
+        visibleLength += text.length();
+        clock = Math.max(clock, id.counter() + text.length() - 1);
+        return true;
+    }
+
+    // Deletes every character of the span. Returns false, without deleting anything, if part of it is unknown.
+    public boolean delete(Span span) {
+        if (!contains(span)) {
+            return false;
+        }
+        int counter = span.counter();
+        int remaining = span.length();
+        while (remaining > 0) {
+            Item item = find(span.site(), counter);
+            int offset = counter - item.counter;
+            if (offset > 0) {
+                split(item, offset);
+                item = item.next;
+            }
+            if (item.length > remaining) {
+                split(item, remaining);
+            }
+            if (item.text != null) {
+                visibleLength -= item.length;
+                item.text = null;
+            }
+            counter += item.length;
+            remaining -= item.length;
+        }
+        return true;
+    }
+
+    public boolean contains(Span span) {
+        int counter = span.counter();
+        int end = span.counter() + span.length();
+        while (counter < end) {
+            Item item = find(span.site(), counter);
+            if (item == null) {
+                return false;
+            }
+            counter = item.counter + item.length;
+        }
+        return true;
+    }
+
+    public boolean contains(ElementId id) {
+        return find(id.site(), id.counter()) != null;
+    }
+
+    public String text() {
+        StringBuilder text = new StringBuilder(visibleLength);
+        for (Item item = head.next; item != null; item = item.next) {
+            if (item.text != null) {
+                text.append(item.text);
+            }
+        }
+        return text.toString();
+    }
+
+    public List<Run> runs() {
+        List<Run> runs = new ArrayList<>();
+        for (Item item = head.next; item != null; item = item.next) {
+            ElementId id = new ElementId(item.counter, item.site);
+            runs.add(item.text != null ? new Run(id, item.text, null) : new Run(id, null, item.length));
+        }
+        return runs;
+    }
+
+    public int length() {
+        return visibleLength;
+    }
+
+    // Highest counter seen; a client's next insert must use a greater one
+    public int clock() {
+        return clock;
+    }
+
+    private static int compare(Item item, ElementId id) {
+        return new ElementId(item.counter, item.site).compareTo(id);
+    }
+
+    private Item find(int site, int counter) {
+        TreeMap<Integer, Item> items = index.get(site);
+        if (items == null) {
+            return null;
+        }
+        Map.Entry<Integer, Item> entry = items.floorEntry(counter);
+        if (entry == null || counter >= entry.getValue().counter + entry.getValue().length) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    private void split(Item item, int offset) {
+        Item right = new Item(item.site, item.counter + offset, item.text == null ? null : item.text.substring(offset), item.length - offset);
+        if (item.text != null) {
+            item.text = item.text.substring(0, offset);
+        }
+        item.length = offset;
+        link(item, right);
+    }
+
+    private void link(Item left, Item item) {
+        item.next = left.next;
+        left.next = item;
+        index.computeIfAbsent(item.site, site -> new TreeMap<>()).put(item.counter, item);
+    }
+}
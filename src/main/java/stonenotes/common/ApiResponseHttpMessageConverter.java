@@ -0,0 +1,88 @@
+package stonenotes.common;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.SparseNoteDto;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Write-only converter for ApiResponse<Void> and ApiResponse envelopes around a note, a Page or a List of notes,
+// full (NoteResponseDto) or sparse (SparseNoteDto). Anything else falls through to Jackson.
+public class ApiResponseHttpMessageConverter extends AbstractGenericHttpMessageConverter<ApiResponse<?>> {
+    private final ApiResponseJsonWriter writer;
+    private final Timer timer;
+
+    public ApiResponseHttpMessageConverter(ApiResponseJsonWriter writer, MeterRegistry meterRegistry, MediaType... supportedMediaTypes) {
+        super(supportedMediaTypes);
+        this.writer = writer;
+        this.timer = Timer.builder("notes.response.serialization")
+                .description("Time spent writing response bodies")
+                .register(meterRegistry);
+    }
+
+    static boolean isSupportedType(Type type) {
+        ResolvableType response = ResolvableType.forType(type);
+        if (!ApiResponse.class.equals(response.resolve())) {
+            return false;
+        }
+        ResolvableType data = response.getGeneric(0);
+        Class<?> dataClass = data.resolve();
+        if (Void.class.equals(dataClass) || isNote(dataClass)) {
+            return true;
+        }
+        if (Page.class.equals(dataClass) || List.class.equals(dataClass)) {
+            return isNote(data.getGeneric(0).resolve());
+        }
+        return false;
+    }
+
+    private static boolean isNote(Class<?> dataClass) {
+        return NoteResponseDto.class.equals(dataClass) || SparseNoteDto.class.equals(dataClass);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        // Without generic type information the payload type is unknown
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return type != null && isSupportedType(type) && canWrite(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> response, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try {
+            writer.write(response, outputMessage.getBody());
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("ApiResponseHttpMessageConverter is write-only");
+    }
+
+    @Override
+    public ApiResponse<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("ApiResponseHttpMessageConverter is write-only");
+    }
+}
@@ -0,0 +1,152 @@
+package stonenotes.common;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.data.domain.Page;
+import stonenotes.dto.NoteField;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.SparseNoteDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.List;
+
+// Streams ApiResponse envelopes around notes straight to the output without bean introspection.
+// Generators come from a shared JsonFactory (JSON, CBOR or Smile), so their encoding buffers are recycled between responses.
+// Pages are written in a fixed shape: {"content": [...], "page": {"size", "number", "totalElements", "totalPages"}}
+public class ApiResponseJsonWriter {
+    private final JsonFactory jsonFactory;
+
+    public ApiResponseJsonWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public void write(ApiResponse<?> response, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeResponse(response, generator);
+        }
+    }
+
+    private void writeResponse(ApiResponse<?> response, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeBooleanField("success", response.isSuccess());
+        generator.writeStringField("message", response.getMessage());
+        generator.writeFieldName("data");
+        writeData(response.getData(), generator);
+        generator.writeFieldName("status");
+        if (response.getStatus() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(response.getStatus());
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeData(Object data, JsonGenerator generator) throws IOException {
+        if (data == null) {
+            generator.writeNull();
+        } else if (data instanceof NoteResponseDto || data instanceof SparseNoteDto) {
+            writeNote(data, generator);
+        } else if (data instanceof Page<?> page) {
+            writePage(page, generator);
+        } else if (data instanceof List<?> notes) {
+            writeNotes(notes, generator);
+        } else {
+            throw new IllegalArgumentException("Unsupported response data: " + data.getClass().getName());
+        }
+    }
+
+    private void writePage(Page<?> page, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("content");
+        writeNotes(page.getContent(), generator);
+        generator.writeObjectFieldStart("page");
+        generator.writeNumberField("size", page.getSize());
+        generator.writeNumberField("number", page.getNumber());
+        generator.writeNumberField("totalElements", page.getTotalElements());
+        generator.writeNumberField("totalPages", page.getTotalPages());
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private void writeNotes(List<?> notes, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < notes.size(); i++) {
+            writeNote(notes.get(i), generator);
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeNote(Object value, JsonGenerator generator) throws IOException {
+        if (value instanceof SparseNoteDto sparse) {
+            writeSparseNote(sparse, generator);
+            return;
+        }
+        NoteResponseDto note = (NoteResponseDto) value;
+        generator.writeStartObject();
+        generator.writeFieldName("id");
+        if (note.getId() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(note.getId());
+        }
+        generator.writeStringField("title", note.getTitle());
+        generator.writeStringField("content", note.getContent());
+        if (note.getTags() != null && !note.getTags().isEmpty()) {
+            writeTags(note.getTags(), generator);
+        }
+        writeInstant("createdAt", note.getCreatedAt(), generator);
+        writeInstant("updatedAt", note.getUpdatedAt(), generator);
+        if (note.getContentSize() != null) {
+            generator.writeNumberField("contentSize", note.getContentSize());
+        }
+        if (note.getDeletedAt() != null) {
+            writeInstant("deletedAt", note.getDeletedAt(), generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeSparseNote(SparseNoteDto sparse, JsonGenerator generator) throws IOException {
+        NoteResponseDto note = sparse.getNote();
+        generator.writeStartObject();
+        for (NoteField field : sparse.getFields()) {
+            switch (field) {
+                case ID -> {
+                    generator.writeFieldName("id");
+                    if (note.getId() == null) {
+                        generator.writeNull();
+                    } else {
+                        generator.writeNumber(note.getId());
+                    }
+                }
+                case TITLE -> generator.writeStringField("title", note.getTitle());
+                case CONTENT -> generator.writeStringField("content", note.getContent());
+                case TAGS -> writeTags(note.getTags() == null ? List.of() : note.getTags(), generator);
+                case CREATED_AT -> writeInstant("createdAt", note.getCreatedAt(), generator);
+                case UPDATED_AT -> writeInstant("updatedAt", note.getUpdatedAt(), generator);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeTags(List<String> tags, JsonGenerator generator) throws IOException {
+        generator.writeArrayFieldStart("tags");
+        for (int i = 0; i < tags.size(); i++) {
+            generator.writeString(tags.get(i));
+        }
+        generator.writeEndArray();
+    }
+
+    // Same ISO-8601 form Jackson's JavaTimeModule produces with WRITE_DATES_AS_TIMESTAMPS disabled
+    private void writeInstant(String name, Instant value, JsonGenerator generator) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package stonenotes.common;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Savepoint;
+
+public final class JdbcInserts {
+    private JdbcInserts() {}
+
+    // Runs an INSERT that may lose the race for its key to a concurrent writer, and returns false if it did.
+    // Inside a transaction the insert runs under a savepoint on the transaction's own connection, since PostgreSQL
+    // aborts the whole transaction on a failed statement.
+    public static boolean insertIfAbsent(JdbcTemplate jdbcTemplate, String sql, Object... args) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                jdbcTemplate.update(sql, args);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                return false;
+            }
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.update(sql, args);
+                connection.releaseSavepoint(savepoint);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                connection.rollback(savepoint);
+                return false;
+            }
+        }));
+    }
+}
@@ -0,0 +1,23 @@
+package stonenotes.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.maintenance.ArchiveProperties;
+import stonenotes.maintenance.NoteArchiver;
+import stonenotes.service.NoteArchiveService;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(ArchiveProperties.class)
+public class ArchiveConfig {
+
+    @Bean
+    public NoteArchiver noteArchiver(NoteArchiveService noteArchiveService, JdbcTemplate jdbcTemplate,
+                                     ArchiveProperties archiveProperties, MeterRegistry meterRegistry) {
+        return new NoteArchiver(noteArchiveService, jdbcTemplate, archiveProperties, meterRegistry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,52 @@
+package stonenotes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.socket.server.support.OriginHandshakeInterceptor;
+import org.springframework.web.socket.server.support.WebSocketHttpRequestHandler;
+import stonenotes.collab.CollabHandshakeInterceptor;
+import stonenotes.collab.CollabProperties;
+import stonenotes.collab.CollaborationService;
+import stonenotes.collab.NoteCollaborationHandler;
+import stonenotes.content.ContentStoreProperties;
+import stonenotes.service.NoteService;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// The channel is mapped directly instead of through @EnableWebSocket, which also declares a TaskScheduler bean
+// that would make the scheduling auto-configuration (and spring.task.scheduling.pool.size) back off.
+@Configuration
+@EnableConfigurationProperties(CollabProperties.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CollaborationConfig {
+
+    @Bean
+    public CollaborationService collaborationService(NoteService noteService, ObjectMapper objectMapper,
+                                                     CollabProperties collabProperties, ContentStoreProperties contentStoreProperties,
+                                                     MeterRegistry meterRegistry) {
+        return new CollaborationService(noteService, objectMapper, collabProperties, contentStoreProperties, meterRegistry);
+    }
+
+    @Bean
+    public WebSocketHttpRequestHandler collabRequestHandler(CollaborationService collaborationService,
+                                                            @Value("${cors.allowed-origins}") String allowedOrigins) {
+        WebSocketHttpRequestHandler handler = new WebSocketHttpRequestHandler(new NoteCollaborationHandler(collaborationService));
+        handler.setHandshakeInterceptors(List.of(
+                new OriginHandshakeInterceptor(Arrays.asList(allowedOrigins.split(","))),
+                new CollabHandshakeInterceptor(collaborationService)));
+        return handler;
+    }
+
+    @Bean
+    public SimpleUrlHandlerMapping collabHandlerMapping(WebSocketHttpRequestHandler collabRequestHandler) {
+        return new SimpleUrlHandlerMapping(Map.of(CollabHandshakeInterceptor.PATH, collabRequestHandler), 1);
+    }
+}
@@ -0,0 +1,45 @@
+package stonenotes.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import stonenotes.common.ApiResponseHttpMessageConverter;
+import stonenotes.common.ApiResponseJsonWriter;
+
+// Binary encodings of the same payloads for Accept / Content-Type application/cbor and application/x-jackson-smile.
+// Mappers come from Boot's builder so dates and other settings match the JSON output, and note envelopes
+// go through the same streaming writer so pages keep the compact shape.
+@Configuration
+public class ContentNegotiationConfig {
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public ApiResponseHttpMessageConverter cborApiResponseHttpMessageConverter(MappingJackson2CborHttpMessageConverter cborHttpMessageConverter, MeterRegistry meterRegistry) {
+        return new ApiResponseHttpMessageConverter(new ApiResponseJsonWriter(cborHttpMessageConverter.getObjectMapper().getFactory()), meterRegistry, MediaType.APPLICATION_CBOR);
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public ApiResponseHttpMessageConverter smileApiResponseHttpMessageConverter(MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter, MeterRegistry meterRegistry) {
+        return new ApiResponseHttpMessageConverter(new ApiResponseJsonWriter(smileHttpMessageConverter.getObjectMapper().getFactory()), meterRegistry, APPLICATION_SMILE);
+    }
+}
@@ -0,0 +1,37 @@
+package stonenotes.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.content.ChunkedContentStore;
+import stonenotes.content.ChunkedContentSweeper;
+import stonenotes.content.ContentBlobStore;
+import stonenotes.content.ContentStoreProperties;
+import stonenotes.content.DedupProperties;
+import stonenotes.repository.ContentBlobRepository;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties({ContentStoreProperties.class, DedupProperties.class})
+public class ContentStoreConfig {
+
+    @Bean
+    public ChunkedContentStore chunkedContentStore(ContentStoreProperties properties) {
+        return new ChunkedContentStore(properties.getDirectory(), (int) properties.getChunkSize().toBytes(), properties.getInlineThreshold());
+    }
+
+    @Bean
+    public ChunkedContentSweeper chunkedContentSweeper(ChunkedContentStore chunkedContentStore, JdbcTemplate jdbcTemplate,
+                                                       ContentStoreProperties properties, MeterRegistry meterRegistry) {
+        return new ChunkedContentSweeper(chunkedContentStore, jdbcTemplate, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    @Bean
+    public ContentBlobStore contentBlobStore(ContentBlobRepository contentBlobRepository, JdbcTemplate jdbcTemplate,
+                                             DedupProperties dedupProperties, MeterRegistry meterRegistry) {
+        return new ContentBlobStore(contentBlobRepository, jdbcTemplate, dedupProperties, meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package stonenotes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import stonenotes.idempotency.DatabaseIdempotencyStore;
+import stonenotes.idempotency.IdempotencyProperties;
+import stonenotes.idempotency.IdempotencyService;
+import stonenotes.idempotency.IdempotencyStore;
+import stonenotes.idempotency.InMemoryIdempotencyStore;
+import stonenotes.repository.IdempotencyRecordRepository;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notes.idempotency.store", havingValue = "database")
+    public DatabaseIdempotencyStore databaseIdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository) {
+        return new DatabaseIdempotencyStore(idempotencyRecordRepository, Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notes.idempotency.store", havingValue = "in-memory", matchIfMissing = true)
+    public InMemoryIdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties idempotencyProperties) {
+        return new InMemoryIdempotencyStore(idempotencyProperties.getMaxEntries(), Clock.systemUTC());
+    }
+
+    @Bean
+    public IdempotencyService idempotencyService(IdempotencyStore idempotencyStore, ObjectMapper objectMapper, IdempotencyProperties idempotencyProperties) {
+        return new IdempotencyService(idempotencyStore, objectMapper, idempotencyProperties, Clock.systemUTC());
+    }
+}
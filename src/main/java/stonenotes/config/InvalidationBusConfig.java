@@ -0,0 +1,32 @@
+package stonenotes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import stonenotes.cache.InMemoryNoteInvalidationBus;
+import stonenotes.cache.PostgresNoteInvalidationBus;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class InvalidationBusConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "notes.invalidation.bus", havingValue = "postgres")
+    public PostgresNoteInvalidationBus postgresNoteInvalidationBus(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            @Value("${notes.invalidation.poll-timeout:PT1S}") Duration pollTimeout,
+            @Value("${notes.invalidation.reconnect-delay:PT5S}") Duration reconnectDelay) {
+        return new PostgresNoteInvalidationBus(dataSource, objectMapper, pollTimeout, reconnectDelay);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "notes.invalidation.bus", havingValue = "in-memory", matchIfMissing = true)
+    public InMemoryNoteInvalidationBus inMemoryNoteInvalidationBus() {
+        return new InMemoryNoteInvalidationBus();
+    }
+}
@@ -0,0 +1,26 @@
+package stonenotes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import stonenotes.common.ApiResponseHttpMessageConverter;
+import stonenotes.common.ApiResponseJsonWriter;
+
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    public ApiResponseJsonWriter apiResponseJsonWriter(ObjectMapper objectMapper) {
+        return new ApiResponseJsonWriter(objectMapper.getFactory());
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApiResponseHttpMessageConverter apiResponseHttpMessageConverter(ApiResponseJsonWriter apiResponseJsonWriter, MeterRegistry meterRegistry) {
+        return new ApiResponseHttpMessageConverter(apiResponseJsonWriter, meterRegistry, MediaType.APPLICATION_JSON);
+    }
+}
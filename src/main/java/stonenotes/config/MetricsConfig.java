@@ -0,0 +1,77 @@
+package stonenotes.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import stonenotes.cache.NoteCacheInvalidator;
+import stonenotes.metrics.RequestMetricsFilter;
+import stonenotes.metrics.SqlMonitoringProperties;
+import stonenotes.metrics.TimedJacksonHttpMessageConverter;
+import stonenotes.metrics.TimedJwtDecoder;
+import stonenotes.service.NoteEventBroadcaster;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(MeterRegistry meterRegistry, SqlMonitoringProperties sqlMonitoringProperties) {
+        FilterRegistrationBean<RequestMetricsFilter> registration = new FilterRegistrationBean<>(new RequestMetricsFilter(meterRegistry, sqlMonitoringProperties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor timedJwtDecoderPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JwtDecoder decoder && !(bean instanceof TimedJwtDecoder)) {
+                    return new TimedJwtDecoder(decoder, meterRegistry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder noteStreamMetrics(NoteEventBroadcaster noteEventBroadcaster) {
+        return registry -> Gauge.builder("notes.stream.connections", noteEventBroadcaster, NoteEventBroadcaster::connectionCount)
+                .description("Open SSE change feed connections")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder noteInvalidationMetrics(NoteCacheInvalidator noteCacheInvalidator) {
+        return registry -> {
+            Gauge.builder("notes.invalidation.pending", noteCacheInvalidator, invalidator -> invalidator.stats().pending())
+                    .register(registry);
+            Gauge.builder("notes.invalidation.lag.last", noteCacheInvalidator, invalidator -> invalidator.stats().lastLagMillis())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("notes.invalidation.lag.max", noteCacheInvalidator, invalidator -> invalidator.stats().maxLagMillis())
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("notes.invalidation.overflows", noteCacheInvalidator, invalidator -> invalidator.stats().overflows())
+                    .register(registry);
+        };
+    }
+}
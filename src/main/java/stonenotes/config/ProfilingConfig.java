@@ -0,0 +1,39 @@
+package stonenotes.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import stonenotes.profiling.ContinuousRecording;
+import stonenotes.profiling.JfrJwtDecoder;
+import stonenotes.profiling.JfrProperties;
+import stonenotes.profiling.NoteOperationEventAspect;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class ProfilingConfig {
+
+    @Bean
+    public ContinuousRecording continuousRecording(JfrProperties jfrProperties) {
+        return new ContinuousRecording(jfrProperties);
+    }
+
+    @Bean
+    public NoteOperationEventAspect noteOperationEventAspect() {
+        return new NoteOperationEventAspect();
+    }
+
+    @Bean
+    public static BeanPostProcessor jfrJwtDecoderPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JwtDecoder decoder && !(bean instanceof JfrJwtDecoder)) {
+                    return new JfrJwtDecoder(decoder);
+                }
+                return bean;
+            }
+        };
+    }
+}
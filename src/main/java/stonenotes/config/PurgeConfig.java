@@ -0,0 +1,23 @@
+package stonenotes.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import stonenotes.maintenance.NotePurgeWorker;
+import stonenotes.maintenance.PurgeProperties;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(PurgeProperties.class)
+public class PurgeConfig {
+
+    @Bean
+    public NotePurgeWorker notePurgeWorker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                           PurgeProperties purgeProperties, MeterRegistry meterRegistry) {
+        return new NotePurgeWorker(jdbcTemplate, transactionManager, purgeProperties, meterRegistry, Clock.systemUTC());
+    }
+}
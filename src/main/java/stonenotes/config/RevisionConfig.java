@@ -0,0 +1,10 @@
+package stonenotes.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import stonenotes.revision.RevisionProperties;
+
+@Configuration
+@EnableConfigurationProperties(RevisionProperties.class)
+public class RevisionConfig {
+}
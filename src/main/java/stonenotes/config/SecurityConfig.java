@@ -1,6 +1,7 @@
 package stonenotes.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -14,16 +15,28 @@ import java.util.Arrays;
 import java.util.List;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${notes.admin-authority:SCOPE_notes:admin}")
+    private String adminAuthority;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
         return httpSecurity
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Scrapers need no token on the internal management port, but do on the public one
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority(adminAuthority)
+                        .requestMatchers("/api/admin/**").hasAuthority(adminAuthority)
                         .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()))
                 .build();
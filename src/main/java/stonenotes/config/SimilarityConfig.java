@@ -0,0 +1,28 @@
+package stonenotes.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.maintenance.NoteSignatureBackfill;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.service.NoteService;
+import stonenotes.similar.NoteSimilarityIndex;
+import stonenotes.similar.SimilarityProperties;
+
+@Configuration
+@EnableConfigurationProperties(SimilarityProperties.class)
+public class SimilarityConfig {
+
+    @Bean
+    public NoteSignatureBackfill noteSignatureBackfill(NoteRepository noteRepository, ArchivedNoteRepository archivedNoteRepository,
+                                                       NoteService noteService, NoteSimilarityIndex noteSimilarityIndex,
+                                                       NoteCacheEvictor noteCacheEvictor, JdbcTemplate jdbcTemplate,
+                                                       SimilarityProperties similarityProperties, MeterRegistry meterRegistry) {
+        return new NoteSignatureBackfill(noteRepository, archivedNoteRepository, noteService, noteSimilarityIndex, noteCacheEvictor,
+                jdbcTemplate, similarityProperties, meterRegistry);
+    }
+}
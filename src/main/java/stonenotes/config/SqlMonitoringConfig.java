@@ -0,0 +1,29 @@
+package stonenotes.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import stonenotes.metrics.SqlMonitoringProperties;
+import stonenotes.metrics.StatementCountingDataSource;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(SqlMonitoringProperties.class)
+public class SqlMonitoringConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<SqlMonitoringProperties> sqlMonitoringProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource(dataSource, sqlMonitoringProperties.getObject().isTagStatements());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package stonenotes.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.maintenance.NoteStatsRebuilder;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.service.NoteService;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.stats.StatsProperties;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(StatsProperties.class)
+public class StatsConfig {
+
+    @Bean
+    public NoteStatsRebuilder noteStatsRebuilder(NoteRepository noteRepository, ArchivedNoteRepository archivedNoteRepository,
+                                                 NoteService noteService, NoteStatsService noteStatsService,
+                                                 NoteCacheEvictor noteCacheEvictor, JdbcTemplate jdbcTemplate,
+                                                 StatsProperties statsProperties, MeterRegistry meterRegistry) {
+        return new NoteStatsRebuilder(noteRepository, archivedNoteRepository, noteService, noteStatsService, noteCacheEvictor,
+                jdbcTemplate, statsProperties, meterRegistry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,116 @@
+package stonenotes.content;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// A stored body as a Spring Resource, so MVC serves HTTP Range requests from it directly.
+// Chunks are memory-mapped only when the stream reaches them; skipping (the start of a range)
+// moves past whole chunks without touching their files.
+public class ChunkedContentResource extends AbstractResource {
+    private final String ref;
+    private final List<ChunkedContentStore.Chunk> chunks;
+    private final long size;
+
+    ChunkedContentResource(String ref, List<ChunkedContentStore.Chunk> chunks) {
+        this.ref = ref;
+        this.chunks = chunks;
+        this.size = chunks.stream().mapToLong(ChunkedContentStore.Chunk::length).sum();
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Chunked note content [" + ref + "]";
+    }
+
+    @Override
+    public long contentLength() {
+        return size;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ChunkedInputStream();
+    }
+
+    private class ChunkedInputStream extends InputStream {
+        private int chunkIndex = 0;
+        private long positionInChunk = 0;
+        private MappedByteBuffer mapped;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            MappedByteBuffer current = current();
+            if (current == null) {
+                return -1;
+            }
+            int count = Math.min(length, current.remaining());
+            current.get(buffer, offset, count);
+            positionInChunk += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && chunkIndex < chunks.size()) {
+                long inChunk = Math.min(n - skipped, chunks.get(chunkIndex).length() - positionInChunk);
+                positionInChunk += inChunk;
+                skipped += inChunk;
+                if (mapped != null) {
+                    mapped.position((int) positionInChunk);
+                }
+                if (positionInChunk == chunks.get(chunkIndex).length()) {
+                    nextChunk();
+                }
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return mapped == null ? 0 : mapped.remaining();
+        }
+
+        private MappedByteBuffer current() throws IOException {
+            while (chunkIndex < chunks.size() && positionInChunk == chunks.get(chunkIndex).length()) {
+                nextChunk();
+            }
+            if (chunkIndex == chunks.size()) {
+                return null;
+            }
+            if (mapped == null) {
+                // The mapping stays valid after the channel is closed
+                try (FileChannel channel = FileChannel.open(chunks.get(chunkIndex).path(), StandardOpenOption.READ)) {
+                    mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, chunks.get(chunkIndex).length());
+                }
+                mapped.position((int) positionInChunk);
+            }
+            return mapped;
+        }
+
+        private void nextChunk() {
+            chunkIndex++;
+            positionInChunk = 0;
+            mapped = null;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package stonenotes.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+// Keeps large note bodies on disk as fixed-size chunks named by their SHA-256 hash, plus a
+// manifest (also content-addressed) listing the chunks in order. Identical chunks are stored once.
+// Files never change after they are written, which makes it safe to read them through memory maps.
+// The directory must be shared by all instances, since a note written on one is read on any other.
+// Files no note points at any more are removed by sweep.
+public class ChunkedContentStore {
+    private final Path chunkDirectory;
+    private final Path manifestDirectory;
+    private final int chunkSize;
+    private final int inlineThreshold;
+
+    public ChunkedContentStore(Path directory, int chunkSize, int inlineThreshold) {
+        this.chunkDirectory = directory.resolve("chunks");
+        this.manifestDirectory = directory.resolve("manifests");
+        this.chunkSize = chunkSize;
+        this.inlineThreshold = inlineThreshold;
+    }
+
+    record Chunk(Path path, int length) {
+    }
+
+    public boolean isLarge(String content) {
+        return content != null && content.length() > inlineThreshold;
+    }
+
+    public StoredContent write(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        StringBuilder manifest = new StringBuilder();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            String hash = ContentHashes.sha256(bytes, offset, length);
+            writeIfAbsent(path(chunkDirectory, hash), bytes, offset, length);
+            manifest.append(hash).append(' ').append(length).append('\n');
+        }
+
+        byte[] manifestBytes = manifest.toString().getBytes(StandardCharsets.US_ASCII);
+        String ref = ContentHashes.sha256(manifestBytes);
+        writeIfAbsent(path(manifestDirectory, ref), manifestBytes, 0, manifestBytes.length);
+        return new StoredContent(ref, bytes.length);
+    }
+
+    public ChunkedContentResource open(String ref) {
+        List<Chunk> chunks = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path(manifestDirectory, ref), StandardCharsets.US_ASCII)) {
+                int separator = line.indexOf(' ');
+                chunks.add(new Chunk(path(chunkDirectory, line.substring(0, separator)), Integer.parseInt(line.substring(separator + 1))));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read content manifest " + ref, ex);
+        }
+        return new ChunkedContentResource(ref, chunks);
+    }
+
+    public String read(String ref) {
+        try {
+            return new String(open(ref).getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read content " + ref, ex);
+        }
+    }
+
+    // Deletes manifests that are not in liveRefs and chunks that no remaining manifest lists, and returns how many files
+    // went. Files written or reused after writtenBefore are kept, since the note write about to point at them may not
+    // have committed yet. Several instances may sweep at once.
+    public int sweep(Set<String> liveRefs, Instant writtenBefore) {
+        Set<String> liveChunks = new HashSet<>();
+        int deleted = 0;
+        for (Path manifest : files(manifestDirectory)) {
+            String name = manifest.getFileName().toString();
+            if (!liveRefs.contains(name) && deleteIfWrittenBefore(manifest, writtenBefore)) {
+                deleted++;
+            } else if (!name.endsWith(".tmp")) {
+                liveChunks.addAll(chunkHashes(manifest));
+            }
+        }
+        for (Path chunk : files(chunkDirectory)) {
+            if (!liveChunks.contains(chunk.getFileName().toString()) && deleteIfWrittenBefore(chunk, writtenBefore)) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static List<Path> files(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list content files in " + directory, ex);
+        }
+    }
+
+    private static List<String> chunkHashes(Path manifest) {
+        try {
+            return Files.readAllLines(manifest, StandardCharsets.US_ASCII).stream()
+                    .map(line -> line.substring(0, line.indexOf(' ')))
+                    .toList();
+        } catch (NoSuchFileException ex) {
+            // Swept by another instance, which keeps the chunks it still needs itself
+            return List.of();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read content manifest " + manifest, ex);
+        }
+    }
+
+    private static boolean deleteIfWrittenBefore(Path path, Instant writtenBefore) {
+        try {
+            return Files.getLastModifiedTime(path).toInstant().isBefore(writtenBefore) && Files.deleteIfExists(path);
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot delete content file " + path, ex);
+        }
+    }
+
+    // Two-level fan-out keeps directories small
+    private static Path path(Path directory, String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void writeIfAbsent(Path path, byte[] bytes, int offset, int length) {
+        try {
+            // Reusing a file counts as writing it, so the sweep keeps it for the note about to point at it
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            return;
+        } catch (NoSuchFileException ex) {
+            // Not written yet, or swept in the meantime
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write content file " + path, ex);
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                out.write(bytes, offset, length);
+            }
+            // A concurrent writer of the same hash produces identical bytes, so either rename may win
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot write content file " + path, ex);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package stonenotes.content;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+// Removes chunk store files that no notes row points at any more: the old bodies of updated notes and the bodies of
+// purged ones. Notes in the trash keep theirs until they are purged.
+public class ChunkedContentSweeper {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedContentSweeper.class);
+
+    static final String LIVE_REFS_SQL = "SELECT DISTINCT content_ref FROM notes WHERE content_ref IS NOT NULL";
+
+    private final ChunkedContentStore contentStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ContentStoreProperties properties;
+    private final Clock clock;
+    private final Counter sweptFiles;
+
+    public ChunkedContentSweeper(ChunkedContentStore contentStore, JdbcTemplate jdbcTemplate, ContentStoreProperties properties,
+                                 MeterRegistry meterRegistry, Clock clock) {
+        this.contentStore = contentStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.sweptFiles = Counter.builder("notes.content.swept.files")
+                .description("Chunk and manifest files deleted because no note pointed at them")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.content.sweep-interval:PT1H}",
+            initialDelayString = "${notes.content.sweep-interval:PT1H}")
+    public void sweep() {
+        // Taken before the refs are read, so a note committed after the read wrote its files too recently to lose them
+        Instant writtenBefore = clock.instant().minus(properties.getSweepGracePeriod());
+        Set<String> liveRefs = new HashSet<>(jdbcTemplate.queryForList(LIVE_REFS_SQL, String.class));
+        int deleted = contentStore.sweep(liveRefs, writtenBefore);
+        sweptFiles.increment(deleted);
+        if (deleted > 0) {
+            log.info("Swept {} unreferenced content files, {} stored bodies still referenced", deleted, liveRefs.size());
+        }
+    }
+}
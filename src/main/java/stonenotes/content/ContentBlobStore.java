@@ -0,0 +1,111 @@
+package stonenotes.content;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import stonenotes.common.JdbcInserts;
+import stonenotes.model.ContentBlob;
+import stonenotes.repository.ContentBlobRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Content-addressed storage for inline note bodies: identical content is stored once in content_blobs
+// and notes point at its hash. Reference counts are kept with single-row UPDATEs.
+// Acquire, retain and release all join the caller's transaction, so a batch that rolls back takes its counts with it.
+// Single-note writes acquire just before their write transaction, so a failed one can leave a count too high but
+// never too low. The sweep never deletes a blob that a notes row (including one in the trash) still points at, so a
+// count that is too high cannot lose content.
+public class ContentBlobStore {
+    private static final Logger log = LoggerFactory.getLogger(ContentBlobStore.class);
+
+    static final String RETAIN_SQL = "UPDATE content_blobs SET ref_count = ref_count + 1 WHERE hash = ?";
+    static final String RELEASE_SQL = "UPDATE content_blobs SET ref_count = ref_count - 1 WHERE hash = ? AND ref_count > 0";
+    static final String INSERT_SQL = "INSERT INTO content_blobs (hash, content, content_size, ref_count) VALUES (?, ?, ?, 1)";
+    static final String SWEEP_SQL = "DELETE FROM content_blobs WHERE ref_count = 0"
+            + " AND NOT EXISTS (SELECT 1 FROM notes WHERE notes.content_hash = content_blobs.hash)";
+    static final String STATS_SQL = "SELECT COALESCE(SUM(content_size * ref_count), 0), COALESCE(SUM(content_size), 0) FROM content_blobs";
+
+    private final ContentBlobRepository contentBlobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DedupProperties properties;
+    private final AtomicLong logicalBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    public ContentBlobStore(ContentBlobRepository contentBlobRepository, JdbcTemplate jdbcTemplate, DedupProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.contentBlobRepository = contentBlobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        Gauge.builder("notes.dedup.logical.size", logicalBytes, AtomicLong::get)
+                .description("Size of all live deduplicated note bodies as if each note stored its own copy")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("notes.dedup.stored.size", storedBytes, AtomicLong::get)
+                .description("Size of the distinct bodies actually stored in content_blobs")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("notes.dedup.ratio", this, ContentBlobStore::dedupRatio)
+                .description("Logical to stored size of deduplicated note bodies, as of the last sweep")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Takes a reference to the blob for this content, inserting it on first use, and returns its hash.
+    // An insert that loses to a concurrent insert of the same content is retried as an increment.
+    public String acquire(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = ContentHashes.sha256(bytes);
+        if (jdbcTemplate.update(RETAIN_SQL, hash) == 0
+                && !JdbcInserts.insertIfAbsent(jdbcTemplate, INSERT_SQL, hash, content, bytes.length)) {
+            jdbcTemplate.update(RETAIN_SQL, hash);
+        }
+        return hash;
+    }
+
+    // For a note coming back from the trash; the sweep keeps blobs that trashed notes point at.
+    public void retain(String hash) {
+        jdbcTemplate.update(RETAIN_SQL, hash);
+    }
+
+    public void release(String hash) {
+        jdbcTemplate.update(RELEASE_SQL, hash);
+    }
+
+    public String resolve(String hash) {
+        return contentBlobRepository.findById(hash)
+                .map(ContentBlob::getContent)
+                .orElseThrow(() -> new IllegalStateException("Missing content blob " + hash));
+    }
+
+    @Scheduled(fixedDelayString = "${notes.dedup.sweep-interval:PT10M}",
+            initialDelayString = "${notes.dedup.sweep-interval:PT10M}")
+    public void sweep() {
+        if (!isEnabled()) {
+            return;
+        }
+        int deleted = jdbcTemplate.update(SWEEP_SQL);
+        refreshStats();
+        if (deleted > 0) {
+            log.info("Swept {} unreferenced content blobs, dedup ratio {}", deleted, String.format("%.2f", dedupRatio()));
+        }
+    }
+
+    void refreshStats() {
+        jdbcTemplate.query(STATS_SQL, rs -> {
+            logicalBytes.set(rs.getLong(1));
+            storedBytes.set(rs.getLong(2));
+        });
+    }
+
+    double dedupRatio() {
+        long stored = storedBytes.get();
+        return stored == 0 ? 1.0 : (double) logicalBytes.get() / stored;
+    }
+}
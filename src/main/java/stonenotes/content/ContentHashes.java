@@ -0,0 +1,25 @@
+package stonenotes.content;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class ContentHashes {
+
+    private ContentHashes() {}
+
+    // Lower-case hex SHA-256, 64 characters
+    public static String sha256(byte[] bytes, int offset, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, offset, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static String sha256(byte[] bytes) {
+        return sha256(bytes, 0, bytes.length);
+    }
+}
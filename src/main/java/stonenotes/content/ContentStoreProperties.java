@@ -0,0 +1,26 @@
+package stonenotes.content;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.content")
+public class ContentStoreProperties {
+    // Content longer than this many characters is kept in the chunk store instead of the notes table
+    private int inlineThreshold = 10_000;
+
+    // Must be a volume shared by all instances, such as a network file system
+    private Path directory = Path.of("data", "content");
+
+    // Smaller chunks share more between similar notes, larger ones mean fewer files and mappings per read
+    private DataSize chunkSize = DataSize.ofKilobytes(256);
+
+    // Unreferenced files younger than this are left to the next sweep; it must exceed the longest note write
+    private Duration sweepGracePeriod = Duration.ofHours(1);
+}
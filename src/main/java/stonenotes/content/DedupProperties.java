@@ -0,0 +1,13 @@
+package stonenotes.content;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.dedup")
+public class DedupProperties {
+    // Store inline note bodies once per distinct content in content_blobs
+    private boolean enabled = false;
+}
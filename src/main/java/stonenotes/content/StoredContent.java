@@ -0,0 +1,5 @@
+package stonenotes.content;
+
+// A body written to the chunk store: the hash of its manifest and its size in UTF-8 bytes
+public record StoredContent(String ref, long size) {
+}
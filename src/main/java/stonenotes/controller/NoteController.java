@@ -1,41 +1,119 @@
 package stonenotes.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.annotation.Timed;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import stonenotes.common.ApiResponse;
 import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.DuplicateGroupDto;
+import stonenotes.dto.NoteBatchResponseDto;
+import stonenotes.dto.NoteField;
+import stonenotes.dto.NoteOperationsRequestDto;
+import stonenotes.dto.NoteOperationsResponseDto;
 import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.NoteRevisionDto;
+import stonenotes.dto.NoteStatsDto;
+import stonenotes.dto.NoteSuggestionDto;
+import stonenotes.dto.SimilarNoteDto;
+import stonenotes.dto.SparseNoteDto;
 import stonenotes.dto.UpdateNoteDto;
+import stonenotes.idempotency.IdempotencyService;
+import stonenotes.service.NoteEventBroadcaster;
+import stonenotes.service.NoteOperationsService;
+import stonenotes.service.NoteRevisionService;
 import stonenotes.service.NoteService;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.tag.TagMatchMode;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api")
 public class NoteController {
+    private static final TypeReference<ApiResponse<NoteResponseDto>> NOTE_RESPONSE_TYPE = new TypeReference<>() {};
+    private static final TypeReference<ApiResponse<NoteOperationsResponseDto>> OPERATIONS_RESPONSE_TYPE = new TypeReference<>() {};
+
     private final NoteService noteService;
+    private final NoteEventBroadcaster noteEventBroadcaster;
+    private final NoteOperationsService noteOperationsService;
+    private final IdempotencyService idempotencyService;
+    private final NoteRevisionService noteRevisionService;
+    private final NoteStatsService noteStatsService;
 
-    public NoteController(NoteService noteService) {
+    public NoteController(NoteService noteService, NoteEventBroadcaster noteEventBroadcaster, NoteOperationsService noteOperationsService,
+                          IdempotencyService idempotencyService, NoteRevisionService noteRevisionService,
+                          NoteStatsService noteStatsService) {
         this.noteService = noteService;
+        this.noteEventBroadcaster = noteEventBroadcaster;
+        this.noteOperationsService = noteOperationsService;
+        this.idempotencyService = idempotencyService;
+        this.noteRevisionService = noteRevisionService;
+        this.noteStatsService = noteStatsService;
     }
 
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "createNote"})
     @PostMapping("/notes")
-    public ResponseEntity<ApiResponse<NoteResponseDto>> createNote(@Valid @RequestBody CreateNoteDto createNoteDto, @AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<ApiResponse<NoteResponseDto>> createNote(
+            @Valid @RequestBody CreateNoteDto createNoteDto,
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         String userId = jwt.getClaim("sub");
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, userId, "createNote", createNoteDto, NOTE_RESPONSE_TYPE,
+                    () -> createNote(createNoteDto, userId));
+        }
+        return createNote(createNoteDto, userId);
+    }
+
+    private ResponseEntity<ApiResponse<NoteResponseDto>> createNote(CreateNoteDto createNoteDto, String userId) {
         NoteResponseDto noteResponseDto = noteService.createNote(createNoteDto, userId);
 
         ApiResponse<NoteResponseDto> response = ApiResponse.success(noteResponseDto, "Note created successfully", 201);
         return ResponseEntity.status(201).body(response);
     }
 
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "applyOperations"})
+    @PostMapping("/notes/operations")
+    public ResponseEntity<ApiResponse<NoteOperationsResponseDto>> applyOperations(
+            @Valid @RequestBody NoteOperationsRequestDto request,
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        String userId = jwt.getClaim("sub");
+        if (idempotencyKey != null) {
+            return idempotencyService.execute(idempotencyKey, userId, "applyOperations", request, OPERATIONS_RESPONSE_TYPE,
+                    () -> applyOperations(request, userId));
+        }
+        return applyOperations(request, userId);
+    }
+
+    private ResponseEntity<ApiResponse<NoteOperationsResponseDto>> applyOperations(NoteOperationsRequestDto request, String userId) {
+        NoteOperationsResponseDto result = noteOperationsService.applyOperations(request.getOperations(), request.getMode(), userId);
+
+        if (!result.isCommitted()) {
+            ApiResponse<NoteOperationsResponseDto> response = ApiResponse.error("Operations rolled back", 422);
+            response.setData(result);
+            return ResponseEntity.status(422).body(response);
+        }
+        ApiResponse<NoteOperationsResponseDto> response = ApiResponse.success(result, "Operations applied");
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getNotes"})
     @GetMapping("/notes")
     public ResponseEntity<ApiResponse<Page<NoteResponseDto>>> getNotes(
             @AuthenticationPrincipal Jwt jwt,
@@ -45,19 +123,88 @@ public class NoteController {
             @RequestParam(defaultValue = "desc") String sortDir) {
         String userId = jwt.getClaim("sub");
 
-        List<String> allowedSortFields = Arrays.asList("createdAt", "updatedAt", "title");
-        if(!allowedSortFields.contains(sortBy)) {
-            throw new IllegalArgumentException("Invalid sort field: " + sortBy);
-        }
+        Page<NoteResponseDto> notesPage = noteService.findNotesByUserId(userId, pageRequest(page, size, sortBy, sortDir));
 
-        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-        Page<NoteResponseDto> notesPage = noteService.findNotesByUserId(userId, pageable);
+        ApiResponse<Page<NoteResponseDto>> response = ApiResponse.success(notesPage, "Notes retrieved successfully", 200);
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getSparseNotes"})
+    @GetMapping(value = "/notes", params = {"fields", "!ids", "!tags"})
+    public ResponseEntity<ApiResponse<Page<SparseNoteDto>>> getSparseNotes(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        String userId = jwt.getClaim("sub");
+
+        Page<SparseNoteDto> notesPage = noteService.findNotesByUserId(userId, NoteField.parse(fields), pageRequest(page, size, sortBy, sortDir));
+
+        ApiResponse<Page<SparseNoteDto>> response = ApiResponse.success(notesPage, "Notes retrieved successfully", 200);
+        return ResponseEntity.ok(response);
+    }
+
+    // Notes carrying all (mode=and) or any (mode=or) of the comma-separated tags, newest first by default
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getNotesByTags"})
+    @GetMapping(value = "/notes", params = {"tags", "!ids"})
+    public ResponseEntity<ApiResponse<Page<NoteResponseDto>>> getNotesByTags(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "and") String mode,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        String userId = jwt.getClaim("sub");
+
+        Page<NoteResponseDto> notesPage = noteService.findNotesByTags(userId, tags, TagMatchMode.parse(mode),
+                pageRequest(page, size, sortBy, sortDir));
 
         ApiResponse<Page<NoteResponseDto>> response = ApiResponse.success(notesPage, "Notes retrieved successfully", 200);
         return ResponseEntity.ok(response);
     }
 
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getNotesByIds"})
+    @GetMapping(value = "/notes", params = "ids")
+    public ResponseEntity<ApiResponse<NoteBatchResponseDto>> getNotesByIds(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam List<Long> ids) {
+        String userId = jwt.getClaim("sub");
+
+        NoteBatchResponseDto notes = noteService.findNotesByIdsAndUserId(ids, userId);
+
+        ApiResponse<NoteBatchResponseDto> response = ApiResponse.success(notes, "Notes retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    // Notes whose title starts with the prefix, ignoring case, for find-as-you-type
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "suggestNotes"})
+    @GetMapping("/notes/suggest")
+    public ResponseEntity<ApiResponse<List<NoteSuggestionDto>>> suggestNotes(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        String userId = jwt.getClaim("sub");
+
+        List<NoteSuggestionDto> suggestions = noteService.suggestNotes(userId, prefix, limit);
+
+        ApiResponse<List<NoteSuggestionDto>> response = ApiResponse.success(suggestions, "Suggestions retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "streamNotes"})
+    @GetMapping(value = "/notes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotes(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        String userId = jwt.getClaim("sub");
+
+        return noteEventBroadcaster.subscribe(userId, lastEventId);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getNote"})
     @GetMapping("/notes/{noteId}")
     public ResponseEntity<ApiResponse<NoteResponseDto>> getNote(
             @AuthenticationPrincipal Jwt jwt,
@@ -70,6 +217,121 @@ public class NoteController {
         return ResponseEntity.ok(response);
     }
 
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getSparseNote"})
+    @GetMapping(value = "/notes/{noteId}", params = "fields")
+    public ResponseEntity<ApiResponse<SparseNoteDto>> getSparseNote(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId,
+            @RequestParam String fields) {
+        String userId = jwt.getClaim("sub");
+
+        SparseNoteDto note = noteService.findNoteByIdAndUserId(noteId, userId, NoteField.parse(fields));
+
+        ApiResponse<SparseNoteDto> response = ApiResponse.success(note, "Note retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    // Near-duplicates of the note, most similar first
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getSimilarNotes"})
+    @GetMapping("/notes/{noteId}/similar")
+    public ResponseEntity<ApiResponse<List<SimilarNoteDto>>> getSimilarNotes(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId,
+            @RequestParam(defaultValue = "10") int limit) {
+        String userId = jwt.getClaim("sub");
+
+        List<SimilarNoteDto> similar = noteService.findSimilarNotes(noteId, userId, limit);
+
+        ApiResponse<List<SimilarNoteDto>> response = ApiResponse.success(similar, "Similar notes retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getDuplicateNotes"})
+    @GetMapping("/notes/duplicates")
+    public ResponseEntity<ApiResponse<List<DuplicateGroupDto>>> getDuplicateNotes(@AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaim("sub");
+
+        List<DuplicateGroupDto> duplicates = noteService.findDuplicateNotes(userId);
+
+        ApiResponse<List<DuplicateGroupDto>> response = ApiResponse.success(duplicates, "Duplicate notes retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    // Note and word counts, and notes created on each of the last days, read from the user's statistics rows
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getNoteStats"})
+    @GetMapping("/notes/stats")
+    public ResponseEntity<ApiResponse<NoteStatsDto>> getNoteStats(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(defaultValue = "30") int days) {
+        String userId = jwt.getClaim("sub");
+
+        NoteStatsDto stats = noteStatsService.getStats(userId, days);
+
+        ApiResponse<NoteStatsDto> response = ApiResponse.success(stats, "Note statistics retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    // Returning a Resource lets Spring MVC answer Range requests with 206 Partial Content
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getNoteContent"})
+    @GetMapping("/notes/{noteId}/content")
+    public ResponseEntity<Resource> getNoteContent(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId) {
+        String userId = jwt.getClaim("sub");
+
+        Resource content = noteService.openNoteContent(noteId, userId);
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(content);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getRevisions"})
+    @GetMapping("/notes/{noteId}/revisions")
+    public ResponseEntity<ApiResponse<Page<NoteRevisionDto>>> getRevisions(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        String userId = jwt.getClaim("sub");
+
+        Page<NoteRevisionDto> revisions = noteRevisionService.findRevisions(noteId, userId, PageRequest.of(page, size));
+
+        ApiResponse<Page<NoteRevisionDto>> response = ApiResponse.success(revisions, "Revisions retrieved successfully", 200);
+        return ResponseEntity.ok(response);
+    }
+
+    // Point-in-time read: the note as it was at the given ISO-8601 instant
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getRevisionAt"})
+    @GetMapping(value = "/notes/{noteId}/revisions", params = "at")
+    public ResponseEntity<ApiResponse<NoteRevisionDto>> getRevisionAt(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId,
+            @RequestParam Instant at) {
+        String userId = jwt.getClaim("sub");
+
+        NoteRevisionDto revision = noteRevisionService.findRevisionAt(noteId, userId, at);
+
+        ApiResponse<NoteRevisionDto> response = ApiResponse.success(revision, "Revision retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getRevision"})
+    @GetMapping("/notes/{noteId}/revisions/{revision}")
+    public ResponseEntity<ApiResponse<NoteRevisionDto>> getRevision(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId,
+            @PathVariable int revision) {
+        String userId = jwt.getClaim("sub");
+
+        NoteRevisionDto noteRevision = noteRevisionService.findRevision(noteId, userId, revision);
+
+        ApiResponse<NoteRevisionDto> response = ApiResponse.success(noteRevision, "Revision retrieved successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "updateNote"})
     @PutMapping("/notes/{noteId}")
     public ResponseEntity<ApiResponse<NoteResponseDto>> updateNote(
             @PathVariable Long noteId,
@@ -83,6 +345,34 @@ public class NoteController {
         return ResponseEntity.ok(response);
     }
 
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "getTrash"})
+    @GetMapping("/notes/trash")
+    public ResponseEntity<ApiResponse<Page<NoteResponseDto>>> getTrash(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        String userId = jwt.getClaim("sub");
+
+        Page<NoteResponseDto> notesPage = noteService.findDeletedNotesByUserId(userId, PageRequest.of(page, size));
+
+        ApiResponse<Page<NoteResponseDto>> response = ApiResponse.success(notesPage, "Deleted notes retrieved successfully", 200);
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "restoreNote"})
+    @PostMapping("/notes/{noteId}/restore")
+    public ResponseEntity<ApiResponse<NoteResponseDto>> restoreNote(
+            @PathVariable Long noteId,
+            @AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaim("sub");
+
+        NoteResponseDto restoredNote = noteService.restoreNote(noteId, userId);
+
+        ApiResponse<NoteResponseDto> response = ApiResponse.success(restoredNote, "Note restored successfully");
+        return ResponseEntity.ok(response);
+    }
+
+    @Timed(value = "notes.controller", extraTags = {"endpoint", "deleteNote"})
     @DeleteMapping("/notes/{noteId}")
     public ResponseEntity<ApiResponse<Void>> deleteNote(
             @PathVariable Long noteId,
@@ -94,4 +384,14 @@ public class NoteController {
         ApiResponse<Void> response = ApiResponse.success(null, "Note deleted successfully");
         return ResponseEntity.ok(response);
     }
+
+    private Pageable pageRequest(int page, int size, String sortBy, String sortDir) {
+        List<String> allowedSortFields = Arrays.asList("createdAt", "updatedAt", "title");
+        if(!allowedSortFields.contains(sortBy)) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortBy);
+        }
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return PageRequest.of(page, size, Sort.by(direction, sortBy));
+    }
 }
@@ -0,0 +1,39 @@
+package stonenotes.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import stonenotes.common.ApiResponse;
+import stonenotes.profiling.ContinuousRecording;
+import stonenotes.profiling.JfrProperties;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+public class ProfilingController {
+    private final ContinuousRecording continuousRecording;
+    private final JfrProperties jfrProperties;
+
+    public ProfilingController(ContinuousRecording continuousRecording, JfrProperties jfrProperties) {
+        this.continuousRecording = continuousRecording;
+        this.jfrProperties = jfrProperties;
+    }
+
+    @PostMapping("/snapshots")
+    public ResponseEntity<ApiResponse<ContinuousRecording.Snapshot>> createSnapshot(
+            @RequestParam(defaultValue = "5") int minutes) throws IOException {
+        Duration window = Duration.ofMinutes(minutes);
+        if (minutes < 1 || window.compareTo(jfrProperties.getMaxAge()) > 0) {
+            throw new IllegalArgumentException("Snapshot window must be between 1 minute and " + jfrProperties.getMaxAge().toMinutes() + " minutes");
+        }
+
+        ContinuousRecording.Snapshot snapshot = continuousRecording.snapshot(window);
+
+        ApiResponse<ContinuousRecording.Snapshot> response = ApiResponse.success(snapshot, "Recording snapshot created", 201);
+        return ResponseEntity.status(201).body(response);
+    }
+}
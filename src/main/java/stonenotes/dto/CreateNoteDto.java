@@ -4,17 +4,26 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import stonenotes.tag.NoteTags;
+
+import java.util.List;
 
 @Setter
 @Getter
 public class CreateNoteDto {
+    // Bodies above notes.content.inline-threshold are kept in the chunk store rather than the notes table
+    public static final int MAX_CONTENT_LENGTH = 5_000_000;
+
     @NotBlank(message = "Title is required")
     @Size(max = 255, message = "Title must be less than 255 characters")
     private String title;
 
-    @Size(max = 10000, message = "Content must be less than 10000 characters")
+    @Size(max = CreateNoteDto.MAX_CONTENT_LENGTH, message = "Content must be less than " + CreateNoteDto.MAX_CONTENT_LENGTH + " characters")
     private String content;
 
+    @Size(max = NoteTags.MAX_TAGS, message = "At most " + NoteTags.MAX_TAGS + " tags are allowed")
+    private List<String> tags;
+
     public CreateNoteDto() {}
 
     public CreateNoteDto(String title, String content) {
@@ -0,0 +1,21 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Setter
+@Getter
+public class DailyNoteCountDto {
+    private LocalDate day;
+    // Notes created on this day that still exist
+    private long created;
+
+    public DailyNoteCountDto() {}
+
+    public DailyNoteCountDto(LocalDate day, long created) {
+        this.day = day;
+        this.created = created;
+    }
+}
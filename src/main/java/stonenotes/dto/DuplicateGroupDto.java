@@ -0,0 +1,19 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class DuplicateGroupDto {
+    // Ascending; each note is a near-duplicate of at least one other in the group
+    private List<Long> noteIds;
+
+    public DuplicateGroupDto() {}
+
+    public DuplicateGroupDto(List<Long> noteIds) {
+        this.noteIds = noteIds;
+    }
+}
@@ -0,0 +1,21 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class NoteBatchResponseDto {
+    private List<NoteResponseDto> notes;
+    private List<Long> missingIds;
+
+    public NoteBatchResponseDto() {}
+
+    public NoteBatchResponseDto(List<NoteResponseDto> notes, List<Long> missingIds) {
+        this.notes = notes;
+        this.missingIds = missingIds;
+    }
+
+}
@@ -0,0 +1,73 @@
+package stonenotes.dto;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Fields of NoteResponseDto a client can select with ?fields=. Names double as Note entity attribute names.
+public enum NoteField {
+    ID("id"),
+    TITLE("title"),
+    CONTENT("content"),
+    TAGS("tags"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String fieldName;
+
+    NoteField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public Object valueOf(NoteResponseDto note) {
+        return switch (this) {
+            case ID -> note.getId();
+            case TITLE -> note.getTitle();
+            case CONTENT -> note.getContent();
+            case TAGS -> note.getTags() == null ? List.of() : note.getTags();
+            case CREATED_AT -> note.getCreatedAt();
+            case UPDATED_AT -> note.getUpdatedAt();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public void apply(NoteResponseDto note, Object value) {
+        switch (this) {
+            case ID -> note.setId((Long) value);
+            case TITLE -> note.setTitle((String) value);
+            case CONTENT -> note.setContent((String) value);
+            case TAGS -> note.setTags((List<String>) value);
+            case CREATED_AT -> note.setCreatedAt((Instant) value);
+            case UPDATED_AT -> note.setUpdatedAt((Instant) value);
+        }
+    }
+
+    public static Set<NoteField> parse(String fields) {
+        EnumSet<NoteField> selected = EnumSet.noneOf(NoteField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fromFieldName(trimmed));
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested");
+        }
+        return selected;
+    }
+
+    private static NoteField fromFieldName(String name) {
+        for (NoteField field : values()) {
+            if (field.fieldName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Invalid field: " + name);
+    }
+}
@@ -0,0 +1,44 @@
+package stonenotes.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import stonenotes.tag.NoteTags;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class NoteOperationDto {
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    private Long noteId;
+
+    @Size(max = 255, message = "Title must be less than 255 characters")
+    private String title;
+
+    @Size(max = 10000, message = "Content must be less than 10000 characters")
+    private String content;
+
+    // Left unchanged by updates when omitted
+    @Size(max = NoteTags.MAX_TAGS, message = "At most " + NoteTags.MAX_TAGS + " tags are allowed")
+    private List<String> tags;
+
+    public NoteOperationDto() {}
+
+    public NoteOperationDto(Type type, Long noteId, String title, String content) {
+        this.type = type;
+        this.noteId = noteId;
+        this.title = title;
+        this.content = content;
+    }
+
+}
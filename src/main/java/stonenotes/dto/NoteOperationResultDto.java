@@ -0,0 +1,30 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class NoteOperationResultDto {
+    private int index;
+    private NoteOperationDto.Type type;
+    private int status;
+    private Long noteId;
+    private NoteResponseDto note;
+    private String error;
+
+    public NoteOperationResultDto() {}
+
+    public NoteOperationResultDto(int index, NoteOperationDto.Type type, int status, Long noteId, String error) {
+        this.index = index;
+        this.type = type;
+        this.status = status;
+        this.noteId = noteId;
+        this.error = error;
+    }
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+
+}
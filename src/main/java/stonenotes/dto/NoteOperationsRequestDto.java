@@ -0,0 +1,38 @@
+package stonenotes.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class NoteOperationsRequestDto {
+    public static final int MAX_OPERATIONS = 500;
+
+    public enum Mode {
+        // Any failed operation rolls back the whole batch
+        ATOMIC,
+        // Failed operations are skipped and the rest are committed
+        BEST_EFFORT
+    }
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "At most 500 operations can be applied at once")
+    private List<@Valid NoteOperationDto> operations;
+
+    @NotNull(message = "Mode is required")
+    private Mode mode = Mode.ATOMIC;
+
+    public NoteOperationsRequestDto() {}
+
+    public NoteOperationsRequestDto(List<NoteOperationDto> operations, Mode mode) {
+        this.operations = operations;
+        this.mode = mode;
+    }
+
+}
@@ -0,0 +1,21 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class NoteOperationsResponseDto {
+    private boolean committed;
+    private List<NoteOperationResultDto> results;
+
+    public NoteOperationsResponseDto() {}
+
+    public NoteOperationsResponseDto(boolean committed, List<NoteOperationResultDto> results) {
+        this.committed = committed;
+        this.results = results;
+    }
+
+}
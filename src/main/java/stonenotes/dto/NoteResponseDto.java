@@ -1,9 +1,11 @@
 package stonenotes.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.Instant;
+import java.util.List;
 
 @Setter
 @Getter
@@ -11,8 +13,16 @@ public class NoteResponseDto {
     private Long id;
     private String title;
     private String content;
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<String> tags;
     private Instant createdAt;
     private Instant updatedAt;
+    // Only set for large notes, whose content is left out here and read from /api/notes/{id}/content
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long contentSize;
+    // Only set for notes in the trash
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant deletedAt;
 
     public NoteResponseDto() {}
 
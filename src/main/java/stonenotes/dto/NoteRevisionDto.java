@@ -0,0 +1,31 @@
+package stonenotes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+public class NoteRevisionDto {
+    private Long noteId;
+    private int revision;
+    private String title;
+    // Only set when a single revision is read; revision listings leave it out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String content;
+    private long contentSize;
+    private Instant createdAt;
+
+    public NoteRevisionDto() {}
+
+    public NoteRevisionDto(Long noteId, int revision, String title, String content, long contentSize, Instant createdAt) {
+        this.noteId = noteId;
+        this.revision = revision;
+        this.title = title;
+        this.content = content;
+        this.contentSize = contentSize;
+        this.createdAt = createdAt;
+    }
+}
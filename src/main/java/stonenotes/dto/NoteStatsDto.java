@@ -0,0 +1,24 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Setter
+@Getter
+public class NoteStatsDto {
+    // Live notes in both tiers; notes in the trash are not counted
+    private long noteCount;
+    private long wordCount;
+    // One entry per UTC day of the requested range, oldest first, including days without notes
+    private List<DailyNoteCountDto> createdPerDay;
+
+    public NoteStatsDto() {}
+
+    public NoteStatsDto(long noteCount, long wordCount, List<DailyNoteCountDto> createdPerDay) {
+        this.noteCount = noteCount;
+        this.wordCount = wordCount;
+        this.createdPerDay = createdPerDay;
+    }
+}
@@ -0,0 +1,18 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class NoteSuggestionDto {
+    private Long id;
+    private String title;
+
+    public NoteSuggestionDto() {}
+
+    public NoteSuggestionDto(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+}
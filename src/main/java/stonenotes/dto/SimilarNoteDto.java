@@ -0,0 +1,19 @@
+package stonenotes.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Setter
+@Getter
+public class SimilarNoteDto {
+    private Long id;
+    // Estimated share of three-word phrases the note has in common with the requested one, from 0 to 1
+    private double similarity;
+
+    public SimilarNoteDto() {}
+
+    public SimilarNoteDto(Long id, double similarity) {
+        this.id = id;
+        this.similarity = similarity;
+    }
+}
@@ -0,0 +1,32 @@
+package stonenotes.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// A note restricted to the requested fields; fields that were not requested are left out of the output entirely
+@Getter
+public class SparseNoteDto {
+    @JsonIgnore
+    private final Set<NoteField> fields;
+    @JsonIgnore
+    private final NoteResponseDto note;
+
+    public SparseNoteDto(Set<NoteField> fields, NoteResponseDto note) {
+        this.fields = fields;
+        this.note = note;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> values() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (NoteField field : fields) {
+            values.put(field.getFieldName(), field.valueOf(note));
+        }
+        return values;
+    }
+}
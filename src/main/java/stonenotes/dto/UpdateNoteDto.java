@@ -4,6 +4,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import stonenotes.tag.NoteTags;
+
+import java.util.List;
 
 @Setter
 @Getter
@@ -12,9 +15,13 @@ public class UpdateNoteDto {
     @Size(max = 255, message = "Title must be less than 255 characters")
     private String title;
 
-    @Size(max = 10000, message = "Content must be less than 10000 characters")
+    @Size(max = CreateNoteDto.MAX_CONTENT_LENGTH, message = "Content must be less than " + CreateNoteDto.MAX_CONTENT_LENGTH + " characters")
     private String content;
 
+    // Left unchanged when omitted
+    @Size(max = NoteTags.MAX_TAGS, message = "At most " + NoteTags.MAX_TAGS + " tags are allowed")
+    private List<String> tags;
+
     public UpdateNoteDto() {}
 
     public UpdateNoteDto(String title, String content) {
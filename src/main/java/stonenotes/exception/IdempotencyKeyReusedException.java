@@ -0,0 +1,5 @@
+package stonenotes.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) { super(message); }
+}
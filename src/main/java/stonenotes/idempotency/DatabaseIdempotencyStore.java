@@ -0,0 +1,51 @@
+package stonenotes.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import stonenotes.model.IdempotencyRecord;
+import stonenotes.repository.IdempotencyRecordRepository;
+
+import java.time.Clock;
+import java.util.Optional;
+
+// Shares completed responses between instances through the idempotency_keys table
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseIdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Clock clock;
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository, Clock clock) {
+        this.repository = repository;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> find(String key) {
+        return repository.findById(key)
+                .filter(record -> !record.getExpiresAt().isBefore(clock.instant()))
+                .map(record -> new IdempotentResponse(record.getFingerprint(), record.getStatus(), record.getBody(), record.getExpiresAt()));
+    }
+
+    @Override
+    public void save(String key, IdempotentResponse response) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKey(key);
+        record.setFingerprint(response.fingerprint());
+        record.setStatus(response.status());
+        record.setBody(response.body());
+        record.setExpiresAt(response.expiresAt());
+        // Keys carry an assigned id, so this merges and a concurrent save from another instance just overwrites
+        repository.save(record);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.idempotency.purge-interval:PT10M}",
+            initialDelayString = "${notes.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(clock.instant());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package stonenotes.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.idempotency")
+public class IdempotencyProperties {
+    // "in-memory" (per instance) or "database" (shared idempotency_keys table)
+    private String store = "in-memory";
+
+    // How long a completed response is replayed for the same key
+    private Duration ttl = Duration.ofHours(24);
+
+    // Upper bound on keys held by the in-memory store; the oldest are dropped first
+    private int maxEntries = 10_000;
+
+    // How long a duplicate waits for a concurrent first execution before giving up with 409
+    private Duration waitTimeout = Duration.ofSeconds(30);
+}
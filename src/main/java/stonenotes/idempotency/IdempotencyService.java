@@ -0,0 +1,138 @@
+package stonenotes.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+import stonenotes.common.ApiResponse;
+import stonenotes.exception.IdempotencyKeyInProgressException;
+import stonenotes.exception.IdempotencyKeyReusedException;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs a write at most once per (user, operation, Idempotency-Key) and replays its stored ApiResponse on retries.
+// Duplicates arriving while the first execution is still running on this instance wait for its result.
+public class IdempotencyService {
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Clock clock;
+    private final ConcurrentMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper objectMapper, IdempotencyProperties properties, Clock clock) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public <T> ResponseEntity<ApiResponse<T>> execute(String idempotencyKey, String userId, String operation, Object request,
+                                                      TypeReference<ApiResponse<T>> responseType,
+                                                      Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = userId + ":" + operation + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        while (true) {
+            Optional<IdempotentResponse> stored = store.find(key);
+            if (stored.isPresent()) {
+                return replay(stored.get(), fingerprint, responseType);
+            }
+
+            CompletableFuture<IdempotentResponse> execution = new CompletableFuture<>();
+            CompletableFuture<IdempotentResponse> running = inFlight.putIfAbsent(key, execution);
+            if (running != null) {
+                Optional<IdempotentResponse> completed = await(running);
+                if (completed.isPresent()) {
+                    return replay(completed.get(), fingerprint, responseType);
+                }
+                // The first execution failed without a response, so this request runs it instead
+                continue;
+            }
+
+            try {
+                // The first execution may have finished between the lookup and claiming the key
+                stored = store.find(key);
+                if (stored.isPresent()) {
+                    execution.complete(stored.get());
+                    return replay(stored.get(), fingerprint, responseType);
+                }
+
+                ResponseEntity<ApiResponse<T>> response = action.get();
+                IdempotentResponse recorded = new IdempotentResponse(fingerprint, response.getStatusCode().value(),
+                        toJson(response.getBody()), clock.instant().plus(properties.getTtl()));
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    store.save(key, recorded);
+                }
+                execution.complete(recorded);
+                return response;
+            } catch (RuntimeException ex) {
+                execution.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(key, execution);
+            }
+        }
+    }
+
+    private Optional<IdempotentResponse> await(CompletableFuture<IdempotentResponse> running) {
+        try {
+            return Optional.of(running.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException ex) {
+            return Optional.empty();
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still being processed");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("Interrupted while waiting for a request with this Idempotency-Key");
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> replay(IdempotentResponse stored, String fingerprint, TypeReference<ApiResponse<T>> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request");
+        }
+        try {
+            ApiResponse<T> body = objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package stonenotes.idempotency;
+
+import java.time.Instant;
+
+// A completed response as stored under an idempotency key. The body is the JSON of the ApiResponse.
+public record IdempotentResponse(String fingerprint, int status, String body, Instant expiresAt) {
+}
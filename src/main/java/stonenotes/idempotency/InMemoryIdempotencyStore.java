@@ -0,0 +1,45 @@
+package stonenotes.idempotency;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Every entry has the same TTL, so insertion order is also expiry order and the eldest entry is dropped first
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Map<String, IdempotentResponse> responses;
+    private final Clock clock;
+
+    public InMemoryIdempotencyStore(int maxEntries, Clock clock) {
+        this.clock = clock;
+        this.responses = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotentResponse> eldest) {
+                return size() > maxEntries || eldest.getValue().expiresAt().isBefore(clock.instant());
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> find(String key) {
+        IdempotentResponse response = responses.get(key);
+        if (response == null) {
+            return Optional.empty();
+        }
+        if (response.expiresAt().isBefore(clock.instant())) {
+            responses.remove(key);
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    @Override
+    public synchronized void save(String key, IdempotentResponse response) {
+        responses.remove(key);
+        responses.put(key, response);
+    }
+
+    synchronized int size() {
+        return responses.size();
+    }
+}
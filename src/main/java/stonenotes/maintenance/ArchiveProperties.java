@@ -0,0 +1,22 @@
+package stonenotes.maintenance;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.archive")
+public class ArchiveProperties {
+    private boolean enabled = true;
+
+    // Notes not updated for this long are moved to the compressed archive tier
+    private Duration coldAfter = Duration.ofDays(180);
+
+    // Each batch is moved in its own short transaction
+    private int batchSize = 200;
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+    private int maxBatchesPerRun = 50;
+}
@@ -0,0 +1,114 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import stonenotes.service.NoteArchiveService;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Moves notes that have gone cold into the archive tier, then refreshes the per-tier size gauges.
+// Read latency per tier is reported by the notes.service and notes.archive timers.
+public class NoteArchiver {
+    private static final Logger log = LoggerFactory.getLogger(NoteArchiver.class);
+
+    static final String HOT_TIER_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(OCTET_LENGTH(content)), 0) FROM notes WHERE deleted_at IS NULL";
+    static final String COLD_TIER_SQL =
+            "SELECT COUNT(*), COALESCE(SUM(OCTET_LENGTH(content_compressed)), 0) FROM archived_notes";
+
+    private final NoteArchiveService noteArchiveService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ArchiveProperties properties;
+    private final Clock clock;
+    private final Counter archivedNotes;
+    private final Timer batchTimer;
+    private final AtomicLong hotNotes = new AtomicLong();
+    private final AtomicLong hotBytes = new AtomicLong();
+    private final AtomicLong coldNotes = new AtomicLong();
+    private final AtomicLong coldBytes = new AtomicLong();
+
+    public NoteArchiver(NoteArchiveService noteArchiveService, JdbcTemplate jdbcTemplate, ArchiveProperties properties,
+                        MeterRegistry meterRegistry, Clock clock) {
+        this.noteArchiveService = noteArchiveService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.archivedNotes = Counter.builder("notes.archive.moved")
+                .description("Notes moved to the archive tier")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("notes.archive.batch")
+                .description("Time spent per archive batch")
+                .register(meterRegistry);
+        registerTierGauges(meterRegistry, "hot", hotNotes, hotBytes);
+        registerTierGauges(meterRegistry, "cold", coldNotes, coldBytes);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.archive.check-interval:PT1H}",
+            initialDelayString = "${notes.archive.check-interval:PT1H}")
+    public void archive() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant cutoff = clock.instant().minus(properties.getColdAfter());
+
+        long moved = 0;
+        int batches = 0;
+        while (batches < properties.getMaxBatchesPerRun()) {
+            Integer archived = batchTimer.record(() -> noteArchiveService.archiveNotesUpdatedBefore(cutoff, properties.getBatchSize()));
+            batches++;
+            moved += archived;
+            archivedNotes.increment(archived);
+            if (archived < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+
+        refreshTierSizes();
+        if (moved > 0) {
+            log.info("Archived {} notes in {} batches; hot tier {} notes / {} bytes, cold tier {} notes / {} bytes",
+                    moved, batches, hotNotes.get(), hotBytes.get(), coldNotes.get(), coldBytes.get());
+        }
+    }
+
+    void refreshTierSizes() {
+        readTier(HOT_TIER_SQL, hotNotes, hotBytes);
+        readTier(COLD_TIER_SQL, coldNotes, coldBytes);
+    }
+
+    private void readTier(String sql, AtomicLong notes, AtomicLong bytes) {
+        jdbcTemplate.query(sql, rs -> {
+            notes.set(rs.getLong(1));
+            bytes.set(rs.getLong(2));
+        });
+    }
+
+    private static void registerTierGauges(MeterRegistry meterRegistry, String tier, AtomicLong notes, AtomicLong bytes) {
+        Gauge.builder("notes.tier.notes", notes, AtomicLong::get)
+                .description("Notes stored in the tier, as of the last archive run")
+                .tag("tier", tier)
+                .register(meterRegistry);
+        Gauge.builder("notes.tier.content.size", bytes, AtomicLong::get)
+                .description("Stored content size of the tier (compressed for the cold tier), as of the last archive run")
+                .tag("tier", tier)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatches().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
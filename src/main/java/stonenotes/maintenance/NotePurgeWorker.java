@@ -0,0 +1,117 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Physically removes notes that have been in the trash longer than the retention period, along with their history.
+// Runs through plain JDBC: the rows were evicted from the second-level cache when they were soft-deleted,
+// and going around Hibernate avoids invalidating the whole cache on every native DELETE.
+public class NotePurgeWorker {
+    private static final Logger log = LoggerFactory.getLogger(NotePurgeWorker.class);
+
+    // The batch is picked once and its rows stay locked until it commits; rows locked by another instance's batch are skipped
+    static final String SELECT_BATCH_SQL =
+            "SELECT id FROM notes WHERE deleted_at < ? ORDER BY deleted_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    // Followed by the placeholders of the batch's ids
+    static final String PURGE_REVISIONS_SQL = "DELETE FROM note_revisions WHERE note_id IN ";
+    static final String PURGE_NOTES_SQL = "DELETE FROM notes WHERE id IN ";
+    static final String COUNT_EXPIRED_SQL = "SELECT COUNT(*) FROM notes WHERE deleted_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PurgeProperties properties;
+    private final Clock clock;
+    private final Counter purgedNotes;
+    private final Timer batchTimer;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public NotePurgeWorker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, PurgeProperties properties,
+                           MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.clock = clock;
+        this.purgedNotes = Counter.builder("notes.purge.deleted")
+                .description("Soft-deleted notes physically removed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("notes.purge.batch")
+                .description("Time spent per purge batch")
+                .register(meterRegistry);
+        Gauge.builder("notes.purge.backlog", backlog, AtomicLong::get)
+                .description("Expired notes still waiting to be purged, as of the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.purge.check-interval:PT5M}",
+            initialDelayString = "${notes.purge.check-interval:PT5M}")
+    public void purge() {
+        if (!properties.isEnabled() || !inQuietWindow(clock.instant())) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.from(clock.instant().minus(properties.getRetention()));
+
+        long purged = 0;
+        int batches = 0;
+        while (batches < properties.getMaxBatchesPerRun() && inQuietWindow(clock.instant())) {
+            // A failed batch keeps its notes together with their history
+            Integer deleted = batchTimer.record(() -> transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH_SQL, Long.class, cutoff, properties.getBatchSize());
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                Object[] args = ids.toArray();
+                String placeholders = "(" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+                jdbcTemplate.update(PURGE_REVISIONS_SQL + placeholders, args);
+                return jdbcTemplate.update(PURGE_NOTES_SQL + placeholders, args);
+            }));
+            batches++;
+            purged += deleted;
+            purgedNotes.increment(deleted);
+            if (deleted < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+
+        Long remaining = jdbcTemplate.queryForObject(COUNT_EXPIRED_SQL, Long.class, cutoff);
+        backlog.set(remaining == null ? 0 : remaining);
+        if (purged > 0 || backlog.get() > 0) {
+            log.info("Purged {} deleted notes in {} batches, {} remaining", purged, batches, backlog.get());
+        }
+    }
+
+    boolean inQuietWindow(Instant now) {
+        LocalTime time = now.atZone(properties.getZone()).toLocalTime();
+        LocalTime start = properties.getQuietWindowStart();
+        LocalTime end = properties.getQuietWindowEnd();
+        if (start.isBefore(end)) {
+            return !time.isBefore(start) && time.isBefore(end);
+        }
+        return !time.isBefore(start) || time.isBefore(end);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPauseBetweenBatches().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.model.SignatureConverter;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.service.NoteService;
+import stonenotes.similar.MinHash;
+import stonenotes.similar.NoteSimilarityIndex;
+import stonenotes.similar.SimilarityProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Computes content signatures for notes written before they existed, in both tiers, so they take part in
+// similarity lookups. Rows are updated with plain JDBC so updated_at is left alone, and only while their
+// signature is still NULL, so a signature written by a concurrent update is never replaced.
+public class NoteSignatureBackfill {
+    private static final Logger log = LoggerFactory.getLogger(NoteSignatureBackfill.class);
+
+    static final String SIGN_NOTE_SQL = "UPDATE notes SET content_signature = ? WHERE id = ? AND content_signature IS NULL";
+    static final String SIGN_ARCHIVED_NOTE_SQL =
+            "UPDATE archived_notes SET content_signature = ? WHERE id = ? AND content_signature IS NULL";
+
+    private record Signed(Long noteId, String userId, int[] signature) {
+    }
+
+    private final NoteRepository noteRepository;
+    private final ArchivedNoteRepository archivedNoteRepository;
+    private final NoteService noteService;
+    private final NoteSimilarityIndex noteSimilarityIndex;
+    private final NoteCacheEvictor noteCacheEvictor;
+    private final JdbcTemplate jdbcTemplate;
+    private final SimilarityProperties properties;
+    private final Counter signedNotes;
+
+    public NoteSignatureBackfill(NoteRepository noteRepository, ArchivedNoteRepository archivedNoteRepository, NoteService noteService,
+                                 NoteSimilarityIndex noteSimilarityIndex, NoteCacheEvictor noteCacheEvictor, JdbcTemplate jdbcTemplate,
+                                 SimilarityProperties properties, MeterRegistry meterRegistry) {
+        this.noteRepository = noteRepository;
+        this.archivedNoteRepository = archivedNoteRepository;
+        this.noteService = noteService;
+        this.noteSimilarityIndex = noteSimilarityIndex;
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.signedNotes = Counter.builder("notes.similar.backfilled")
+                .description("Notes given a content signature after they were written")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.similar.backfill-interval:PT1M}",
+            initialDelayString = "${notes.similar.backfill-interval:PT1M}")
+    public void backfill() {
+        int batchSize = properties.getBackfillBatchSize();
+        Pageable batch = PageRequest.of(0, batchSize, Sort.by("id"));
+        long signed = 0;
+        for (int i = 0; i < properties.getBackfillMaxBatchesPerRun(); i++) {
+            List<Note> notes = noteRepository.findByContentSignatureIsNull(batch);
+            List<ArchivedNote> archived = archivedNoteRepository.findByContentSignatureIsNull(batch);
+            signed += signNotes(notes) + signArchivedNotes(archived);
+            if (notes.size() < batchSize && archived.size() < batchSize) {
+                break;
+            }
+        }
+        if (signed > 0) {
+            log.info("Computed content signatures for {} notes", signed);
+        }
+    }
+
+    private int signNotes(List<Note> notes) {
+        List<Signed> signed = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            signed.add(new Signed(note.getId(), note.getUserId(), MinHash.signature(noteService.readContent(note))));
+        }
+        int updated = store(SIGN_NOTE_SQL, signed);
+        // Cached copies were loaded without the signature
+        signed.forEach(note -> noteCacheEvictor.evict(note.noteId()));
+        return updated;
+    }
+
+    private int signArchivedNotes(List<ArchivedNote> notes) {
+        List<Signed> signed = new ArrayList<>(notes.size());
+        for (ArchivedNote note : notes) {
+            signed.add(new Signed(note.getId(), note.getUserId(), MinHash.signature(note.getContent())));
+        }
+        return store(SIGN_ARCHIVED_NOTE_SQL, signed);
+    }
+
+    private int store(String sql, List<Signed> signed) {
+        if (signed.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, signed, signed.size(), (ps, note) -> {
+            ps.setBytes(1, SignatureConverter.toBytes(note.signature()));
+            ps.setLong(2, note.noteId());
+        });
+        int updated = 0;
+        for (int i = 0; i < signed.size(); i++) {
+            if (counts[0][i] > 0) {
+                Signed note = signed.get(i);
+                noteSimilarityIndex.put(note.userId(), note.noteId(), note.signature());
+                updated++;
+            }
+        }
+        signedNotes.increment(updated);
+        return updated;
+    }
+}
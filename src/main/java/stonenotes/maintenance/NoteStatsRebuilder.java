@@ -0,0 +1,173 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.service.NoteService;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.stats.StatsProperties;
+import stonenotes.stats.Words;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Recounts every user's statistics from their notes, once after startup. It always runs on the first startup against
+// a database it has never run on, which builds the statistics of existing notes, and afterwards only when enabled, to
+// repair drift. Notes written before word counts existed are counted first, in batches, with plain JDBC so updated_at
+// is left alone and a count written by a concurrent update is kept. Instances claim the run through
+// maintenance_claims, so a rollout recounts only once.
+public class NoteStatsRebuilder {
+    private static final Logger log = LoggerFactory.getLogger(NoteStatsRebuilder.class);
+
+    static final String COUNT_NOTE_SQL = "UPDATE notes SET word_count = ? WHERE id = ? AND word_count IS NULL";
+    static final String COUNT_ARCHIVED_NOTE_SQL = "UPDATE archived_notes SET word_count = ? WHERE id = ? AND word_count IS NULL";
+    // Users with statistics but no notes left are included so their counts drop to zero
+    static final String USERS_SQL = "SELECT user_id FROM notes UNION SELECT user_id FROM archived_notes"
+            + " UNION SELECT user_id FROM note_stats";
+    static final String JOB = "note-stats-rebuild";
+    // Takes over a claim left by an earlier rollout; only one of two concurrent updates matches the old timestamp
+    static final String RENEW_CLAIM_SQL = "UPDATE maintenance_claims SET claimed_at = ? WHERE job = ? AND claimed_at < ?";
+    static final String INSERT_CLAIM_SQL = "INSERT INTO maintenance_claims (job, claimed_at) VALUES (?, ?)";
+    static final String CLAIMED_SQL = "SELECT COUNT(*) FROM maintenance_claims WHERE job = ?";
+
+    private record Counted(Long noteId, long words) {
+    }
+
+    private final NoteRepository noteRepository;
+    private final ArchivedNoteRepository archivedNoteRepository;
+    private final NoteService noteService;
+    private final NoteStatsService noteStatsService;
+    private final NoteCacheEvictor noteCacheEvictor;
+    private final JdbcTemplate jdbcTemplate;
+    private final StatsProperties properties;
+    private final Clock clock;
+    private final Counter countedNotes;
+    private final Counter rebuiltUsers;
+
+    public NoteStatsRebuilder(NoteRepository noteRepository, ArchivedNoteRepository archivedNoteRepository, NoteService noteService,
+                              NoteStatsService noteStatsService, NoteCacheEvictor noteCacheEvictor, JdbcTemplate jdbcTemplate,
+                              StatsProperties properties, MeterRegistry meterRegistry, Clock clock) {
+        this.noteRepository = noteRepository;
+        this.archivedNoteRepository = archivedNoteRepository;
+        this.noteService = noteService;
+        this.noteStatsService = noteStatsService;
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.countedNotes = Counter.builder("notes.stats.backfilled")
+                .description("Notes given a word count after they were written")
+                .register(meterRegistry);
+        this.rebuiltUsers = Counter.builder("notes.stats.rebuilt")
+                .description("Users whose statistics were recounted from their notes")
+                .register(meterRegistry);
+    }
+
+    // Without a fixed delay or rate this runs once
+    @Scheduled(initialDelayString = "${notes.stats.rebuild-initial-delay:PT5M}")
+    public void rebuild() {
+        if (!properties.isRebuildEnabled() && hasRun()) {
+            return;
+        }
+        if (!claim()) {
+            log.info("Note statistics were rebuilt by another instance within the last {}", properties.getRebuildClaimPeriod());
+            return;
+        }
+        long counted = backfillWordCounts();
+        if (counted > 0) {
+            log.info("Counted words of {} notes", counted);
+        }
+        List<String> userIds = jdbcTemplate.queryForList(USERS_SQL, String.class);
+        for (String userId : userIds) {
+            noteStatsService.rebuild(userId);
+            rebuiltUsers.increment();
+        }
+        log.info("Rebuilt note statistics of {} users", userIds.size());
+    }
+
+    // Also true for a run that was claimed but did not finish; enabling the rebuild runs it again
+    private boolean hasRun() {
+        return jdbcTemplate.queryForObject(CLAIMED_SQL, Long.class, JOB) > 0;
+    }
+
+    boolean claim() {
+        Instant now = clock.instant();
+        Timestamp claimedAt = Timestamp.from(now);
+        if (jdbcTemplate.update(RENEW_CLAIM_SQL, claimedAt, JOB, Timestamp.from(now.minus(properties.getRebuildClaimPeriod()))) > 0) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update(INSERT_CLAIM_SQL, JOB, claimedAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Claimed within the period, or by an instance that just inserted it
+            return false;
+        }
+    }
+
+    private long backfillWordCounts() {
+        int batchSize = properties.getBackfillBatchSize();
+        Pageable batch = PageRequest.of(0, batchSize, Sort.by("id"));
+        long counted = 0;
+        while (true) {
+            List<Note> notes = noteRepository.findByWordCountIsNull(batch);
+            List<ArchivedNote> archived = archivedNoteRepository.findByWordCountIsNull(batch);
+            counted += countNotes(notes) + countArchivedNotes(archived);
+            if (notes.size() < batchSize && archived.size() < batchSize) {
+                return counted;
+            }
+        }
+    }
+
+    private int countNotes(List<Note> notes) {
+        List<Counted> counted = new ArrayList<>(notes.size());
+        for (Note note : notes) {
+            counted.add(new Counted(note.getId(), Words.count(noteService.readContent(note))));
+        }
+        int updated = store(COUNT_NOTE_SQL, counted);
+        // Cached copies were loaded without the word count
+        counted.forEach(note -> noteCacheEvictor.evict(note.noteId()));
+        return updated;
+    }
+
+    private int countArchivedNotes(List<ArchivedNote> notes) {
+        List<Counted> counted = new ArrayList<>(notes.size());
+        for (ArchivedNote note : notes) {
+            counted.add(new Counted(note.getId(), Words.count(note.getContent())));
+        }
+        return store(COUNT_ARCHIVED_NOTE_SQL, counted);
+    }
+
+    private int store(String sql, List<Counted> counted) {
+        if (counted.isEmpty()) {
+            return 0;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(sql, counted, counted.size(), (ps, note) -> {
+            ps.setLong(1, note.words());
+            ps.setLong(2, note.noteId());
+        });
+        int updated = 0;
+        for (int count : counts[0]) {
+            if (count > 0) {
+                updated++;
+            }
+        }
+        countedNotes.increment(updated);
+        return updated;
+    }
+}
@@ -0,0 +1,29 @@
+package stonenotes.maintenance;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.purge")
+public class PurgeProperties {
+    private boolean enabled = true;
+
+    // How long deleted notes stay restorable from the trash
+    private Duration retention = Duration.ofDays(30);
+
+    // Rows are only purged inside this daily window; a window may wrap past midnight
+    private LocalTime quietWindowStart = LocalTime.of(2, 0);
+    private LocalTime quietWindowEnd = LocalTime.of(5, 0);
+    private ZoneId zone = ZoneId.of("UTC");
+
+    // Small batches keep each DELETE short; the pause between them bounds the rate of row removal
+    private int batchSize = 500;
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+    private int maxBatchesPerRun = 100;
+}
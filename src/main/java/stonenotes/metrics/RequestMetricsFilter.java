@@ -0,0 +1,69 @@
+package stonenotes.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Records how many SQL statements each request issued, tagged with the matched endpoint pattern,
+// and warns when a request goes over its statement budget or repeats one statement (likely N+1).
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final SqlMonitoringProperties properties;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, SqlMonitoringProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.Recording recording = SqlStatementCounter.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("notes.request.sql.statements")
+                    .description("SQL statements executed per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .register(meterRegistry)
+                    .record(recording.total());
+            checkBudget(request, recording);
+        }
+    }
+
+    private void checkBudget(HttpServletRequest request, SqlStatementCounter.Recording recording) {
+        String endpoint = endpointOf(request);
+        int budget = properties.budgetFor(endpoint);
+        if (recording.total() > budget) {
+            log.warn("{} {} ({}) executed {} SQL statements, budget is {}",
+                    request.getMethod(), request.getRequestURI(), endpoint, recording.total(), budget);
+        }
+        recording.mostRepeated()
+                .filter(entry -> entry.getValue() >= properties.getRepeatedStatementThreshold())
+                .ifPresent(entry -> log.warn("Possible N+1 in {}: statement executed {} times: {}",
+                        endpoint, entry.getValue(), entry.getKey()));
+    }
+
+    private String endpointOf(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package stonenotes.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.sql")
+public class SqlMonitoringProperties {
+    // Prefix statements with a comment naming the endpoint that issued them
+    private boolean tagStatements = true;
+
+    // Statements a request may issue before a warning is logged
+    private int statementBudget = 5;
+
+    // Per-endpoint budgets keyed by Controller.method, e.g. notes.sql.budgets[NoteController.getNotes]=2
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    // Executions of the same statement within one request that are reported as a likely N+1
+    private int repeatedStatementThreshold = 5;
+
+    public int budgetFor(String endpoint) {
+        return endpoint == null ? statementBudget : budgets.getOrDefault(endpoint, statementBudget);
+    }
+}
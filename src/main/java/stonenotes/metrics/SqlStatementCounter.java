@@ -0,0 +1,69 @@
+package stonenotes.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Thread-bound recording of the JDBC statements executed through StatementCountingDataSource.
+// Scopes nest, so a test can record around a request that the request filter also records.
+public final class SqlStatementCounter {
+    private static final ThreadLocal<Deque<Recording>> SCOPES = new ThreadLocal<>();
+
+    private SqlStatementCounter() {}
+
+    public static void begin() {
+        Deque<Recording> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        scopes.push(new Recording());
+    }
+
+    public static Recording end() {
+        Deque<Recording> scopes = SCOPES.get();
+        if (scopes == null) {
+            return new Recording();
+        }
+        Recording recording = scopes.pop();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+        return recording;
+    }
+
+    static void record(String sql) {
+        Deque<Recording> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (Recording recording : scopes) {
+            recording.add(sql);
+        }
+    }
+
+    public static final class Recording {
+        private int total;
+        private final Map<String, Integer> executions = new LinkedHashMap<>();
+
+        private void add(String sql) {
+            total++;
+            executions.merge(sql, 1, Integer::sum);
+        }
+
+        public int total() {
+            return total;
+        }
+
+        public Map<String, Integer> executions() {
+            return Collections.unmodifiableMap(executions);
+        }
+
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return executions.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+    }
+}
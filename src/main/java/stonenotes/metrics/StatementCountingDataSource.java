@@ -0,0 +1,116 @@
+package stonenotes.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// JDBC proxy layer that records every executed statement in SqlStatementCounter and, optionally,
+// prefixes the SQL with a comment naming the endpoint that issued it (visible in pg_stat_statements).
+public class StatementCountingDataSource extends DelegatingDataSource {
+    private static final ClassLoader CLASS_LOADER = StatementCountingDataSource.class.getClassLoader();
+
+    private final boolean tagStatements;
+
+    public StatementCountingDataSource(DataSource targetDataSource, boolean tagStatements) {
+        super(targetDataSource);
+        this.tagStatements = tagStatements;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    public static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (handler instanceof HandlerMethod handlerMethod) {
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return null;
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement":
+                case "prepareCall": {
+                    String sql = (String) args[0];
+                    args[0] = tag(sql);
+                    Statement statement = (Statement) invoke(connection, method, args);
+                    return wrap(statement, method.getReturnType(), sql);
+                }
+                case "createStatement":
+                    return wrap((Statement) invoke(connection, method, args), Statement.class, null);
+                default:
+                    return invoke(connection, method, args);
+            }
+        });
+    }
+
+    private Object wrap(Statement statement, Class<?> type, String preparedSql) {
+        Class<?> statementType = CallableStatement.class.isAssignableFrom(type) ? CallableStatement.class
+                : PreparedStatement.class.isAssignableFrom(type) ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(CLASS_LOADER, new Class<?>[]{statementType}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("execute")) {
+                if (preparedSql != null) {
+                    SqlStatementCounter.record(preparedSql);
+                } else if (args != null && args.length > 0 && args[0] instanceof String sql) {
+                    SqlStatementCounter.record(sql);
+                    args[0] = tag(sql);
+                } else {
+                    SqlStatementCounter.record("<batch>");
+                }
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private String tag(String sql) {
+        if (!tagStatements) {
+            return sql;
+        }
+        String endpoint = currentEndpoint();
+        return endpoint == null ? sql : "/* " + endpoint.replace("*/", "") + " */ " + sql;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package stonenotes.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+// Times response body serialization, including the write to the servlet output stream
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    private final Timer timer;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(objectMapper);
+        this.timer = Timer.builder("notes.response.serialization")
+                .description("Time spent writing response bodies")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package stonenotes.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.concurrent.TimeUnit;
+
+public class TimedJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Timer success;
+    private final Timer failure;
+
+    public TimedJwtDecoder(JwtDecoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.success = Timer.builder("notes.jwt.decode").tag("outcome", "success").register(meterRegistry);
+        this.failure = Timer.builder("notes.jwt.decode").tag("outcome", "failure").register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        try {
+            Jwt jwt = delegate.decode(token);
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jwt;
+        } catch (JwtException ex) {
+            failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+}
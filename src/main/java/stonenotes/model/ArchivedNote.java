@@ -0,0 +1,86 @@
+package stonenotes.model;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+
+// A note moved out of the hot notes table after a long period without updates.
+// It keeps the id of the note it was moved from, so links to it stay valid.
+@Entity
+@Getter
+@Setter
+@Table(name = "archived_notes", indexes = @Index(name = "idx_archived_notes_user_id", columnList = "user_id"))
+public class ArchivedNote implements Persistable<Long> {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_compressed", columnDefinition = "BYTEA")
+    private String content;
+
+    @Convert(converter = TagListConverter.class)
+    @Column(name = "tags", length = 1024)
+    private List<String> tags;
+
+    @Convert(converter = SignatureConverter.class)
+    @Column(name = "content_signature", length = 256)
+    private int[] contentSignature;
+
+    @Column(name = "word_count")
+    private Long wordCount;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    // Ids are assigned, so tell Spring Data when to persist instead of merging (which would SELECT first)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean stored;
+
+    public ArchivedNote() {}
+
+    public static ArchivedNote of(Note note, String content, Instant archivedAt) {
+        ArchivedNote archived = new ArchivedNote();
+        archived.setId(note.getId());
+        archived.setTitle(note.getTitle());
+        archived.setContent(content);
+        archived.setTags(note.getTags());
+        archived.setContentSignature(note.getContentSignature());
+        archived.setWordCount(note.getWordCount());
+        archived.setUserId(note.getUserId());
+        archived.setCreatedAt(note.getCreatedAt());
+        archived.setUpdatedAt(note.getUpdatedAt());
+        archived.setArchivedAt(archivedAt);
+        return archived;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !stored;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        stored = true;
+    }
+}
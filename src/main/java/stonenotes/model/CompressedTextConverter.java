@@ -0,0 +1,56 @@
+package stonenotes.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Stores text as DEFLATE-compressed UTF-8. Cold notes are written once and read rarely,
+// so they use the best (slowest) compression level.
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return compress(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return decompress(bytes);
+    }
+
+    public static byte[] compress(String text) {
+        if (text == null) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            deflater.end();
+        }
+        return buffer.toByteArray();
+    }
+
+    public static String decompress(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package stonenotes.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+
+// A deduplicated note body, keyed by the SHA-256 of its content. Rows are inserted and reference
+// counted with plain SQL by ContentBlobStore; the entity is only read, and since the content of a
+// hash never changes the cached copy can never be stale.
+@Entity
+@Getter
+@Setter
+@Immutable
+@Table(name = "content_blobs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "content_blobs")
+public class ContentBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    // Content length in UTF-8 bytes
+    @Column(name = "content_size", nullable = false)
+    private long size;
+
+    // Live (not soft-deleted) notes pointing at this blob
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    public ContentBlob() {}
+}
@@ -0,0 +1,31 @@
+package stonenotes.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at"))
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "idempotency_key", length = 512)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String body;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public IdempotencyRecord() {}
+}
@@ -0,0 +1,25 @@
+package stonenotes.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// The last time an instance took on a maintenance job that must run on one instance only.
+// Rows are claimed with plain SQL by the job itself, see NoteStatsRebuilder.
+@Entity
+@Getter
+@Setter
+@Table(name = "maintenance_claims")
+public class MaintenanceClaim {
+    @Id
+    @Column(length = 64)
+    private String job;
+
+    @Column(name = "claimed_at", nullable = false)
+    private Instant claimedAt;
+
+    public MaintenanceClaim() {}
+}
@@ -1,10 +1,14 @@
 package stonenotes.model;
 
 import java.time.Instant;
+import java.util.List;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.*;
@@ -12,7 +16,15 @@ import jakarta.persistence.*;
 @Entity
 @Getter
 @Setter
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_notes_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_notes_content_hash", columnList = "content_hash")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "notes")
+// Soft-deleted notes are invisible to every entity query; the trash endpoints read them with native SQL
+@SQLRestriction("deleted_at is null")
 public class Note {
     @Getter
     @Id
@@ -25,6 +37,31 @@ public class Note {
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // Set instead of content for bodies above the inline threshold, which live in the chunk store
+    @Column(name = "content_ref", length = 64)
+    private String contentRef;
+
+    @Column(name = "content_size")
+    private Long contentSize;
+
+    // Set instead of content when deduplication is enabled; the body lives in content_blobs
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Normalized by NoteTags; also held in memory per user by NoteTagIndex
+    @Convert(converter = TagListConverter.class)
+    @Column(name = "tags", length = 1024)
+    private List<String> tags;
+
+    // MinHash of the content, set on every content write; also held in memory per user by NoteSimilarityIndex
+    @Convert(converter = SignatureConverter.class)
+    @Column(name = "content_signature", length = 256)
+    private int[] contentSignature;
+
+    // Words in the content, set on every content write and summed into the user's NoteStats
+    @Column(name = "word_count")
+    private Long wordCount;
+
     @Column(name = "user_id", nullable = false, updatable = false)
     private String userId;
 
@@ -36,5 +73,8 @@ public class Note {
     @Column(name = "updated_at", nullable = false)
     private Instant updatedAt;
 
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
     public Note() {}
 }
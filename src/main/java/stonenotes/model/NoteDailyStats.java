@@ -0,0 +1,32 @@
+package stonenotes.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Live notes of a user by the UTC day they were created on. Deleting a note takes it off its day and
+// restoring it puts it back, so the buckets always add up to the note count in NoteStats.
+@Entity
+@Getter
+@Setter
+@Table(name = "note_daily_stats", uniqueConstraints = @UniqueConstraint(
+        name = "uk_note_daily_stats_user_day", columnNames = {"user_id", "created_on"}))
+public class NoteDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "created_on", nullable = false)
+    private LocalDate createdOn;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    public NoteDailyStats() {}
+}
@@ -0,0 +1,62 @@
+package stonenotes.model;
+
+import java.time.Instant;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+// One version of a note. Snapshots hold the full content; deltas hold a TextDelta against the previous revision.
+// Every revision points at the snapshot its delta chain starts from, so a version is rebuilt from one range read.
+@Entity
+@Getter
+@Setter
+@Table(name = "note_revisions", uniqueConstraints = @UniqueConstraint(
+        name = "uk_note_revisions_note_revision", columnNames = {"note_id", "revision"}))
+public class NoteRevision {
+    public enum Kind {
+        SNAPSHOT, DELTA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // No foreign key: revisions outlive the notes row while the note sits in the archive tier
+    @Column(name = "note_id", nullable = false, updatable = false)
+    private Long noteId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
+    @Column(nullable = false, updatable = false)
+    private int revision;
+
+    @Column(name = "snapshot_revision", nullable = false, updatable = false)
+    private int snapshotRevision;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 8)
+    private Kind kind;
+
+    @Column(nullable = false, updatable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String body;
+
+    // SHA-256 of the full content, checked when the version is rebuilt
+    @Column(name = "content_hash", nullable = false, updatable = false, length = 64)
+    private String contentHash;
+
+    // Full content length in UTF-8 bytes
+    @Column(name = "content_size", nullable = false, updatable = false)
+    private long contentSize;
+
+    // When the note reached this version
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public NoteRevision() {}
+}
@@ -0,0 +1,26 @@
+package stonenotes.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import jakarta.persistence.*;
+
+// Running totals of a user's live notes in both tiers; notes in the trash are not counted.
+// Rows are kept with plain SQL by NoteStatsService in the same transaction as the note writes.
+@Entity
+@Getter
+@Setter
+@Table(name = "note_stats")
+public class NoteStats {
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "note_count", nullable = false)
+    private long noteCount;
+
+    @Column(name = "word_count", nullable = false)
+    private long wordCount;
+
+    public NoteStats() {}
+}
@@ -0,0 +1,40 @@
+package stonenotes.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+
+// Stores a MinHash signature as a big-endian byte array. A NULL column means no signature has been computed yet,
+// while content without words has an empty one.
+@Converter
+public class SignatureConverter implements AttributeConverter<int[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(int[] signature) {
+        return toBytes(signature);
+    }
+
+    @Override
+    public int[] convertToEntityAttribute(byte[] column) {
+        return fromBytes(column);
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        int[] signature = new int[column.length / Integer.BYTES];
+        ByteBuffer.wrap(column).asIntBuffer().get(signature);
+        return signature;
+    }
+}
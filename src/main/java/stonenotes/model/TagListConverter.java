@@ -0,0 +1,31 @@
+package stonenotes.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Stores normalized tags as one comma-separated column, so notes are read and written without a join table.
+// A note without tags has a NULL column.
+@Converter
+public class TagListConverter implements AttributeConverter<List<String>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(List<String> tags) {
+        return join(tags);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        return split(column);
+    }
+
+    public static String join(List<String> tags) {
+        return tags == null || tags.isEmpty() ? null : String.join(",", tags);
+    }
+
+    public static List<String> split(String column) {
+        return column == null || column.isEmpty() ? List.of() : Arrays.asList(column.split(","));
+    }
+}
@@ -0,0 +1,96 @@
+package stonenotes.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.management.jfr.FlightRecorderMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+// Always-on flight recording kept in a ring bounded by max age and size on disk.
+// Snapshots stream just the requested window out of the ring into a standalone .jfr file.
+public class ContinuousRecording implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ContinuousRecording.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final JfrProperties properties;
+    private volatile Recording recording;
+
+    public ContinuousRecording(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!properties.isEnabled() || recording != null) {
+            return;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            continuous.setName("stonenotes-continuous");
+            continuous.setToDisk(true);
+            continuous.setMaxAge(properties.getMaxAge());
+            continuous.setMaxSize(properties.getMaxSize().toBytes());
+            continuous.enable(NoteOperationEvent.class).withThreshold(properties.getEventThreshold());
+            continuous.enable(JwtDecodeEvent.class).withThreshold(properties.getEventThreshold());
+            continuous.start();
+            recording = continuous;
+        } catch (IOException | ParseException ex) {
+            log.warn("Could not start continuous flight recording with settings '{}'", properties.getSettings(), ex);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recording != null;
+    }
+
+    public Snapshot snapshot(Duration window) throws IOException {
+        Recording current = recording;
+        if (current == null) {
+            throw new IllegalStateException("Continuous flight recording is not running");
+        }
+        Instant end = Instant.now();
+        Instant start = end.minus(window);
+        Files.createDirectories(properties.getDumpDirectory());
+        // The random suffix keeps snapshots taken within the same second apart
+        Path file = Files.createTempFile(properties.getDumpDirectory(), "stonenotes-" + FILE_TIMESTAMP.format(end) + "-", ".jfr");
+
+        FlightRecorderMXBean flightRecorder = ManagementFactory.getPlatformMXBean(FlightRecorderMXBean.class);
+        long streamId = flightRecorder.openStream(current.getId(), Map.of(
+                "startTime", start.toString(),
+                "endTime", end.toString()));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] chunk;
+            while ((chunk = flightRecorder.readStream(streamId)) != null) {
+                out.write(chunk);
+            }
+        } finally {
+            flightRecorder.closeStream(streamId);
+        }
+        return new Snapshot(file.toAbsolutePath().toString(), Files.size(file), start, end);
+    }
+
+    public record Snapshot(String path, long sizeBytes, Instant from, Instant to) {
+    }
+}
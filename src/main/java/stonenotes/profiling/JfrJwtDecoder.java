@@ -0,0 +1,26 @@
+package stonenotes.profiling;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+public class JfrJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+
+    public JfrJwtDecoder(JwtDecoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        JwtDecodeEvent event = new JwtDecodeEvent();
+        event.begin();
+        try {
+            Jwt jwt = delegate.decode(token);
+            event.succeeded = true;
+            return jwt;
+        } finally {
+            event.commit();
+        }
+    }
+}
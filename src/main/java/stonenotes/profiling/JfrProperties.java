@@ -0,0 +1,28 @@
+package stonenotes.profiling;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.jfr")
+public class JfrProperties {
+    private boolean enabled = true;
+
+    // Built-in JFR settings to record with: "default" (~1% overhead) or "profile" (~2%)
+    private String settings = "default";
+
+    // Bounds of the on-disk ring kept by the continuous recording
+    private Duration maxAge = Duration.ofMinutes(30);
+    private DataSize maxSize = DataSize.ofMegabytes(250);
+
+    // Only NoteService operations and token decodes slower than this are recorded
+    private Duration eventThreshold = Duration.ofMillis(1);
+
+    private Path dumpDirectory = Path.of(System.getProperty("java.io.tmpdir"), "stonenotes-jfr");
+}
@@ -0,0 +1,16 @@
+package stonenotes.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("stonenotes.JwtDecode")
+@Label("JWT Decode")
+@Category({"Stone Notes", "Security"})
+@Description("Decoding and validation of a bearer token")
+public class JwtDecodeEvent extends Event {
+    @Label("Succeeded")
+    boolean succeeded;
+}
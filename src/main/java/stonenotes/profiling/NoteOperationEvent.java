@@ -0,0 +1,19 @@
+package stonenotes.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("stonenotes.NoteOperation")
+@Label("Note Operation")
+@Category({"Stone Notes", "Service"})
+@Description("A NoteService operation")
+public class NoteOperationEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
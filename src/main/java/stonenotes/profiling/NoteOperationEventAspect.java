@@ -0,0 +1,27 @@
+package stonenotes.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+// Emits a NoteOperationEvent around every public NoteService method
+@Aspect
+public class NoteOperationEventAspect {
+
+    @Around("execution(public * stonenotes.service.NoteService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        NoteOperationEvent event = new NoteOperationEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.operation = joinPoint.getSignature().getName();
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.succeeded = true;
+            return result;
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package stonenotes.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import stonenotes.common.ApiResponse;
+import stonenotes.exception.NoteNotFoundException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Mirrors stonenotes.exception.GlobalExceptionHandler for the WebFlux runtime
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+    @ExceptionHandler(NoteNotFoundException.class)
+    public ResponseEntity<ApiResponse<Object>> handleNoteNotFoundException(NoteNotFoundException ex) {
+        ApiResponse<Object> response = ApiResponse.error(ex.getMessage(), HttpStatus.NOT_FOUND.value());
+
+        return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        for (FieldError error: ex.getBindingResult().getFieldErrors()) {
+            errors.put(error.getField(), error.getDefaultMessage());
+        }
+        ApiResponse<Map<String, String>> response = ApiResponse.error("Validation failed", HttpStatus.BAD_REQUEST.value());
+        response.setData(errors);
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+}
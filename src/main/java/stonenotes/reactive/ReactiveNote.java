@@ -0,0 +1,53 @@
+package stonenotes.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Table("notes")
+public class ReactiveNote {
+    @Id
+    private Long id;
+
+    private String title;
+
+    private String content;
+
+    // Set for large notes, whose body lives in the servlet application's chunk store instead of content
+    @Column("content_ref")
+    private String contentRef;
+
+    @Column("content_size")
+    private Long contentSize;
+
+    // Set for deduplicated notes, whose body lives in content_blobs instead of content
+    @Column("content_hash")
+    private String contentHash;
+
+    // Derived from the content by the servlet application; only mapped so that updates here can clear them
+    @Column("word_count")
+    private Long wordCount;
+
+    @Column("content_signature")
+    private byte[] contentSignature;
+
+    @Column("user_id")
+    private String userId;
+
+    @Column("created_at")
+    private Instant createdAt;
+
+    @Column("updated_at")
+    private Instant updatedAt;
+
+    @Column("deleted_at")
+    private Instant deletedAt;
+
+    public ReactiveNote() {}
+}
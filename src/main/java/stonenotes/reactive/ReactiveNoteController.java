@@ -0,0 +1,92 @@
+package stonenotes.reactive;
+
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import stonenotes.common.ApiResponse;
+import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.UpdateNoteDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNoteController {
+    private final ReactiveNoteService noteService;
+
+    public ReactiveNoteController(ReactiveNoteService noteService) {
+        this.noteService = noteService;
+    }
+
+    @PostMapping("/notes")
+    public Mono<ResponseEntity<ApiResponse<NoteResponseDto>>> createNote(@Valid @RequestBody CreateNoteDto createNoteDto, @AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaim("sub");
+
+        return noteService.createNote(createNoteDto, userId)
+                .map(note -> ResponseEntity.status(201).body(ApiResponse.success(note, "Note created successfully", 201)));
+    }
+
+    // PagedModel serializes to the page shape ApiResponseJsonWriter gives the servlet API: {content, page: {size, number, ...}}
+    @GetMapping("/notes")
+    public Mono<ResponseEntity<ApiResponse<PagedModel<NoteResponseDto>>>> getNotes(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        String userId = jwt.getClaim("sub");
+
+        List<String> allowedSortFields = Arrays.asList("createdAt", "updatedAt", "title");
+        if(!allowedSortFields.contains(sortBy)) {
+            throw new IllegalArgumentException("Invalid sort field: " + sortBy);
+        }
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+        return noteService.findNotesByUserId(userId, pageable)
+                .map(notesPage -> ResponseEntity.ok(ApiResponse.success(new PagedModel<>(notesPage), "Notes retrieved successfully", 200)));
+    }
+
+    @GetMapping("/notes/{noteId}")
+    public Mono<ResponseEntity<ApiResponse<NoteResponseDto>>> getNote(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable Long noteId) {
+        String userId = jwt.getClaim("sub");
+
+        return noteService.findNoteByIdAndUserId(noteId, userId)
+                .map(note -> ResponseEntity.ok(ApiResponse.success(note, "Note retrieved successfully")));
+    }
+
+    @PutMapping("/notes/{noteId}")
+    public Mono<ResponseEntity<ApiResponse<NoteResponseDto>>> updateNote(
+            @PathVariable Long noteId,
+            @Valid @RequestBody UpdateNoteDto updateNoteDto,
+            @AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaim("sub");
+
+        return noteService.updateNote(noteId, updateNoteDto, userId)
+                .map(note -> ResponseEntity.ok(ApiResponse.success(note, "Note updated successfully")));
+    }
+
+    @DeleteMapping("/notes/{noteId}")
+    public Mono<ResponseEntity<ApiResponse<Void>>> deleteNote(
+            @PathVariable Long noteId,
+            @AuthenticationPrincipal Jwt jwt) {
+        String userId = jwt.getClaim("sub");
+
+        return noteService.deleteNote(noteId, userId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.ok(ApiResponse.<Void>success(null, "Note deleted successfully"))));
+    }
+}
@@ -0,0 +1,28 @@
+package stonenotes.reactive;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveNoteRepository extends R2dbcRepository<ReactiveNote, Long> {
+    // Soft-deleted notes (deleted_at set) are only visible to the servlet application's trash endpoints
+    Mono<ReactiveNote> findByIdAndUserIdAndDeletedAtIsNull(Long id, String userId);
+
+    Flux<ReactiveNote> findByUserIdAndDeletedAtIsNull(String userId, Pageable pageable);
+
+    Mono<Long> countByUserIdAndDeletedAtIsNull(String userId);
+
+    // Deduplicated bodies, shared through content_blobs with the servlet application's ContentBlobStore
+    @Query("SELECT content FROM content_blobs WHERE hash = :hash")
+    Mono<String> findBlobContent(@Param("hash") String hash);
+
+    @Modifying
+    @Query("UPDATE content_blobs SET ref_count = ref_count - 1 WHERE hash = :hash AND ref_count > 0")
+    Mono<Integer> releaseBlob(@Param("hash") String hash);
+}
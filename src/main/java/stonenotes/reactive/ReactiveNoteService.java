@@ -0,0 +1,114 @@
+package stonenotes.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.UpdateNoteDto;
+import stonenotes.exception.NoteNotFoundException;
+
+import java.time.Instant;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNoteService {
+    private final ReactiveNoteRepository noteRepository;
+
+    public ReactiveNoteService(ReactiveNoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    public Mono<NoteResponseDto> createNote(CreateNoteDto createNoteDto, String userId) {
+        if(createNoteDto.getTitle() == null || createNoteDto.getTitle().trim().isEmpty()) {
+            return Mono.error(new IllegalArgumentException("Title cannot be blank"));
+        }
+
+        Instant now = Instant.now();
+        ReactiveNote note = new ReactiveNote();
+        note.setTitle(createNoteDto.getTitle());
+        note.setContent(createNoteDto.getContent());
+        note.setUserId(userId);
+        note.setCreatedAt(now);
+        note.setUpdatedAt(now);
+
+        return noteRepository.save(note).map(this::convertToResponseDto);
+    }
+
+    public Mono<Page<NoteResponseDto>> findNotesByUserId(String userId, Pageable pageable) {
+        return noteRepository.findByUserIdAndDeletedAtIsNull(userId, pageable)
+                .concatMap(this::resolveContent)
+                .map(this::convertToResponseDto)
+                .collectList()
+                .zipWith(noteRepository.countByUserIdAndDeletedAtIsNull(userId))
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Mono<NoteResponseDto> findNoteByIdAndUserId(Long id, String userId) {
+        return findOwnedNote(id, userId).flatMap(this::resolveContent).map(this::convertToResponseDto);
+    }
+
+    // The reference to a previous deduplicated body is released in the same transaction as the write
+    @Transactional
+    public Mono<NoteResponseDto> updateNote(Long noteId, UpdateNoteDto updateDto, String userId) {
+        return findOwnedNote(noteId, userId)
+                .flatMap(note -> {
+                    String previousHash = note.getContentHash();
+                    note.setTitle(updateDto.getTitle());
+                    note.setContent(updateDto.getContent());
+                    // The new body is stored inline, so a previous large body must stop taking precedence over it
+                    note.setContentRef(null);
+                    note.setContentSize(null);
+                    note.setContentHash(null);
+                    // Left for the servlet application to derive from the new content
+                    note.setWordCount(null);
+                    note.setContentSignature(null);
+                    note.setUpdatedAt(Instant.now());
+                    Mono<Integer> release = previousHash == null ? Mono.empty() : noteRepository.releaseBlob(previousHash);
+                    return release.then(noteRepository.save(note));
+                })
+                .map(this::convertToResponseDto);
+    }
+
+    public Mono<Void> deleteNote(Long noteId, String userId) {
+        return findOwnedNote(noteId, userId)
+                .flatMap(note -> {
+                    note.setDeletedAt(Instant.now());
+                    return noteRepository.save(note);
+                })
+                .then();
+    }
+
+    private Mono<ReactiveNote> findOwnedNote(Long id, String userId) {
+        return noteRepository.findByIdAndUserIdAndDeletedAtIsNull(id, userId)
+                .switchIfEmpty(Mono.error(() -> new NoteNotFoundException("Note not found")));
+    }
+
+    private Mono<ReactiveNote> resolveContent(ReactiveNote note) {
+        if (note.getContentHash() == null) {
+            return Mono.just(note);
+        }
+        return noteRepository.findBlobContent(note.getContentHash())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Missing content blob " + note.getContentHash())))
+                .map(content -> {
+                    note.setContent(content);
+                    return note;
+                });
+    }
+
+    private NoteResponseDto convertToResponseDto(ReactiveNote note) {
+        NoteResponseDto dto = new NoteResponseDto();
+        dto.setId(note.getId());
+        dto.setTitle(note.getTitle());
+        dto.setContent(note.getContent());
+        dto.setCreatedAt(note.getCreatedAt());
+        dto.setUpdatedAt(note.getUpdatedAt());
+        dto.setContentSize(note.getContentSize());
+
+        return dto;
+    }
+}
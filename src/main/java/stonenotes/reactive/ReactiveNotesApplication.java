@@ -0,0 +1,31 @@
+package stonenotes.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+
+// WebFlux + R2DBC runtime serving the same /api/notes contract as the servlet application.
+// Only registered when running as a reactive web application, so the servlet application's
+// component scan skips it.
+@SpringBootApplication(exclude = {
+		DataSourceAutoConfiguration.class,
+		DataSourceTransactionManagerAutoConfiguration.class,
+		HibernateJpaAutoConfiguration.class,
+		JpaRepositoriesAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNotesApplication {
+
+	public static void main(String[] args) {
+		SpringApplication application = new SpringApplication(ReactiveNotesApplication.class);
+		application.setWebApplicationType(WebApplicationType.REACTIVE);
+		application.setAdditionalProfiles("reactive");
+		application.run(args);
+	}
+
+}
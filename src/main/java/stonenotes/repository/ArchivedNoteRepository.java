@@ -0,0 +1,23 @@
+package stonenotes.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import stonenotes.model.ArchivedNote;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedNoteRepository extends JpaRepository<ArchivedNote, Long> {
+    Optional<ArchivedNote> findByIdAndUserId(Long id, String userId);
+
+    boolean existsByIdAndUserId(Long id, String userId);
+
+    List<ArchivedNote> findByUserIdAndIdIn(String userId, Collection<Long> ids);
+
+    List<ArchivedNote> findByContentSignatureIsNull(Pageable pageable);
+
+    List<ArchivedNote> findByWordCountIsNull(Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package stonenotes.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import stonenotes.model.ContentBlob;
+
+@Repository
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+}
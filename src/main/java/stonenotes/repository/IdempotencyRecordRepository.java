@@ -0,0 +1,18 @@
+package stonenotes.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import stonenotes.model.IdempotencyRecord;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
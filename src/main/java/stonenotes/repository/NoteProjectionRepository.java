@@ -0,0 +1,20 @@
+package stonenotes.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import stonenotes.dto.NoteField;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.SparseNoteDto;
+
+import java.util.Optional;
+import java.util.Set;
+
+// Queries that read notes from both the hot notes table and the archived_notes tier,
+// selecting only the requested columns
+public interface NoteProjectionRepository {
+    Page<NoteResponseDto> findByUserIdAcrossTiers(String userId, Pageable pageable);
+
+    Page<SparseNoteDto> findByUserId(String userId, Set<NoteField> fields, Pageable pageable);
+
+    Optional<SparseNoteDto> findByIdAndUserId(Long id, String userId, Set<NoteField> fields);
+}
@@ -0,0 +1,152 @@
+package stonenotes.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import stonenotes.dto.NoteField;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.SparseNoteDto;
+import stonenotes.model.CompressedTextConverter;
+import stonenotes.model.TagListConverter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+
+// A UNION ALL over both tiers, so paging and sorting stay correct across them in a single statement.
+// Each branch selects only the columns that are requested or sorted on.
+public class NoteProjectionRepositoryImpl implements NoteProjectionRepository {
+    static final String COUNT_SQL = "SELECT (SELECT COUNT(*) FROM notes WHERE user_id = :userId AND deleted_at IS NULL)"
+            + " + (SELECT COUNT(*) FROM archived_notes WHERE user_id = :userId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public NoteProjectionRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<NoteResponseDto> findByUserIdAcrossTiers(String userId, Pageable pageable) {
+        return findPage(userId, EnumSet.allOf(NoteField.class), pageable);
+    }
+
+    @Override
+    public Page<SparseNoteDto> findByUserId(String userId, Set<NoteField> fields, Pageable pageable) {
+        return findPage(userId, fields, pageable).map(note -> new SparseNoteDto(fields, note));
+    }
+
+    @Override
+    public Optional<SparseNoteDto> findByIdAndUserId(Long id, String userId, Set<NoteField> fields) {
+        String sql = tiersSql(fields, "id = :id AND user_id = :userId");
+        MapSqlParameterSource params = new MapSqlParameterSource("id", id).addValue("userId", userId);
+
+        return jdbcTemplate.query(sql, params, rowMapper(fields)).stream()
+                .findFirst()
+                .map(note -> new SparseNoteDto(fields, note));
+    }
+
+    private Page<NoteResponseDto> findPage(String userId, Set<NoteField> fields, Pageable pageable) {
+        Set<NoteField> columns = EnumSet.copyOf(fields);
+        for (Sort.Order order : pageable.getSort()) {
+            columns.add(sortField(order.getProperty()));
+        }
+
+        String sql = tiersSql(columns, "user_id = :userId") + orderBy(pageable.getSort()) + " LIMIT :limit OFFSET :offset";
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        List<NoteResponseDto> notes = jdbcTemplate.query(sql, params, rowMapper(fields));
+        return PageableExecutionUtils.getPage(notes, pageable,
+                () -> jdbcTemplate.queryForObject(COUNT_SQL, new MapSqlParameterSource("userId", userId), Long.class));
+    }
+
+    private static String tiersSql(Set<NoteField> columns, String condition) {
+        StringJoiner hot = new StringJoiner(", ");
+        StringJoiner cold = new StringJoiner(", ");
+        for (NoteField column : columns) {
+            if (column == NoteField.CONTENT) {
+                // Hot content is plain text, a content_blobs hash (deduplicated) or a chunk store reference
+                // (large notes); archived content is compressed and inflated while mapping
+                hot.add("COALESCE(content, (SELECT b.content FROM content_blobs b WHERE b.hash = notes.content_hash)) AS content")
+                        .add("content_size")
+                        .add("NULL AS content_compressed");
+                cold.add("NULL AS content").add("NULL AS content_size").add("content_compressed");
+            } else {
+                hot.add(columnName(column));
+                cold.add(columnName(column));
+            }
+        }
+        return "SELECT * FROM ("
+                + "SELECT " + hot + " FROM notes WHERE " + condition + " AND deleted_at IS NULL"
+                + " UNION ALL SELECT " + cold + " FROM archived_notes WHERE " + condition
+                + ") tiers";
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orders = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            orders.add(columnName(sortField(order.getProperty())) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return orders.toString();
+    }
+
+    private static NoteField sortField(String property) {
+        for (NoteField field : NoteField.values()) {
+            if (field != NoteField.CONTENT && field != NoteField.TAGS && field.getFieldName().equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort field: " + property);
+    }
+
+    private static String columnName(NoteField field) {
+        return switch (field) {
+            case ID -> "id";
+            case TITLE -> "title";
+            case CONTENT -> "content";
+            case TAGS -> "tags";
+            case CREATED_AT -> "created_at";
+            case UPDATED_AT -> "updated_at";
+        };
+    }
+
+    private static RowMapper<NoteResponseDto> rowMapper(Set<NoteField> fields) {
+        return (rs, rowNum) -> {
+            NoteResponseDto dto = new NoteResponseDto();
+            for (NoteField field : fields) {
+                field.apply(dto, value(rs, field));
+            }
+            if (fields.contains(NoteField.CONTENT)) {
+                dto.setContentSize(rs.getObject("content_size", Long.class));
+            }
+            return dto;
+        };
+    }
+
+    private static Object value(ResultSet rs, NoteField field) throws SQLException {
+        return switch (field) {
+            case ID -> rs.getLong("id");
+            case TITLE -> rs.getString("title");
+            case CONTENT -> {
+                String content = rs.getString("content");
+                yield content != null ? content : CompressedTextConverter.decompress(rs.getBytes("content_compressed"));
+            }
+            case TAGS -> TagListConverter.split(rs.getString("tags"));
+            case CREATED_AT -> rs.getObject("created_at", OffsetDateTime.class).toInstant();
+            case UPDATED_AT -> rs.getObject("updated_at", OffsetDateTime.class).toInstant();
+        };
+    }
+}
@@ -1,19 +1,56 @@
 package stonenotes.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import stonenotes.model.Note;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface NoteRepository extends JpaRepository<Note, Long> {
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteProjectionRepository {
     List<Note> findByUserIdOrderByCreatedAtDesc(String userId);
 
-    Optional<Note> findByIdAndUserId(Long id, String userId);
+    // Resolved by primary key so repeated lookups are served from the "notes" second-level cache region.
+    // Cached entries bypass the deleted_at restriction, so soft-deleted notes are filtered here as well.
+    default Optional<Note> findByIdAndUserId(Long id, String userId) {
+        return findById(id).filter(note -> note.getUserId().equals(userId) && note.getDeletedAt() == null);
+    }
 
     Page<Note> findByUserId(String userId, Pageable pageable);
+
+    List<Note> findByUserIdAndIdIn(String userId, Collection<Long> ids);
+
+    // Candidates for the archive tier; large notes already keep their body outside the table.
+    // Rows stay locked until they are moved, so a concurrent update cannot commit in between
+    // and be lost from the archived copy.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Note> findByUpdatedAtBeforeAndContentRefIsNull(Instant cutoff, Pageable pageable);
+
+    // Notes written before content signatures existed, for NoteSignatureBackfill
+    List<Note> findByContentSignatureIsNull(Pageable pageable);
+
+    // Notes written before word counts existed, for NoteStatsRebuilder
+    List<Note> findByWordCountIsNull(Pageable pageable);
+
+    @Query(value = "SELECT * FROM notes WHERE user_id = :userId AND deleted_at IS NOT NULL ORDER BY deleted_at DESC",
+            countQuery = "SELECT COUNT(*) FROM notes WHERE user_id = :userId AND deleted_at IS NOT NULL",
+            nativeQuery = true)
+    Page<Note> findDeletedByUserId(@Param("userId") String userId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE notes SET deleted_at = NULL WHERE id = :id AND user_id = :userId AND deleted_at IS NOT NULL",
+            nativeQuery = true)
+    int restore(@Param("id") Long id, @Param("userId") String userId);
 }
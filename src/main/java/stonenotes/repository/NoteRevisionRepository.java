@@ -0,0 +1,24 @@
+package stonenotes.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import stonenotes.model.NoteRevision;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NoteRevisionRepository extends JpaRepository<NoteRevision, Long> {
+    Optional<NoteRevision> findFirstByNoteIdOrderByRevisionDesc(Long noteId);
+
+    Page<NoteRevision> findByNoteIdAndUserIdOrderByRevisionDesc(Long noteId, String userId, Pageable pageable);
+
+    Optional<NoteRevision> findByNoteIdAndUserIdAndRevision(Long noteId, String userId, int revision);
+
+    Optional<NoteRevision> findFirstByNoteIdAndUserIdAndCreatedAtLessThanEqualOrderByRevisionDesc(Long noteId, String userId, Instant at);
+
+    List<NoteRevision> findByNoteIdAndRevisionBetweenOrderByRevision(Long noteId, int from, int to);
+}
@@ -0,0 +1,7 @@
+package stonenotes.revision;
+
+import java.time.Instant;
+
+// The title and full content of a note at one point in time
+public record NoteVersion(String title, String content, Instant timestamp) {
+}
@@ -0,0 +1,16 @@
+package stonenotes.revision;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.revisions")
+public class RevisionProperties {
+    // Record a revision for every note update
+    private boolean enabled = false;
+
+    // At most this many revisions are rebuilt from one snapshot before a new full snapshot is stored
+    private int snapshotInterval = 20;
+}
@@ -0,0 +1,104 @@
+package stonenotes.revision;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Encodes one version of a text as copy and insert operations against the previous one.
+// The previous text is indexed by the hash of every aligned block; the new text is scanned with a rolling hash,
+// and each verified block match is extended in both directions, so moved and repeated passages are copied too.
+// Format: "c<offset>,<length>;" copies from the base, "i<length>:<text>" inserts literal text (lengths in chars).
+public final class TextDelta {
+    static final int BLOCK_SIZE = 16;
+    private static final long MULTIPLIER = 31;
+    private static final long LEADING_POWER = power(BLOCK_SIZE - 1);
+
+    private TextDelta() {}
+
+    public static String encode(String base, String target) {
+        StringBuilder delta = new StringBuilder();
+        Map<Long, Integer> blocks = new HashMap<>();
+        for (int offset = 0; offset + BLOCK_SIZE <= base.length(); offset += BLOCK_SIZE) {
+            blocks.putIfAbsent(hash(base, offset), offset);
+        }
+
+        int literalStart = 0;
+        int position = 0;
+        long hash = position + BLOCK_SIZE <= target.length() ? hash(target, position) : 0;
+        while (position + BLOCK_SIZE <= target.length()) {
+            Integer match = blocks.get(hash);
+            if (match != null && target.regionMatches(position, base, match, BLOCK_SIZE)) {
+                int baseStart = match;
+                int targetStart = position;
+                while (targetStart > literalStart && baseStart > 0 && base.charAt(baseStart - 1) == target.charAt(targetStart - 1)) {
+                    baseStart--;
+                    targetStart--;
+                }
+                int length = position + BLOCK_SIZE - targetStart;
+                while (targetStart + length < target.length() && baseStart + length < base.length()
+                        && base.charAt(baseStart + length) == target.charAt(targetStart + length)) {
+                    length++;
+                }
+                appendInsert(delta, target, literalStart, targetStart);
+                delta.append('c').append(baseStart).append(',').append(length).append(';');
+                position = targetStart + length;
+                literalStart = position;
+                if (position + BLOCK_SIZE <= target.length()) {
+                    hash = hash(target, position);
+                }
+                continue;
+            }
+            if (position + BLOCK_SIZE < target.length()) {
+                hash = (hash - target.charAt(position) * LEADING_POWER) * MULTIPLIER + target.charAt(position + BLOCK_SIZE);
+            }
+            position++;
+        }
+        appendInsert(delta, target, literalStart, target.length());
+        return delta.toString();
+    }
+
+    public static String apply(String base, String delta) {
+        StringBuilder text = new StringBuilder(base.length());
+        int position = 0;
+        while (position < delta.length()) {
+            char operation = delta.charAt(position);
+            if (operation == 'c') {
+                int comma = delta.indexOf(',', position);
+                int end = delta.indexOf(';', comma);
+                int offset = Integer.parseInt(delta, position + 1, comma, 10);
+                int length = Integer.parseInt(delta, comma + 1, end, 10);
+                text.append(base, offset, offset + length);
+                position = end + 1;
+            } else if (operation == 'i') {
+                int colon = delta.indexOf(':', position);
+                int length = Integer.parseInt(delta, position + 1, colon, 10);
+                text.append(delta, colon + 1, colon + 1 + length);
+                position = colon + 1 + length;
+            } else {
+                throw new IllegalArgumentException("Malformed delta at offset " + position);
+            }
+        }
+        return text.toString();
+    }
+
+    private static void appendInsert(StringBuilder delta, String target, int start, int end) {
+        if (end > start) {
+            delta.append('i').append(end - start).append(':').append(target, start, end);
+        }
+    }
+
+    private static long hash(String text, int offset) {
+        long hash = 0;
+        for (int i = offset; i < offset + BLOCK_SIZE; i++) {
+            hash = hash * MULTIPLIER + text.charAt(i);
+        }
+        return hash;
+    }
+
+    private static long power(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= MULTIPLIER;
+        }
+        return result;
+    }
+}
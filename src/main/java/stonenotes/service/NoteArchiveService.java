@@ -0,0 +1,146 @@
+package stonenotes.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stonenotes.cache.NoteChangeEvent;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.content.ContentBlobStore;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.model.SignatureConverter;
+import stonenotes.model.TagListConverter;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// The cold tier: notes that have not been updated for a long time live compressed in archived_notes.
+// Reads fall through to it when the notes table misses, and writes promote the note back first.
+@Service
+public class NoteArchiveService {
+    // The notes id column is generated by default, so an archived note can return under its original id
+    static final String PROMOTE_SQL =
+            "INSERT INTO notes (id, title, content, tags, content_signature, word_count, user_id, created_at, updated_at)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final NoteRepository noteRepository;
+    private final ArchivedNoteRepository archivedNoteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteInvalidationBus noteInvalidationBus;
+    private final ContentBlobStore contentBlobStore;
+    private final TransactionTemplate transactionTemplate;
+
+    public NoteArchiveService(NoteRepository noteRepository, ArchivedNoteRepository archivedNoteRepository,
+                              JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus,
+                              ContentBlobStore contentBlobStore, PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.archivedNoteRepository = archivedNoteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.noteInvalidationBus = noteInvalidationBus;
+        this.contentBlobStore = contentBlobStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Timed(value = "notes.archive", extraTags = {"operation", "findNote"})
+    public Optional<NoteResponseDto> findNote(Long id, String userId) {
+        return archivedNoteRepository.findByIdAndUserId(id, userId).map(this::convertToResponseDto);
+    }
+
+    @Timed(value = "notes.archive", extraTags = {"operation", "findNotes"})
+    public List<NoteResponseDto> findNotes(String userId, Collection<Long> ids) {
+        return archivedNoteRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .map(this::convertToResponseDto)
+                .toList();
+    }
+
+    @Timed(value = "notes.archive", extraTags = {"operation", "promote"})
+    public Optional<Note> promote(Long id, String userId) {
+        return promoteAll(userId, List.of(id)).stream().findFirst();
+    }
+
+    // Moves the given archived notes back into the notes table and returns them as managed entities.
+    // Joins the caller's transaction when there is one.
+    @Timed(value = "notes.archive", extraTags = {"operation", "promoteAll"})
+    public List<Note> promoteAll(String userId, Collection<Long> ids) {
+        return transactionTemplate.execute(status -> {
+            List<ArchivedNote> archived = archivedNoteRepository.findByUserIdAndIdIn(userId, ids);
+            if (archived.isEmpty()) {
+                return List.of();
+            }
+            jdbcTemplate.batchUpdate(PROMOTE_SQL, archived, archived.size(), (ps, note) -> {
+                ps.setLong(1, note.getId());
+                ps.setString(2, note.getTitle());
+                ps.setString(3, note.getContent());
+                ps.setString(4, TagListConverter.join(note.getTags()));
+                ps.setBytes(5, SignatureConverter.toBytes(note.getContentSignature()));
+                if (note.getWordCount() == null) {
+                    ps.setNull(6, Types.BIGINT);
+                } else {
+                    ps.setLong(6, note.getWordCount());
+                }
+                ps.setString(7, note.getUserId());
+                ps.setObject(8, note.getCreatedAt().atOffset(ZoneOffset.UTC));
+                ps.setObject(9, note.getUpdatedAt().atOffset(ZoneOffset.UTC));
+            });
+            archivedNoteRepository.deleteAllInBatch(archived);
+            return noteRepository.findByUserIdAndIdIn(userId, archived.stream().map(ArchivedNote::getId).toList());
+        });
+    }
+
+    // Moves up to limit notes last updated before the cutoff into the archive, oldest first.
+    // Removing them through the entity manager evicts each one from the local second-level cache;
+    // other instances drop their cached copy on the UPDATED event published after commit.
+    @Timed(value = "notes.archive", extraTags = {"operation", "archive"})
+    public int archiveNotesUpdatedBefore(Instant cutoff, int limit) {
+        List<Note> moved = transactionTemplate.execute(status -> {
+            List<Note> notes = noteRepository.findByUpdatedAtBeforeAndContentRefIsNull(cutoff, PageRequest.of(0, limit, Sort.by("updatedAt")));
+            if (notes.isEmpty()) {
+                return List.<Note>of();
+            }
+            Instant archivedAt = Instant.now();
+            List<ArchivedNote> archived = new ArrayList<>(notes.size());
+            for (Note note : notes) {
+                // Archived copies hold their own compressed body, so deduplicated notes give up their blob reference
+                String hash = note.getContentHash();
+                archived.add(ArchivedNote.of(note, hash == null ? note.getContent() : contentBlobStore.resolve(hash), archivedAt));
+                if (hash != null) {
+                    contentBlobStore.release(hash);
+                }
+            }
+            archivedNoteRepository.saveAll(archived);
+            noteRepository.deleteAll(notes);
+            return notes;
+        });
+        if (moved == null) {
+            return 0;
+        }
+        for (Note note : moved) {
+            noteInvalidationBus.publish(NoteChangeEvent.Type.UPDATED, note.getId(), note.getUserId());
+        }
+        return moved.size();
+    }
+
+    private NoteResponseDto convertToResponseDto(ArchivedNote note) {
+        NoteResponseDto dto = new NoteResponseDto();
+        dto.setId(note.getId());
+        dto.setTitle(note.getTitle());
+        dto.setContent(note.getContent());
+        dto.setTags(note.getTags());
+        dto.setCreatedAt(note.getCreatedAt());
+        dto.setUpdatedAt(note.getUpdatedAt());
+
+        return dto;
+    }
+}
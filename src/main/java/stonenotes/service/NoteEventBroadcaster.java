@@ -0,0 +1,238 @@
+package stonenotes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import stonenotes.cache.NoteChangeEvent;
+import stonenotes.cache.NoteInvalidationBus;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Pushes note changes to connected SSE clients. Emitters are completed asynchronously by the
+// servlet container, so an idle connection holds no thread. Each user keeps a short replay buffer
+// so reconnecting clients can resume from Last-Event-ID. Sends run on virtual threads, one drain per user at a
+// time, so a slow client holds up neither the publishing thread nor other users and still sees events in order.
+@Component
+public class NoteEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(NoteEventBroadcaster.class);
+
+    private final String streamPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, UserStream> streams = new ConcurrentHashMap<>();
+    private final long emitterTimeoutMillis;
+    private final int replayBufferSize;
+    private final Duration idleRetention;
+    private final Executor sender;
+    private final Clock clock;
+
+    public NoteEventBroadcaster(NoteInvalidationBus noteInvalidationBus,
+                                @Value("${notes.stream.timeout:PT30M}") Duration emitterTimeout,
+                                @Value("${notes.stream.replay-buffer-size:100}") int replayBufferSize,
+                                @Value("${notes.stream.idle-retention:PT10M}") Duration idleRetention) {
+        this(noteInvalidationBus, emitterTimeout, replayBufferSize, idleRetention,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("note-stream-", 0).factory()), Clock.systemUTC());
+    }
+
+    NoteEventBroadcaster(NoteInvalidationBus noteInvalidationBus, Duration emitterTimeout, int replayBufferSize,
+                         Duration idleRetention, Executor sender, Clock clock) {
+        this.streamPrefix = noteInvalidationBus.nodeId().substring(0, 8);
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.replayBufferSize = replayBufferSize;
+        this.idleRetention = idleRetention;
+        this.sender = sender;
+        this.clock = clock;
+        noteInvalidationBus.subscribe(this::broadcast);
+    }
+
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = newEmitter(emitterTimeoutMillis);
+        UserStream stream = streams.compute(userId, (id, existing) -> {
+            UserStream active = existing != null ? existing : new UserStream(sequence.get());
+            active.touch();
+            return active;
+        });
+
+        emitter.onCompletion(() -> stream.emitters.remove(emitter));
+        emitter.onTimeout(() -> stream.emitters.remove(emitter));
+        emitter.onError(ex -> stream.emitters.remove(emitter));
+
+        synchronized (stream) {
+            List<StreamedEvent> missed = stream.eventsAfter(lastEventId);
+            try {
+                if (missed == null) {
+                    emitter.send(SseEmitter.event().name("resync").data(""));
+                } else {
+                    for (StreamedEvent event : missed) {
+                        emitter.send(event.toSse(streamPrefix));
+                    }
+                }
+            } catch (IOException ex) {
+                emitter.completeWithError(ex);
+                return emitter;
+            }
+            stream.emitters.add(emitter);
+        }
+        return emitter;
+    }
+
+    void broadcast(NoteChangeEvent change) {
+        // The stream is looked up before the sequence is taken, so a stream created here starts below this event
+        UserStream stream = streams.computeIfAbsent(change.userId(), id -> new UserStream(sequence.get()));
+        synchronized (stream) {
+            StreamedEvent event = new StreamedEvent(sequence.incrementAndGet(), change.type(), change.noteId(), change.occurredAt());
+            stream.record(event, replayBufferSize);
+            stream.enqueue(() -> event.toSse(streamPrefix));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notes.stream.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        Instant idleCutoff = clock.instant().minus(idleRetention);
+        for (String userId : streams.keySet()) {
+            streams.computeIfPresent(userId, (id, stream) -> stream.isIdleSince(idleCutoff) ? null : stream);
+        }
+        for (UserStream stream : streams.values()) {
+            stream.enqueue(() -> SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    public int connectionCount() {
+        return streams.values().stream().mapToInt(stream -> stream.emitters.size()).sum();
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void send(UserStream stream, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Dropping closed note stream connection", ex);
+            stream.emitters.remove(emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    // An event together with the connections that were open when it was recorded, so a client that subscribes
+    // while it is still queued gets it from the replay only
+    private record Delivery(Supplier<SseEmitter.SseEventBuilder> event, List<SseEmitter> emitters) {
+    }
+
+    private record StreamedEvent(long sequence, NoteChangeEvent.Type type, Long noteId, Instant occurredAt) {
+        SseEmitter.SseEventBuilder toSse(String streamPrefix) {
+            return SseEmitter.event()
+                    .id(streamPrefix + ":" + sequence)
+                    .name(type.name().toLowerCase())
+                    .data(Map.of("type", type, "noteId", noteId, "occurredAt", occurredAt), MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private final class UserStream {
+        private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+        private final Deque<StreamedEvent> recent = new ArrayDeque<>();
+        private final Deque<Delivery> outbox = new ArrayDeque<>();
+        private boolean draining;
+        // Events up to here are not in the buffer: dropped from it, or sent before this stream was created
+        private long droppedThrough;
+        private volatile Instant lastActivity = clock.instant();
+
+        UserStream(long droppedThrough) {
+            this.droppedThrough = droppedThrough;
+        }
+
+        synchronized void record(StreamedEvent event, int limit) {
+            recent.addLast(event);
+            while (recent.size() > limit) {
+                droppedThrough = recent.removeFirst().sequence();
+            }
+            lastActivity = clock.instant();
+        }
+
+        synchronized void enqueue(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (emitters.isEmpty()) {
+                return;
+            }
+            outbox.addLast(new Delivery(event, List.copyOf(emitters)));
+            if (!draining) {
+                draining = true;
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Delivery delivery;
+                synchronized (this) {
+                    delivery = outbox.pollFirst();
+                    if (delivery == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                for (SseEmitter emitter : delivery.emitters()) {
+                    if (emitters.contains(emitter)) {
+                        send(this, emitter, delivery.event().get());
+                    }
+                }
+            }
+        }
+
+        // Returns null when the client has to refetch because the requested position is unknown or already dropped
+        synchronized List<StreamedEvent> eventsAfter(String lastEventId) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                return List.of();
+            }
+            long lastSequence = parseSequence(lastEventId);
+            if (lastSequence < 0 || lastSequence < droppedThrough) {
+                return null;
+            }
+            List<StreamedEvent> missed = new ArrayList<>();
+            for (StreamedEvent event : recent) {
+                if (event.sequence() > lastSequence) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+
+        void touch() {
+            lastActivity = clock.instant();
+        }
+
+        boolean isIdleSince(Instant cutoff) {
+            return emitters.isEmpty() && lastActivity.isBefore(cutoff);
+        }
+
+        private long parseSequence(String eventId) {
+            int separator = eventId.indexOf(':');
+            if (separator < 0 || !eventId.substring(0, separator).equals(streamPrefix)) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(eventId.substring(separator + 1));
+            } catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package stonenotes.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.dto.NoteOperationDto;
+import stonenotes.dto.NoteOperationResultDto;
+import stonenotes.dto.NoteOperationsRequestDto;
+import stonenotes.dto.NoteOperationsResponseDto;
+import stonenotes.model.Note;
+import stonenotes.repository.NoteRepository;
+import stonenotes.stats.NoteStatsDelta;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.tag.NoteTags;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Applies an ordered list of creates, updates and deletes in one transaction.
+// Notes referenced by updates and deletes are loaded with one query up front, and Hibernate
+// flushes the resulting UPDATE and DELETE statements as JDBC batches at commit.
+@Service
+public class NoteOperationsService {
+    private final NoteRepository noteRepository;
+    private final NoteService noteService;
+    private final NoteArchiveService noteArchiveService;
+    private final NoteCacheEvictor noteCacheEvictor;
+    private final NoteStatsService noteStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    public NoteOperationsService(NoteRepository noteRepository, NoteService noteService, NoteArchiveService noteArchiveService,
+                                 NoteCacheEvictor noteCacheEvictor, NoteStatsService noteStatsService,
+                                 PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.noteService = noteService;
+        this.noteArchiveService = noteArchiveService;
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.noteStatsService = noteStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // The note is returned in the result once the batch has been flushed
+    private record Applied(NoteOperationResultDto result, Note note) {
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "applyOperations"})
+    public NoteOperationsResponseDto applyOperations(List<NoteOperationDto> operations, NoteOperationsRequestDto.Mode mode, String userId) {
+        List<NoteService.Change> changes = new ArrayList<>();
+        List<Long> promoted = new ArrayList<>();
+        NoteOperationsResponseDto response = transactionTemplate.execute(status -> {
+            Map<Long, Note> notes = loadReferencedNotes(operations, userId, promoted);
+            List<NoteOperationResultDto> results = new ArrayList<>(operations.size());
+            List<Applied> applied = new ArrayList<>(operations.size());
+            // Completed once their new updated_at is known
+            List<NoteService.Update> updates = new ArrayList<>();
+            NoteStatsDelta stats = new NoteStatsDelta();
+
+            for (int i = 0; i < operations.size(); i++) {
+                Applied outcome = apply(i, operations.get(i), notes, userId, changes, updates, stats);
+                results.add(outcome.result());
+                applied.add(outcome);
+                if (!outcome.result().isSucceeded() && mode == NoteOperationsRequestDto.Mode.ATOMIC) {
+                    status.setRollbackOnly();
+                    changes.clear();
+                    return new NoteOperationsResponseDto(false, results);
+                }
+            }
+
+            // The changes of the whole batch reach the user's statistics as one delta
+            noteStatsService.record(userId, stats);
+            // Executes the batched statements so update timestamps are final before they are returned
+            noteRepository.flush();
+            for (NoteService.Update update : updates) {
+                noteService.completeUpdate(update.change().note(), update);
+            }
+            for (Applied outcome : applied) {
+                if (outcome.note() != null) {
+                    outcome.result().setNote(noteService.convertToResponseDto(outcome.note()));
+                }
+            }
+            return new NoteOperationsResponseDto(true, results);
+        });
+
+        if (response != null && !response.isCommitted()) {
+            // The rollback put promoted notes back in the archive; drop the hot copies cached while loading them
+            promoted.forEach(noteCacheEvictor::evict);
+        }
+        changes.forEach(noteService::publish);
+        return response;
+    }
+
+    private Map<Long, Note> loadReferencedNotes(List<NoteOperationDto> operations, String userId, List<Long> promoted) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (NoteOperationDto operation : operations) {
+            if (operation.getType() != NoteOperationDto.Type.CREATE && operation.getNoteId() != null) {
+                ids.add(operation.getNoteId());
+            }
+        }
+        Map<Long, Note> notes = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Note note : noteRepository.findByUserIdAndIdIn(userId, ids)) {
+                notes.put(note.getId(), note);
+            }
+        }
+        if (notes.size() < ids.size()) {
+            // Archived notes are promoted back within this transaction, so a rolled back batch leaves them archived
+            List<Long> notHot = ids.stream().filter(id -> !notes.containsKey(id)).toList();
+            for (Note note : noteArchiveService.promoteAll(userId, notHot)) {
+                notes.put(note.getId(), note);
+                promoted.add(note.getId());
+            }
+        }
+        return notes;
+    }
+
+    private Applied apply(int index, NoteOperationDto operation, Map<Long, Note> notes, String userId,
+                          List<NoteService.Change> changes, List<NoteService.Update> updates, NoteStatsDelta stats) {
+        NoteOperationDto.Type type = operation.getType();
+        Long noteId = operation.getNoteId();
+
+        if (type != NoteOperationDto.Type.DELETE && isBlank(operation.getTitle())) {
+            return failed(index, type, 400, noteId, "Title cannot be blank");
+        }
+        List<String> tags;
+        try {
+            tags = operation.getTags() == null ? null : NoteTags.normalize(operation.getTags());
+        } catch (IllegalArgumentException ex) {
+            return failed(index, type, 400, noteId, ex.getMessage());
+        }
+        if (type == NoteOperationDto.Type.CREATE) {
+            Note savedNote = noteRepository.save(noteService.newNote(userId, operation.getTitle(), operation.getContent(), tags));
+            changes.add(noteService.created(savedNote, stats));
+            return new Applied(new NoteOperationResultDto(index, type, 201, savedNote.getId(), null), savedNote);
+        }
+
+        if (noteId == null) {
+            return failed(index, type, 400, null, "Note id is required");
+        }
+        Note note = notes.get(noteId);
+        if (note == null) {
+            return failed(index, type, 404, noteId, "Note not found");
+        }
+
+        if (type == NoteOperationDto.Type.UPDATE) {
+            NoteService.Update update = noteService.applyUpdate(note, operation.getTitle(), operation.getContent(), tags, stats);
+            updates.add(update);
+            changes.add(update.change());
+            return new Applied(new NoteOperationResultDto(index, type, 200, noteId, null), note);
+        }
+
+        changes.add(noteService.trash(note, stats));
+        noteService.releaseContent(note);
+        notes.remove(noteId);
+        return new Applied(new NoteOperationResultDto(index, type, 200, noteId, null), null);
+    }
+
+    private static Applied failed(int index, NoteOperationDto.Type type, int status, Long noteId, String error) {
+        return new Applied(new NoteOperationResultDto(index, type, status, noteId, error), null);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
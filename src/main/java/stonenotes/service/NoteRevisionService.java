@@ -0,0 +1,155 @@
+package stonenotes.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import stonenotes.content.ContentHashes;
+import stonenotes.dto.NoteRevisionDto;
+import stonenotes.exception.NoteNotFoundException;
+import stonenotes.model.NoteRevision;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.repository.NoteRevisionRepository;
+import stonenotes.revision.NoteVersion;
+import stonenotes.revision.RevisionProperties;
+import stonenotes.revision.TextDelta;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+// Note history. Each update is stored as a TextDelta against the version before it, and a full snapshot is stored
+// every snapshotInterval revisions (or when a delta would not be smaller), so rebuilding any version applies
+// fewer than snapshotInterval deltas. Revision content is never null; a note without content has "".
+@Service
+public class NoteRevisionService {
+    private final NoteRevisionRepository noteRevisionRepository;
+    private final NoteRepository noteRepository;
+    private final ArchivedNoteRepository archivedNoteRepository;
+    private final RevisionProperties properties;
+
+    public NoteRevisionService(NoteRevisionRepository noteRevisionRepository, NoteRepository noteRepository,
+                               ArchivedNoteRepository archivedNoteRepository, RevisionProperties properties) {
+        this.noteRevisionRepository = noteRevisionRepository;
+        this.noteRepository = noteRepository;
+        this.archivedNoteRepository = archivedNoteRepository;
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    // Records the update of a note from previous to current. The latest revision must hold previous;
+    // if the note has no history yet, or was changed by a path that does not record it, previous is
+    // stored as a snapshot first so the delta always applies to the version it was computed against.
+    @Transactional
+    public void record(Long noteId, String userId, NoteVersion previous, NoteVersion current) {
+        String previousContent = contentOf(previous);
+        String previousHash = hash(previousContent);
+        NoteRevision last = noteRevisionRepository.findFirstByNoteIdOrderByRevisionDesc(noteId).orElse(null);
+        if (last == null || !last.getContentHash().equals(previousHash)) {
+            int revision = last == null ? 1 : last.getRevision() + 1;
+            last = noteRevisionRepository.save(snapshot(noteId, userId, revision, previous, previousContent));
+        }
+
+        int revision = last.getRevision() + 1;
+        String content = contentOf(current);
+        if (revision - last.getSnapshotRevision() >= properties.getSnapshotInterval()) {
+            noteRevisionRepository.save(snapshot(noteId, userId, revision, current, content));
+            return;
+        }
+        String delta = TextDelta.encode(previousContent, content);
+        if (delta.length() >= content.length()) {
+            noteRevisionRepository.save(snapshot(noteId, userId, revision, current, content));
+            return;
+        }
+        NoteRevision deltaRevision = revision(noteId, userId, revision, current, content);
+        deltaRevision.setKind(NoteRevision.Kind.DELTA);
+        deltaRevision.setSnapshotRevision(last.getSnapshotRevision());
+        deltaRevision.setBody(delta);
+        noteRevisionRepository.save(deltaRevision);
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "findRevisions"})
+    @Transactional(readOnly = true)
+    public Page<NoteRevisionDto> findRevisions(Long noteId, String userId, Pageable pageable) {
+        requireNote(noteId, userId);
+        return noteRevisionRepository.findByNoteIdAndUserIdOrderByRevisionDesc(noteId, userId, pageable)
+                .map(revision -> toDto(revision, null));
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "findRevision"})
+    @Transactional(readOnly = true)
+    public NoteRevisionDto findRevision(Long noteId, String userId, int revision) {
+        requireNote(noteId, userId);
+        NoteRevision target = noteRevisionRepository.findByNoteIdAndUserIdAndRevision(noteId, userId, revision)
+                .orElseThrow(() -> new NoteNotFoundException("Revision not found"));
+        return toDto(target, rebuild(target));
+    }
+
+    // The version of the note as of the given instant
+    @Timed(value = "notes.service", extraTags = {"operation", "findRevisionAt"})
+    @Transactional(readOnly = true)
+    public NoteRevisionDto findRevisionAt(Long noteId, String userId, Instant at) {
+        requireNote(noteId, userId);
+        NoteRevision target = noteRevisionRepository.findFirstByNoteIdAndUserIdAndCreatedAtLessThanEqualOrderByRevisionDesc(noteId, userId, at)
+                .orElseThrow(() -> new NoteNotFoundException("Revision not found"));
+        return toDto(target, rebuild(target));
+    }
+
+    private String rebuild(NoteRevision target) {
+        List<NoteRevision> chain = noteRevisionRepository.findByNoteIdAndRevisionBetweenOrderByRevision(
+                target.getNoteId(), target.getSnapshotRevision(), target.getRevision());
+        String content = chain.get(0).getBody();
+        for (NoteRevision revision : chain.subList(1, chain.size())) {
+            content = TextDelta.apply(content, revision.getBody());
+        }
+        if (!hash(content).equals(target.getContentHash())) {
+            throw new IllegalStateException("Revision " + target.getRevision() + " of note " + target.getNoteId() + " failed verification");
+        }
+        return content;
+    }
+
+    // Revisions survive while a note is archived, so the archive tier counts as existing too
+    private void requireNote(Long noteId, String userId) {
+        if (noteRepository.findByIdAndUserId(noteId, userId).isEmpty() && !archivedNoteRepository.existsByIdAndUserId(noteId, userId)) {
+            throw new NoteNotFoundException("Note not found");
+        }
+    }
+
+    private static NoteRevision snapshot(Long noteId, String userId, int revision, NoteVersion version, String content) {
+        NoteRevision snapshot = revision(noteId, userId, revision, version, content);
+        snapshot.setKind(NoteRevision.Kind.SNAPSHOT);
+        snapshot.setSnapshotRevision(revision);
+        snapshot.setBody(content);
+        return snapshot;
+    }
+
+    private static NoteRevision revision(Long noteId, String userId, int revision, NoteVersion version, String content) {
+        NoteRevision noteRevision = new NoteRevision();
+        noteRevision.setNoteId(noteId);
+        noteRevision.setUserId(userId);
+        noteRevision.setRevision(revision);
+        noteRevision.setTitle(version.title());
+        noteRevision.setContentHash(hash(content));
+        noteRevision.setContentSize(content.getBytes(StandardCharsets.UTF_8).length);
+        noteRevision.setCreatedAt(version.timestamp());
+        return noteRevision;
+    }
+
+    private static NoteRevisionDto toDto(NoteRevision revision, String content) {
+        return new NoteRevisionDto(revision.getNoteId(), revision.getRevision(), revision.getTitle(), content,
+                revision.getContentSize(), revision.getCreatedAt());
+    }
+
+    private static String contentOf(NoteVersion version) {
+        return version.content() == null ? "" : version.content();
+    }
+
+    private static String hash(String content) {
+        return ContentHashes.sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,41 +1,126 @@
 package stonenotes.service;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.cache.NoteChangeEvent;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.content.ChunkedContentStore;
+import stonenotes.content.ContentBlobStore;
+import stonenotes.content.StoredContent;
 import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.DuplicateGroupDto;
+import stonenotes.dto.NoteBatchResponseDto;
+import stonenotes.dto.NoteField;
 import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.NoteSuggestionDto;
+import stonenotes.dto.SimilarNoteDto;
+import stonenotes.dto.SparseNoteDto;
 import stonenotes.dto.UpdateNoteDto;
 import stonenotes.exception.NoteNotFoundException;
 import stonenotes.model.Note;
 import stonenotes.repository.NoteRepository;
+import stonenotes.revision.NoteVersion;
+import stonenotes.similar.MinHash;
+import stonenotes.similar.NoteSimilarityIndex;
+import stonenotes.stats.NoteStatsDelta;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.stats.Words;
+import stonenotes.suggest.NoteTitleIndex;
+import stonenotes.tag.NoteTagIndex;
+import stonenotes.tag.NoteTags;
+import stonenotes.tag.TagMatchMode;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class NoteService {
+    public static final int MAX_BATCH_IDS = 500;
+    // Keeps IN lists within a few padded parameter counts so their query plans stay cached
+    static final int BATCH_CHUNK_SIZE = 100;
+    public static final int MAX_SUGGESTIONS = 50;
+    public static final int MAX_SIMILAR_NOTES = 50;
+
     private final NoteRepository noteRepository;
+    private final NoteCacheEvictor noteCacheEvictor;
+    private final NoteInvalidationBus noteInvalidationBus;
+    private final NoteArchiveService noteArchiveService;
+    private final ChunkedContentStore contentStore;
+    private final ContentBlobStore contentBlobStore;
+    private final NoteRevisionService noteRevisionService;
+    private final NoteTagIndex noteTagIndex;
+    private final NoteTitleIndex noteTitleIndex;
+    private final NoteSimilarityIndex noteSimilarityIndex;
+    private final NoteStatsService noteStatsService;
+    private final TransactionTemplate transactionTemplate;
+
+    // What a committed write changed, to apply to the in-memory indexes and announce to other instances.
+    // tags, title and signature are null when the write left them as they were.
+    public record Change(NoteChangeEvent.Type type, Note note, List<String> tags, String title, int[] signature) {
+    }
 
-    public NoteService(NoteRepository noteRepository) {
+    // An update applied to a note but not yet flushed. previous is null when note history is disabled,
+    // replacedHash when the note did not point at a content blob before.
+    public record Update(NoteVersion previous, String title, String content, String replacedHash, Change change) {
+    }
+
+    public NoteService(NoteRepository noteRepository, NoteCacheEvictor noteCacheEvictor, NoteInvalidationBus noteInvalidationBus,
+                       NoteArchiveService noteArchiveService, ChunkedContentStore contentStore, ContentBlobStore contentBlobStore,
+                       NoteRevisionService noteRevisionService, NoteTagIndex noteTagIndex, NoteTitleIndex noteTitleIndex,
+                       NoteSimilarityIndex noteSimilarityIndex, NoteStatsService noteStatsService,
+                       PlatformTransactionManager transactionManager) {
         this.noteRepository = noteRepository;
+        this.noteCacheEvictor = noteCacheEvictor;
+        this.noteInvalidationBus = noteInvalidationBus;
+        this.noteArchiveService = noteArchiveService;
+        this.contentStore = contentStore;
+        this.contentBlobStore = contentBlobStore;
+        this.noteRevisionService = noteRevisionService;
+        this.noteTagIndex = noteTagIndex;
+        this.noteTitleIndex = noteTitleIndex;
+        this.noteSimilarityIndex = noteSimilarityIndex;
+        this.noteStatsService = noteStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    @Timed(value = "notes.service", extraTags = {"operation", "createNote"})
     public NoteResponseDto createNote(CreateNoteDto createNoteDto, String userId) {
         if(createNoteDto.getTitle() == null || createNoteDto.getTitle().trim().isEmpty()) {
             throw new IllegalArgumentException("Title cannot be blank");
         }
 
-        Note note = new Note();
-        note.setTitle(createNoteDto.getTitle());
-        note.setContent(createNoteDto.getContent());
-        note.setUserId(userId);
-
-        Note savedNote = noteRepository.save(note);
+        Note note = newNote(userId, createNoteDto.getTitle(), createNoteDto.getContent(), NoteTags.normalize(createNoteDto.getTags()));
 
-        return convertToResponseDto(savedNote);
+        // The user's statistics change in the same transaction as the note
+        Change change = transactionTemplate.execute(status -> {
+            NoteStatsDelta stats = new NoteStatsDelta();
+            Change created = created(noteRepository.save(note), stats);
+            noteStatsService.record(userId, stats);
+            return created;
+        });
+        publish(change);
+        return convertToResponseDto(change.note());
     }
 
+    @Timed(value = "notes.service", extraTags = {"operation", "findNotesByUserId"})
     public List<NoteResponseDto> findNotesByUserId(String userId) {
         List<Note> notes = noteRepository.findByUserIdOrderByCreatedAtDesc(userId);
         return notes.stream()
@@ -43,42 +128,357 @@ public class NoteService {
                 .collect(Collectors.toList());
     }
 
+    @Timed(value = "notes.service", extraTags = {"operation", "findNotesPageByUserId"})
     public Page<NoteResponseDto> findNotesByUserId(String userId, Pageable pageable) {
-        Page<Note> notePage = noteRepository.findByUserId(userId, pageable);
-        return notePage.map(this::convertToResponseDto);
+        return noteRepository.findByUserIdAcrossTiers(userId, pageable);
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "findSparseNotesPageByUserId"})
+    public Page<SparseNoteDto> findNotesByUserId(String userId, Set<NoteField> fields, Pageable pageable) {
+        return noteRepository.findByUserId(userId, fields, pageable);
+    }
+
+    // The tag index yields the ids of the requested page, and only those notes are read from the database.
+    // Ids follow creation order, so these listings are sorted by createdAt only.
+    @Timed(value = "notes.service", extraTags = {"operation", "findNotesByTags"})
+    public Page<NoteResponseDto> findNotesByTags(String userId, List<String> tags, TagMatchMode mode, Pageable pageable) {
+        List<String> normalized = NoteTags.normalize(tags);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("At least one tag must be given");
+        }
+        boolean ascending = false;
+        for (Sort.Order order : pageable.getSort()) {
+            if (!order.getProperty().equals("createdAt")) {
+                throw new IllegalArgumentException("Notes filtered by tag can only be sorted by createdAt");
+            }
+            ascending = order.isAscending();
+        }
+
+        NoteTagIndex.TagMatch match = noteTagIndex.find(userId, normalized, mode, pageable.getOffset(), pageable.getPageSize(), ascending);
+        List<NoteResponseDto> notes = match.noteIds().isEmpty()
+                ? List.of()
+                : findNotesByIdsAndUserId(match.noteIds(), userId).getNotes();
+        return new PageImpl<>(notes, pageable, match.total());
+    }
+
+    // Answered from the in-memory title index, without touching the database once the user's index is loaded
+    @Timed(value = "notes.service", extraTags = {"operation", "suggestNotes"})
+    public List<NoteSuggestionDto> suggestNotes(String userId, String prefix, int limit) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            throw new IllegalArgumentException("Prefix cannot be blank");
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return noteTitleIndex.suggest(userId, prefix, limit);
+    }
+
+    // Candidates come from the buckets the note shares in the similarity index, never from a scan of all notes
+    @Timed(value = "notes.service", extraTags = {"operation", "findSimilarNotes"})
+    public List<SimilarNoteDto> findSimilarNotes(Long noteId, String userId, int limit) {
+        if (limit < 1 || limit > MAX_SIMILAR_NOTES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SIMILAR_NOTES);
+        }
+        return noteSimilarityIndex.findSimilar(userId, noteId, limit)
+                .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "findDuplicateNotes"})
+    public List<DuplicateGroupDto> findDuplicateNotes(String userId) {
+        return noteSimilarityIndex.findDuplicates(userId);
     }
 
+    @Timed(value = "notes.service", extraTags = {"operation", "findNoteByIdAndUserId"})
     public NoteResponseDto findNoteByIdAndUserId(Long id, String userId) {
-        Note note = noteRepository.findByIdAndUserId(id, userId).orElseThrow(() -> new NoteNotFoundException("Note not found"));
+        return noteRepository.findByIdAndUserId(id, userId)
+                .map(this::convertToResponseDto)
+                .or(() -> noteArchiveService.findNote(id, userId))
+                .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+    }
 
-        return convertToResponseDto(note);
+    @Timed(value = "notes.service", extraTags = {"operation", "findNotesByIdsAndUserId"})
+    public NoteBatchResponseDto findNotesByIdsAndUserId(List<Long> ids, String userId) {
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids can be requested at once");
+        }
+
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, NoteResponseDto> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += BATCH_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + BATCH_CHUNK_SIZE, distinctIds.size()));
+            for (Note note : noteRepository.findByUserIdAndIdIn(userId, chunk)) {
+                found.put(note.getId(), convertToResponseDto(note));
+            }
+        }
+
+        if (found.size() < distinctIds.size()) {
+            List<Long> notHot = distinctIds.stream().filter(id -> !found.containsKey(id)).toList();
+            for (NoteResponseDto note : noteArchiveService.findNotes(userId, notHot)) {
+                found.put(note.getId(), note);
+            }
+        }
+
+        List<NoteResponseDto> notes = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            NoteResponseDto note = found.get(id);
+            if (note == null) {
+                missingIds.add(id);
+            } else {
+                notes.add(note);
+            }
+        }
+        return new NoteBatchResponseDto(notes, missingIds);
     }
 
+    @Timed(value = "notes.service", extraTags = {"operation", "findSparseNoteByIdAndUserId"})
+    public SparseNoteDto findNoteByIdAndUserId(Long id, String userId, Set<NoteField> fields) {
+        return noteRepository.findByIdAndUserId(id, userId, fields).orElseThrow(() -> new NoteNotFoundException("Note not found"));
+    }
+
+    // Large notes are streamed from the chunk store without being loaded into memory; the rest come from the entity
+    @Timed(value = "notes.service", extraTags = {"operation", "openNoteContent"})
+    public Resource openNoteContent(Long id, String userId) {
+        Note note = noteRepository.findByIdAndUserId(id, userId).orElse(null);
+        if (note != null && note.getContentRef() != null) {
+            return contentStore.open(note.getContentRef());
+        }
+        String content = note != null ? contentOf(note) : noteArchiveService.findNote(id, userId)
+                .orElseThrow(() -> new NoteNotFoundException("Note not found"))
+                .getContent();
+        return new ByteArrayResource(content == null ? new byte[0] : content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "updateNote"})
     public NoteResponseDto updateNote(Long noteId, UpdateNoteDto updateDto, String userId) {
         Note note = noteRepository.findByIdAndUserId(noteId, userId)
+                .or(() -> noteArchiveService.promote(noteId, userId))
+                .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+        List<String> tags = updateDto.getTags() == null ? null : NoteTags.normalize(updateDto.getTags());
+        return update(note, updateDto.getTitle(), updateDto.getContent(), tags);
+    }
+
+    // Writes the merged state of a collaborative editing session, which owns the content but not the title
+    @Timed(value = "notes.service", extraTags = {"operation", "updateNoteContent"})
+    public NoteResponseDto updateNoteContent(Long noteId, String content, String userId) {
+        Note note = noteRepository.findByIdAndUserId(noteId, userId)
+                .or(() -> noteArchiveService.promote(noteId, userId))
                 .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+        return update(note, note.getTitle(), content, null);
+    }
 
-        note.setTitle(updateDto.getTitle());
-        note.setContent(updateDto.getContent());
+    private NoteResponseDto update(Note note, String title, String content, List<String> tags) {
+        NoteStatsDelta stats = new NoteStatsDelta();
+        Update update = applyUpdate(note, title, content, tags, stats);
 
-        Note savedNote = noteRepository.save(note);
+        // The revision is written while the update holds the note's row lock, so concurrent updates number theirs in turn
+        Note savedNote = transactionTemplate.execute(status -> {
+            Note saved = noteRepository.save(note);
+            if (!stats.isEmpty()) {
+                noteStatsService.record(saved.getUserId(), stats);
+            }
+            if (update.previous() != null) {
+                noteRepository.flush();
+            }
+            completeUpdate(saved, update);
+            return saved;
+        });
+        publish(update.change());
         return convertToResponseDto(savedNote);
     }
 
+    @Timed(value = "notes.service", extraTags = {"operation", "deleteNote"})
     public void deleteNote(Long noteId, String userId) {
         Note note = noteRepository.findByIdAndUserId(noteId, userId)
+                .or(() -> noteArchiveService.promote(noteId, userId))
                 .orElseThrow(() -> new NoteNotFoundException("Note not found"));
 
-        noteRepository.delete(note);
+        NoteStatsDelta stats = new NoteStatsDelta();
+        Change change = trash(note, stats);
+        transactionTemplate.executeWithoutResult(status -> {
+            noteRepository.save(note);
+            noteStatsService.record(userId, stats);
+            releaseContent(note);
+        });
+        publish(change);
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "findDeletedNotesByUserId"})
+    public Page<NoteResponseDto> findDeletedNotesByUserId(String userId, Pageable pageable) {
+        Page<Note> notePage = noteRepository.findDeletedByUserId(userId, pageable);
+        return notePage.map(this::convertToResponseDto);
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "restoreNote"})
+    public NoteResponseDto restoreNote(Long noteId, String userId) {
+        Note note = transactionTemplate.execute(status -> {
+            if (noteRepository.restore(noteId, userId) == 0) {
+                throw new NoteNotFoundException("Note not found");
+            }
+            // Drop any copy cached while the note was in the trash
+            noteCacheEvictor.evict(noteId);
+            Note restored = noteRepository.findByIdAndUserId(noteId, userId)
+                    .orElseThrow(() -> new NoteNotFoundException("Note not found"));
+            noteStatsService.record(userId, new NoteStatsDelta().added(restored.getCreatedAt(), wordCount(restored)));
+            if (restored.getContentHash() != null) {
+                contentBlobStore.retain(restored.getContentHash());
+            }
+            return restored;
+        });
+        if (note.getTags() != null && !note.getTags().isEmpty()) {
+            noteTagIndex.put(userId, noteId, note.getTags());
+        }
+        noteTitleIndex.put(userId, noteId, note.getTitle());
+        noteSimilarityIndex.put(userId, noteId, note.getContentSignature());
+
+        noteInvalidationBus.publish(NoteChangeEvent.Type.UPDATED, noteId, userId);
+        return convertToResponseDto(note);
+    }
+
+    // The write helpers below are shared with NoteOperationsService, which applies many of them in one transaction.
+    // They change the entity and the statistics delta; saving, recording the delta and publishing stay with the caller.
+
+    public Note newNote(String userId, String title, String content, List<String> tags) {
+        Note note = new Note();
+        note.setTitle(title);
+        applyContent(note, content);
+        note.setTags(tags == null ? List.of() : tags);
+        note.setUserId(userId);
+        return note;
+    }
+
+    public Change created(Note savedNote, NoteStatsDelta stats) {
+        stats.added(savedNote.getCreatedAt(), wordCount(savedNote));
+        List<String> tags = savedNote.getTags() == null || savedNote.getTags().isEmpty() ? null : savedNote.getTags();
+        return new Change(NoteChangeEvent.Type.CREATED, savedNote, tags, savedNote.getTitle(), savedNote.getContentSignature());
+    }
+
+    // Tags are left as they are when null
+    public Update applyUpdate(Note note, String title, String content, List<String> tags, NoteStatsDelta stats) {
+        NoteVersion previous = captureVersion(note);
+        boolean retagged = tags != null && !tags.equals(note.getTags());
+        boolean retitled = !Objects.equals(title, note.getTitle());
+        int[] previousSignature = note.getContentSignature();
+        long previousWords = wordCount(note);
+
+        note.setTitle(title);
+        String replacedHash = applyContent(note, content);
+        if (retagged) {
+            note.setTags(tags);
+        }
+        stats.reworded(previousWords, note.getWordCount());
+        boolean resigned = !Arrays.equals(previousSignature, note.getContentSignature());
+        Change change = new Change(NoteChangeEvent.Type.UPDATED, note, retagged ? tags : null, retitled ? title : null,
+                resigned ? note.getContentSignature() : null);
+        return new Update(previous, title, content, replacedHash, change);
+    }
+
+    public Change trash(Note note, NoteStatsDelta stats) {
+        stats.removed(note.getCreatedAt(), wordCount(note));
+        note.setDeletedAt(Instant.now());
+        return new Change(NoteChangeEvent.Type.DELETED, note, null, null, null);
+    }
+
+    // Runs in the write transaction, after the update is flushed so the saved note carries its new updated_at.
+    // Releasing the replaced blob here means a failed write keeps its reference.
+    public void completeUpdate(Note savedNote, Update update) {
+        if (update.replacedHash() != null) {
+            contentBlobStore.release(update.replacedHash());
+        }
+        if (update.previous() != null) {
+            noteRevisionService.record(savedNote.getId(), savedNote.getUserId(), update.previous(),
+                    new NoteVersion(update.title(), update.content(), savedNote.getUpdatedAt()));
+        }
+    }
+
+    // Runs after the write has committed
+    public void publish(Change change) {
+        Long noteId = change.note().getId();
+        String userId = change.note().getUserId();
+        if (change.type() == NoteChangeEvent.Type.DELETED) {
+            noteTagIndex.remove(userId, noteId);
+            noteTitleIndex.remove(userId, noteId);
+            noteSimilarityIndex.remove(userId, noteId);
+        } else {
+            if (change.tags() != null) {
+                noteTagIndex.put(userId, noteId, change.tags());
+            }
+            if (change.title() != null) {
+                noteTitleIndex.put(userId, noteId, change.title());
+            }
+            if (change.signature() != null) {
+                noteSimilarityIndex.put(userId, noteId, change.signature());
+            }
+        }
+        if (change.type() != NoteChangeEvent.Type.CREATED) {
+            noteCacheEvictor.evict(noteId);
+        }
+        noteInvalidationBus.publish(change.type(), noteId, userId);
+    }
+
+    // Bodies above the inline threshold go to the chunk store and the entity keeps only their reference.
+    // With deduplication enabled, other bodies are stored once per distinct content in content_blobs.
+    // Every body gets a MinHash signature for the similarity index and a word count, wherever it is stored.
+    // Returns the hash of the blob the note pointed at before, for the write transaction to release.
+    private String applyContent(Note note, String content) {
+        String previousHash = note.getContentHash();
+        note.setContent(null);
+        note.setContentRef(null);
+        note.setContentSize(null);
+        note.setContentHash(null);
+        note.setContentSignature(MinHash.signature(content));
+        note.setWordCount(Words.count(content));
+        if (contentStore.isLarge(content)) {
+            StoredContent stored = contentStore.write(content);
+            note.setContentRef(stored.ref());
+            note.setContentSize(stored.size());
+        } else if (content != null && contentBlobStore.isEnabled()) {
+            note.setContentHash(contentBlobStore.acquire(content));
+        } else {
+            note.setContent(content);
+        }
+        return previousHash;
+    }
+
+    // Runs in the transaction that moves the note to the trash
+    public void releaseContent(Note note) {
+        if (note.getContentHash() != null) {
+            contentBlobStore.release(note.getContentHash());
+        }
+    }
+
+    // The version a note is about to be updated from, or null when note history is disabled
+    private NoteVersion captureVersion(Note note) {
+        if (!noteRevisionService.isEnabled()) {
+            return null;
+        }
+        return new NoteVersion(note.getTitle(), readContent(note), note.getUpdatedAt());
+    }
+
+    // The full body wherever it is stored, loading large ones from the chunk store into memory
+    public String readContent(Note note) {
+        return note.getContentRef() != null ? contentStore.read(note.getContentRef()) : contentOf(note);
+    }
+
+    // Notes written before word counts existed are counted from their content
+    public long wordCount(Note note) {
+        return note.getWordCount() != null ? note.getWordCount() : Words.count(readContent(note));
+    }
+
+    private String contentOf(Note note) {
+        return note.getContentHash() != null ? contentBlobStore.resolve(note.getContentHash()) : note.getContent();
     }
 
-    private NoteResponseDto convertToResponseDto(Note note) {
+    public NoteResponseDto convertToResponseDto(Note note) {
         NoteResponseDto dto = new NoteResponseDto();
         dto.setId(note.getId());
         dto.setTitle(note.getTitle());
-        dto.setContent(note.getContent());
+        dto.setContent(contentOf(note));
+        dto.setTags(note.getTags());
         dto.setCreatedAt(note.getCreatedAt());
         dto.setUpdatedAt(note.getUpdatedAt());
+        dto.setContentSize(note.getContentSize());
+        dto.setDeletedAt(note.getDeletedAt());
 
         return dto;
     }
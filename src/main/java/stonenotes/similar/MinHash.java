@@ -0,0 +1,122 @@
+package stonenotes.similar;
+
+import java.util.Arrays;
+
+// MinHash signatures of note content over shingles of three consecutive words, lowercased.
+// Two signatures agree in each position with probability equal to the Jaccard similarity of the shingle sets,
+// so the fraction of equal positions estimates how much of the text two notes share.
+// Signatures are stored with the notes, so the hash functions below must not change.
+public final class MinHash {
+    public static final int SIGNATURE_LENGTH = 64;
+    // 16 bands of 4 rows: pairs above ~0.5 similarity usually share a band, pairs at 0.8 almost always do
+    static final int BANDS = 16;
+    static final int ROWS = SIGNATURE_LENGTH / BANDS;
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long[] SEEDS = new long[SIGNATURE_LENGTH];
+
+    static {
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            SEEDS[i] = mix(0x9e3779b97f4a7c15L * (i + 1));
+        }
+    }
+
+    private MinHash() {
+    }
+
+    // Empty for content without any words, which then matches nothing
+    public static int[] signature(String content) {
+        if (content == null) {
+            return new int[0];
+        }
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        long[] window = new long[SHINGLE_SIZE];
+        int words = 0;
+        long word = FNV_OFFSET;
+        boolean inWord = false;
+        // Words are hashed as they are scanned, so large bodies are not split into strings
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                word = (word ^ Character.toLowerCase(codePoint)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                words = addWord(signature, window, words, word);
+                word = FNV_OFFSET;
+                inWord = false;
+            }
+        }
+        if (inWord) {
+            words = addWord(signature, window, words, word);
+        }
+        if (words == 0) {
+            return new int[0];
+        }
+        if (words < SHINGLE_SIZE) {
+            // Too short for a full shingle; the whole text is the only one
+            addShingle(signature, shingle(window, words));
+        }
+        return signature;
+    }
+
+    // Estimated Jaccard similarity; 0 when either signature is empty
+    public static double similarity(int[] a, int[] b) {
+        if (a.length != SIGNATURE_LENGTH || b.length != SIGNATURE_LENGTH) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    // Key of the LSH bucket holding signatures whose rows in this band are equal
+    static long bandKey(int[] signature, int band) {
+        int hash = 1;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            hash = 31 * hash + signature[i];
+        }
+        return ((long) band << 32) | (hash & 0xffffffffL);
+    }
+
+    private static int addWord(int[] signature, long[] window, int words, long word) {
+        window[words % SHINGLE_SIZE] = word;
+        words++;
+        if (words >= SHINGLE_SIZE) {
+            addShingle(signature, shingle(window, words));
+        }
+        return words;
+    }
+
+    // Hash of the last (up to) SHINGLE_SIZE words in order
+    private static long shingle(long[] window, int words) {
+        long hash = FNV_OFFSET;
+        for (int i = Math.max(0, words - SHINGLE_SIZE); i < words; i++) {
+            hash = (hash ^ window[i % SHINGLE_SIZE]) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void addShingle(int[] signature, long shingle) {
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            int value = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+            if (value < signature[i]) {
+                signature[i] = value;
+            }
+        }
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
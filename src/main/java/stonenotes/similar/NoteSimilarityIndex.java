@@ -0,0 +1,205 @@
+package stonenotes.similar;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.cache.UserIndexCache;
+import stonenotes.dto.DuplicateGroupDto;
+import stonenotes.dto.SimilarNoteDto;
+import stonenotes.model.SignatureConverter;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Per-user locality-sensitive hashing index over the MinHash signatures of note content, covering both tiers.
+// Each signature is split into bands, and notes whose rows agree in a whole band share that band's bucket.
+// Only notes sharing a bucket are compared, so a lookup costs the size of a few buckets rather than the collection.
+@Component
+public class NoteSimilarityIndex {
+    static final String LOAD_SQL = "SELECT id, content_signature FROM notes WHERE user_id = ? AND deleted_at IS NULL"
+            + " UNION ALL SELECT id, content_signature FROM archived_notes WHERE user_id = ?";
+
+    private static final int[] UNSIGNED = new int[0];
+
+    private static final class UserSignatures {
+        // Every note of the user; those without a signature yet map to an empty one and sit in no bucket
+        private final Map<Long, int[]> signatures = new HashMap<>();
+        private final Map<Long, List<Long>> buckets = new HashMap<>();
+
+        synchronized void add(long noteId, int[] signature) {
+            int[] stored = signature == null ? UNSIGNED : signature;
+            signatures.put(noteId, stored);
+            if (stored.length == MinHash.SIGNATURE_LENGTH) {
+                for (int band = 0; band < MinHash.BANDS; band++) {
+                    buckets.computeIfAbsent(MinHash.bandKey(stored, band), key -> new ArrayList<>(1)).add(noteId);
+                }
+            }
+        }
+
+        synchronized void put(long noteId, int[] signature) {
+            remove(noteId);
+            add(noteId, signature);
+        }
+
+        synchronized void remove(long noteId) {
+            int[] signature = signatures.remove(noteId);
+            if (signature == null || signature.length != MinHash.SIGNATURE_LENGTH) {
+                return;
+            }
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                long key = MinHash.bandKey(signature, band);
+                List<Long> bucket = buckets.get(key);
+                bucket.remove(Long.valueOf(noteId));
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+
+        // Empty when the note is not in this user's index
+        synchronized Optional<List<SimilarNoteDto>> similar(long noteId, double threshold, int limit) {
+            int[] signature = signatures.get(noteId);
+            if (signature == null) {
+                return Optional.empty();
+            }
+            if (signature.length != MinHash.SIGNATURE_LENGTH) {
+                return Optional.of(List.of());
+            }
+            Set<Long> candidates = new HashSet<>();
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                candidates.addAll(buckets.get(MinHash.bandKey(signature, band)));
+            }
+            candidates.remove(noteId);
+
+            List<SimilarNoteDto> similar = new ArrayList<>();
+            for (Long candidate : candidates) {
+                double similarity = MinHash.similarity(signature, signatures.get(candidate));
+                if (similarity >= threshold) {
+                    similar.add(new SimilarNoteDto(candidate, similarity));
+                }
+            }
+            similar.sort(Comparator.comparingDouble(SimilarNoteDto::getSimilarity).reversed()
+                    .thenComparing(SimilarNoteDto::getId));
+            return Optional.of(similar.size() > limit ? List.copyOf(similar.subList(0, limit)) : similar);
+        }
+
+        // Groups notes connected by pairs at or above the threshold. Candidate pairs come from shared buckets only,
+        // and a note is compared with the others in a bucket until it joins one of their groups.
+        synchronized List<DuplicateGroupDto> duplicates(double threshold) {
+            Map<Long, Long> parents = new HashMap<>();
+            for (List<Long> bucket : buckets.values()) {
+                for (int i = 1; i < bucket.size(); i++) {
+                    Long noteId = bucket.get(i);
+                    for (int j = 0; j < i; j++) {
+                        Long other = bucket.get(j);
+                        if (root(parents, noteId).equals(root(parents, other))) {
+                            break;
+                        }
+                        if (MinHash.similarity(signatures.get(noteId), signatures.get(other)) >= threshold) {
+                            parents.put(root(parents, noteId), root(parents, other));
+                            break;
+                        }
+                    }
+                }
+            }
+
+            Map<Long, List<Long>> groups = new HashMap<>();
+            for (Long noteId : parents.keySet()) {
+                groups.computeIfAbsent(root(parents, noteId), root -> new ArrayList<>()).add(noteId);
+            }
+            List<DuplicateGroupDto> duplicates = new ArrayList<>(groups.size());
+            for (Map.Entry<Long, List<Long>> group : groups.entrySet()) {
+                List<Long> noteIds = group.getValue();
+                // Roots only appear in the parents map when a note was compared against them
+                if (!noteIds.contains(group.getKey())) {
+                    noteIds.add(group.getKey());
+                }
+                Collections.sort(noteIds);
+                duplicates.add(new DuplicateGroupDto(noteIds));
+            }
+            duplicates.sort(Comparator.comparingInt((DuplicateGroupDto group) -> group.getNoteIds().size()).reversed()
+                    .thenComparing(group -> group.getNoteIds().get(0)));
+            return duplicates;
+        }
+
+        synchronized int size() {
+            return signatures.size();
+        }
+
+        private static Long root(Map<Long, Long> parents, Long noteId) {
+            Long root = noteId;
+            Long parent;
+            while ((parent = parents.get(root)) != null) {
+                root = parent;
+            }
+            // Path compression keeps later lookups short
+            Long current = noteId;
+            while (!current.equals(root)) {
+                Long next = parents.put(current, root);
+                current = next;
+            }
+            return root;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimilarityProperties properties;
+    private final UserIndexCache<UserSignatures> users;
+
+    public NoteSimilarityIndex(JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus, SimilarityProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(jdbcTemplate, noteInvalidationBus, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    NoteSimilarityIndex(JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus, SimilarityProperties properties,
+                        MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.users = new UserIndexCache<>("notes.similar", "similarity", this::load, noteInvalidationBus, meterRegistry, clock);
+        Gauge.builder("notes.similar.notes", users, loaded -> loaded.sum(UserSignatures::size))
+                .description("Notes held by the similarity indexes of all loaded users")
+                .register(meterRegistry);
+    }
+
+    // Notes at or above the similarity threshold, most similar first; empty when the user has no such note
+    public Optional<List<SimilarNoteDto>> findSimilar(String userId, Long noteId, int limit) {
+        return users.get(userId).similar(noteId, properties.getThreshold(), limit);
+    }
+
+    // Groups of notes that are near-duplicates of each other, largest first
+    public List<DuplicateGroupDto> findDuplicates(String userId) {
+        return users.get(userId).duplicates(properties.getThreshold());
+    }
+
+    public void put(String userId, Long noteId, int[] signature) {
+        users.ifLoaded(userId, index -> index.put(noteId, signature));
+    }
+
+    public void remove(String userId, Long noteId) {
+        users.ifLoaded(userId, index -> index.remove(noteId));
+    }
+
+    @Scheduled(fixedDelayString = "${notes.similar.sweep-interval:PT1M}")
+    public void evictIdle() {
+        users.evictIdle(properties.getIdleTimeout(), properties.getMaxUsers());
+    }
+
+    private UserSignatures load(String userId) {
+        UserSignatures index = new UserSignatures();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            index.add(rs.getLong(1), SignatureConverter.fromBytes(rs.getBytes(2)));
+        }, userId, userId);
+        return index;
+    }
+}
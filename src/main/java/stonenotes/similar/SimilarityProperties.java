@@ -0,0 +1,25 @@
+package stonenotes.similar;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.similar")
+public class SimilarityProperties {
+    // Estimated share of three-word phrases two notes must have in common to be reported as near-duplicates
+    private double threshold = 0.8;
+
+    // Users whose similarity index is kept in memory; the least recently used are dropped beyond this
+    private int maxUsers = 10000;
+
+    // An index not queried for this long is dropped and rebuilt from the database on the next request
+    private Duration idleTimeout = Duration.ofMinutes(30);
+
+    // Notes written before signatures existed are signed in batches of this size by NoteSignatureBackfill
+    private int backfillBatchSize = 200;
+    private int backfillMaxBatchesPerRun = 50;
+}
@@ -0,0 +1,50 @@
+package stonenotes.stats;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+// Changes one transaction makes to a user's statistics, applied by NoteStatsService with one UPDATE
+// of the totals row and one per creation day touched. A note counts towards the day it was created on
+// for as long as it exists, so removing it takes it off that day and restoring it puts it back.
+public class NoteStatsDelta {
+    private long notes;
+    private long words;
+    // Creation times of added (+1) and removed (-1) notes, grouped into days when the delta is applied
+    private final Map<Instant, Long> created = new HashMap<>();
+
+    public NoteStatsDelta added(Instant createdAt, long words) {
+        notes++;
+        this.words += words;
+        created.merge(createdAt, 1L, Long::sum);
+        return this;
+    }
+
+    public NoteStatsDelta removed(Instant createdAt, long words) {
+        notes--;
+        this.words -= words;
+        created.merge(createdAt, -1L, Long::sum);
+        return this;
+    }
+
+    public NoteStatsDelta reworded(long previousWords, long words) {
+        this.words += words - previousWords;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return notes == 0 && words == 0 && created.isEmpty();
+    }
+
+    long notes() {
+        return notes;
+    }
+
+    long words() {
+        return words;
+    }
+
+    Map<Instant, Long> created() {
+        return created;
+    }
+}
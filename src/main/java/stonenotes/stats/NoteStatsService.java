@@ -0,0 +1,134 @@
+package stonenotes.stats;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import stonenotes.common.JdbcInserts;
+import stonenotes.dto.DailyNoteCountDto;
+import stonenotes.dto.NoteStatsDto;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Per-user note statistics kept as a totals row in note_stats and creation-day buckets in note_daily_stats.
+// Writers apply their changes in the transaction of the note writes, so reading the statistics costs two
+// indexed reads however many notes the user has.
+@Service
+public class NoteStatsService {
+    public static final int MAX_DAYS = 366;
+    static final ZoneOffset DAY_ZONE = ZoneOffset.UTC;
+
+    static final String ADD_TOTALS_SQL =
+            "UPDATE note_stats SET note_count = note_count + ?, word_count = word_count + ? WHERE user_id = ?";
+    static final String INSERT_TOTALS_SQL = "INSERT INTO note_stats (user_id, note_count, word_count) VALUES (?, 0, 0)";
+    static final String ADD_DAY_SQL =
+            "UPDATE note_daily_stats SET created_count = created_count + ? WHERE user_id = ? AND created_on = ?";
+    static final String INSERT_DAY_SQL = "INSERT INTO note_daily_stats (user_id, created_on, created_count) VALUES (?, ?, 0)";
+    static final String TOTALS_SQL = "SELECT note_count, word_count FROM note_stats WHERE user_id = ?";
+    static final String DAYS_SQL = "SELECT created_on, created_count FROM note_daily_stats WHERE user_id = ? AND created_on >= ?";
+
+    static final String LOCK_TOTALS_SQL = "SELECT note_count FROM note_stats WHERE user_id = ? FOR UPDATE";
+    static final String SET_TOTALS_SQL = "UPDATE note_stats SET note_count = ?, word_count = ? WHERE user_id = ?";
+    static final String DELETE_DAYS_SQL = "DELETE FROM note_daily_stats WHERE user_id = ?";
+    static final String SET_DAY_SQL = "INSERT INTO note_daily_stats (user_id, created_on, created_count) VALUES (?, ?, ?)";
+    static final String COUNT_SQL = "SELECT created_at, word_count FROM notes WHERE user_id = ? AND deleted_at IS NULL"
+            + " UNION ALL SELECT created_at, word_count FROM archived_notes WHERE user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    public NoteStatsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this(jdbcTemplate, transactionManager, Clock.systemUTC());
+    }
+
+    NoteStatsService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    @Timed(value = "notes.service", extraTags = {"operation", "getNoteStats"})
+    public NoteStatsDto getStats(String userId, int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDate today = LocalDate.ofInstant(clock.instant(), DAY_ZONE);
+        LocalDate from = today.minusDays(days - 1);
+
+        NoteStatsDto stats = jdbcTemplate.query(TOTALS_SQL,
+                rs -> rs.next() ? new NoteStatsDto(rs.getLong(1), rs.getLong(2), null) : new NoteStatsDto(0, 0, null), userId);
+        Map<LocalDate, Long> created = new HashMap<>();
+        jdbcTemplate.query(DAYS_SQL, rs -> {
+            created.put(rs.getObject(1, LocalDate.class), rs.getLong(2));
+        }, userId, from);
+        List<DailyNoteCountDto> createdPerDay = new ArrayList<>(days);
+        for (LocalDate day = from; !day.isAfter(today); day = day.plusDays(1)) {
+            createdPerDay.add(new DailyNoteCountDto(day, created.getOrDefault(day, 0L)));
+        }
+        stats.setCreatedPerDay(createdPerDay);
+        return stats;
+    }
+
+    // Applies the delta in the caller's transaction, so the statistics commit or roll back with the note writes.
+    // The totals row is always updated first and days in order, so concurrent writers lock rows in the same order.
+    public void record(String userId, NoteStatsDelta delta) {
+        if (delta.notes() != 0 || delta.words() != 0) {
+            if (jdbcTemplate.update(ADD_TOTALS_SQL, delta.notes(), delta.words(), userId) == 0) {
+                createRow(INSERT_TOTALS_SQL, userId);
+                jdbcTemplate.update(ADD_TOTALS_SQL, delta.notes(), delta.words(), userId);
+            }
+        }
+        Map<LocalDate, Long> days = new TreeMap<>();
+        delta.created().forEach((createdAt, count) -> days.merge(LocalDate.ofInstant(createdAt, DAY_ZONE), count, Long::sum));
+        days.forEach((day, count) -> {
+            if (count != 0 && jdbcTemplate.update(ADD_DAY_SQL, count, userId, day) == 0) {
+                createRow(INSERT_DAY_SQL, userId, day);
+                jdbcTemplate.update(ADD_DAY_SQL, count, userId, day);
+            }
+        });
+    }
+
+    // Recounts the user's statistics from their notes. The totals row stays locked until the new counts commit,
+    // so writers that commit before the recount reads are counted by it and the rest apply their deltas after.
+    public void rebuild(String userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.queryForList(LOCK_TOTALS_SQL, Long.class, userId).isEmpty()) {
+                createRow(INSERT_TOTALS_SQL, userId);
+                jdbcTemplate.queryForList(LOCK_TOTALS_SQL, Long.class, userId);
+            }
+            long[] totals = new long[2];
+            Map<LocalDate, Long> days = new TreeMap<>();
+            jdbcTemplate.query(COUNT_SQL, rs -> {
+                totals[0]++;
+                totals[1] += rs.getLong(2);
+                Instant createdAt = rs.getObject(1, OffsetDateTime.class).toInstant();
+                days.merge(LocalDate.ofInstant(createdAt, DAY_ZONE), 1L, Long::sum);
+            }, userId, userId);
+
+            jdbcTemplate.update(SET_TOTALS_SQL, totals[0], totals[1], userId);
+            jdbcTemplate.update(DELETE_DAYS_SQL, userId);
+            List<Map.Entry<LocalDate, Long>> rows = new ArrayList<>(days.entrySet());
+            jdbcTemplate.batchUpdate(SET_DAY_SQL, rows, 500, (ps, day) -> {
+                ps.setString(1, userId);
+                ps.setObject(2, day.getKey());
+                ps.setLong(3, day.getValue());
+            });
+        });
+    }
+
+    // Starts a row at zero in the caller's transaction; when another writer created it first, the row is used as is
+    private void createRow(String sql, Object... args) {
+        JdbcInserts.insertIfAbsent(jdbcTemplate, sql, args);
+    }
+}
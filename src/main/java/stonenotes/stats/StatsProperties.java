@@ -0,0 +1,22 @@
+package stonenotes.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.stats")
+public class StatsProperties {
+    // Recount every user's statistics once, shortly after startup. Note writes keep them current and the first
+    // startup against a database without statistics recounts them regardless, so this is only needed to repair them
+    private boolean rebuildEnabled = false;
+
+    // Instances started with the rebuild enabled within this period of each other run it once between them
+    private Duration rebuildClaimPeriod = Duration.ofHours(12);
+
+    // Notes written before word counts existed are counted in batches of this size by NoteStatsRebuilder
+    private int backfillBatchSize = 200;
+}
@@ -0,0 +1,29 @@
+package stonenotes.stats;
+
+// Word counts for note statistics. A word is a run of letters and digits, the same words MinHash shingles.
+public final class Words {
+
+    private Words() {
+    }
+
+    public static long count(String content) {
+        if (content == null) {
+            return 0;
+        }
+        long words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (!inWord) {
+                    words++;
+                    inWord = true;
+                }
+            } else {
+                inWord = false;
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,128 @@
+package stonenotes.suggest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.cache.UserIndexCache;
+import stonenotes.dto.NoteSuggestionDto;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+// Per-user array of note titles sorted case-insensitively, covering both the hot and the archived tier.
+// A prefix lookup is a binary search to the first candidate followed by a scan of at most limit entries.
+@Component
+public class NoteTitleIndex {
+    static final String LOAD_SQL = "SELECT id, title FROM notes WHERE user_id = ? AND deleted_at IS NULL"
+            + " UNION ALL SELECT id, title FROM archived_notes WHERE user_id = ?";
+
+    private record Entry(String key, long noteId, String title) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparing(Entry::key).thenComparingLong(Entry::noteId);
+
+    private static final class UserTitles {
+        private Entry[] entries;
+        private int size;
+
+        UserTitles(List<Entry> loaded) {
+            entries = loaded.toArray(new Entry[0]);
+            size = entries.length;
+            Arrays.sort(entries, ORDER);
+        }
+
+        // Keeps the array sorted by shifting the tail, which is cheap at the size of one user's notes
+        synchronized void put(long noteId, String title) {
+            remove(noteId);
+            Entry entry = new Entry(key(title), noteId, title);
+            int at = -Arrays.binarySearch(entries, 0, size, entry, ORDER) - 1;
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(16, size * 2));
+            }
+            System.arraycopy(entries, at, entries, at + 1, size - at);
+            entries[at] = entry;
+            size++;
+        }
+
+        synchronized void remove(long noteId) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i].noteId() == noteId) {
+                    System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+                    entries[--size] = null;
+                    return;
+                }
+            }
+        }
+
+        synchronized List<NoteSuggestionDto> suggest(String prefix, int limit) {
+            // Sorts before every entry whose key starts with the prefix
+            int from = -Arrays.binarySearch(entries, 0, size, new Entry(prefix, Long.MIN_VALUE, null), ORDER) - 1;
+            List<NoteSuggestionDto> suggestions = new ArrayList<>(limit);
+            for (int i = from; i < size && suggestions.size() < limit && entries[i].key().startsWith(prefix); i++) {
+                suggestions.add(new NoteSuggestionDto(entries[i].noteId(), entries[i].title()));
+            }
+            return suggestions;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TitleIndexProperties properties;
+    private final UserIndexCache<UserTitles> users;
+
+    public NoteTitleIndex(JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus, TitleIndexProperties properties,
+                          MeterRegistry meterRegistry) {
+        this(jdbcTemplate, noteInvalidationBus, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    NoteTitleIndex(JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus, TitleIndexProperties properties,
+                   MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.users = new UserIndexCache<>("notes.suggest", "title", this::load, noteInvalidationBus, meterRegistry, clock);
+        Gauge.builder("notes.suggest.titles", users, loaded -> loaded.sum(UserTitles::size))
+                .description("Titles held by the indexes of all loaded users")
+                .register(meterRegistry);
+    }
+
+    // Notes whose title starts with the prefix, ignoring case, in title order
+    public List<NoteSuggestionDto> suggest(String userId, String prefix, int limit) {
+        return users.get(userId).suggest(key(prefix), limit);
+    }
+
+    public void put(String userId, Long noteId, String title) {
+        users.ifLoaded(userId, index -> index.put(noteId, title));
+    }
+
+    public void remove(String userId, Long noteId) {
+        users.ifLoaded(userId, index -> index.remove(noteId));
+    }
+
+    @Scheduled(fixedDelayString = "${notes.suggest.sweep-interval:PT1M}")
+    public void evictIdle() {
+        users.evictIdle(properties.getIdleTimeout(), properties.getMaxUsers());
+    }
+
+    private UserTitles load(String userId) {
+        List<Entry> entries = new ArrayList<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            String title = rs.getString(2);
+            entries.add(new Entry(key(title), rs.getLong(1), title));
+        }, userId, userId);
+        return new UserTitles(entries);
+    }
+
+    private static String key(String title) {
+        return title == null ? "" : title.stripLeading().toLowerCase(Locale.ROOT);
+    }
+}
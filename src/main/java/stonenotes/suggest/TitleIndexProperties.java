@@ -0,0 +1,18 @@
+package stonenotes.suggest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.suggest")
+public class TitleIndexProperties {
+    // Users whose title index is kept in memory; the least recently used are dropped beyond this
+    private int maxUsers = 10000;
+
+    // An index not queried for this long is dropped and rebuilt from the database on the next suggestion request
+    private Duration idleTimeout = Duration.ofMinutes(30);
+}
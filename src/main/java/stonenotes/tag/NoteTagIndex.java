@@ -0,0 +1,146 @@
+package stonenotes.tag;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.cache.UserIndexCache;
+import stonenotes.model.TagListConverter;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Per-user map of tag -> compressed bitmap of note ids, covering both the hot and the archived tier.
+@Component
+public class NoteTagIndex {
+    static final String LOAD_SQL = "SELECT id, tags FROM notes WHERE user_id = ? AND deleted_at IS NULL AND tags IS NOT NULL"
+            + " UNION ALL SELECT id, tags FROM archived_notes WHERE user_id = ? AND tags IS NOT NULL";
+
+    public record TagMatch(long total, List<Long> noteIds) {
+    }
+
+    private static final class UserTags {
+        private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+
+        synchronized void add(int noteId, List<String> tags) {
+            for (String tag : tags) {
+                bitmaps.computeIfAbsent(tag, t -> new RoaringBitmap()).add(noteId);
+            }
+        }
+
+        synchronized void put(int noteId, List<String> tags) {
+            remove(noteId);
+            add(noteId, tags);
+        }
+
+        synchronized void remove(int noteId) {
+            Iterator<RoaringBitmap> iterator = bitmaps.values().iterator();
+            while (iterator.hasNext()) {
+                RoaringBitmap bitmap = iterator.next();
+                if (bitmap.checkedRemove(noteId) && bitmap.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        // Returns a new bitmap, so callers can page through it without holding the lock
+        synchronized RoaringBitmap match(List<String> tags, TagMatchMode mode) {
+            List<RoaringBitmap> selected = new ArrayList<>(tags.size());
+            for (String tag : tags) {
+                RoaringBitmap bitmap = bitmaps.get(tag);
+                if (bitmap != null) {
+                    selected.add(bitmap);
+                } else if (mode == TagMatchMode.AND) {
+                    return new RoaringBitmap();
+                }
+            }
+            if (selected.isEmpty()) {
+                return new RoaringBitmap();
+            }
+            RoaringBitmap[] operands = selected.toArray(new RoaringBitmap[0]);
+            return mode == TagMatchMode.AND ? FastAggregation.and(operands) : FastAggregation.or(operands);
+        }
+
+        synchronized void optimize() {
+            bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        synchronized long sizeInBytes() {
+            long bytes = 0;
+            for (RoaringBitmap bitmap : bitmaps.values()) {
+                bytes += bitmap.getLongSizeInBytes();
+            }
+            return bytes;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TagIndexProperties properties;
+    private final UserIndexCache<UserTags> users;
+
+    public NoteTagIndex(JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus, TagIndexProperties properties,
+                        MeterRegistry meterRegistry) {
+        this(jdbcTemplate, noteInvalidationBus, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    NoteTagIndex(JdbcTemplate jdbcTemplate, NoteInvalidationBus noteInvalidationBus, TagIndexProperties properties,
+                 MeterRegistry meterRegistry, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.users = new UserIndexCache<>("notes.tags", "tag", this::load, noteInvalidationBus, meterRegistry, clock);
+        Gauge.builder("notes.tags.bytes", users, loaded -> loaded.sum(UserTags::sizeInBytes))
+                .description("Memory held by the tag bitmaps of all loaded users")
+                .register(meterRegistry);
+    }
+
+    // Notes carrying all (AND) or any (OR) of the tags, ordered by id, which follows creation order.
+    // Only the ids of the requested page are materialized.
+    public TagMatch find(String userId, List<String> tags, TagMatchMode mode, long offset, int limit, boolean ascending) {
+        RoaringBitmap matches = users.get(userId).match(tags, mode);
+        long total = matches.getLongCardinality();
+        List<Long> noteIds = new ArrayList<>(limit);
+        for (long i = offset; i < Math.min(total, offset + limit); i++) {
+            long rank = ascending ? i : total - 1 - i;
+            noteIds.add(Integer.toUnsignedLong(matches.select((int) rank)));
+        }
+        return new TagMatch(total, noteIds);
+    }
+
+    public void put(String userId, Long noteId, List<String> tags) {
+        users.ifLoaded(userId, index -> index.put(bitmapId(noteId), tags));
+    }
+
+    public void remove(String userId, Long noteId) {
+        users.ifLoaded(userId, index -> index.remove(bitmapId(noteId)));
+    }
+
+    @Scheduled(fixedDelayString = "${notes.tags.sweep-interval:PT1M}")
+    public void evictIdle() {
+        users.evictIdle(properties.getIdleTimeout(), properties.getMaxUsers());
+    }
+
+    private UserTags load(String userId) {
+        UserTags index = new UserTags();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            index.add(bitmapId(rs.getLong(1)), TagListConverter.split(rs.getString(2)));
+        }, userId, userId);
+        index.optimize();
+        return index;
+    }
+
+    // Bitmaps hold 32-bit values, read back as unsigned, which covers ids up to 2^32 - 1
+    private static int bitmapId(long noteId) {
+        if (noteId >>> 32 != 0) {
+            throw new IllegalStateException("Note id " + noteId + " is beyond the range of the tag index");
+        }
+        return (int) noteId;
+    }
+}
@@ -0,0 +1,36 @@
+package stonenotes.tag;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+// Tags are stored lowercased, deduplicated and sorted, so "Work" and "work " are the same tag
+// and a note's tags compare equal regardless of the order they were sent in.
+public final class NoteTags {
+    public static final int MAX_TAGS = 20;
+    public static final int MAX_TAG_LENGTH = 32;
+    // Letters, digits, '-' and '_', never a comma, which separates tags in the tags column
+    private static final Pattern TAG = Pattern.compile("[\\p{L}\\p{N}][\\p{L}\\p{N}_-]*");
+
+    private NoteTags() {}
+
+    public static List<String> normalize(Collection<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        TreeSet<String> normalized = new TreeSet<>();
+        for (String tag : tags) {
+            String trimmed = tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+            if (trimmed.length() > MAX_TAG_LENGTH || !TAG.matcher(trimmed).matches()) {
+                throw new IllegalArgumentException("Invalid tag: " + tag);
+            }
+            normalized.add(trimmed);
+        }
+        if (normalized.size() > MAX_TAGS) {
+            throw new IllegalArgumentException("A note can have at most " + MAX_TAGS + " tags");
+        }
+        return List.copyOf(normalized);
+    }
+}
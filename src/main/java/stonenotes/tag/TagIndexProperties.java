@@ -0,0 +1,18 @@
+package stonenotes.tag;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "notes.tags")
+public class TagIndexProperties {
+    // Users whose tag index is kept in memory; the least recently used are dropped beyond this
+    private int maxUsers = 10000;
+
+    // An index not queried for this long is dropped and rebuilt from the database on the next tag query
+    private Duration idleTimeout = Duration.ofMinutes(30);
+}
@@ -0,0 +1,17 @@
+package stonenotes.tag;
+
+import java.util.Locale;
+
+// Whether a listing filtered by several tags returns notes carrying all of them or any of them
+public enum TagMatchMode {
+    AND,
+    OR;
+
+    public static TagMatchMode parse(String mode) {
+        try {
+            return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid tag mode: " + mode);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package stonenotes.builders;
 import stonenotes.model.Note;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class NoteBuilder {
@@ -12,6 +13,7 @@ public class NoteBuilder {
     private Instant createdAt = Instant.now();
     private Instant updatedAt = Instant.now();
     private String userId;
+    private List<String> tags;
 
     private NoteBuilder() {}
 
@@ -49,6 +51,11 @@ public class NoteBuilder {
         return this;
     }
 
+    public NoteBuilder withTags(String... tags) {
+        this.tags = List.of(tags);
+        return this;
+    }
+
     public Note build() {
         Note note = new Note();
         if (id != null) {
@@ -59,6 +66,7 @@ public class NoteBuilder {
         note.setCreatedAt(createdAt);
         note.setUpdatedAt(updatedAt);
         note.setUserId(userId);
+        note.setTags(tags);
         return note;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package stonenotes.builders;
 import stonenotes.dto.NoteResponseDto;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -12,6 +13,7 @@ public class NoteResponseDtoBuilder {
     private String content = "Note content " + UUID.randomUUID().toString().substring(0, 8);
     private Instant createdAt = Instant.now();
     private Instant updatedAt = Instant.now();
+    private List<String> tags;
 
     private NoteResponseDtoBuilder() {}
 
@@ -42,6 +44,11 @@ public class NoteResponseDtoBuilder {
         return this;
     }
 
+    public NoteResponseDtoBuilder withTags(String... tags) {
+        this.tags = List.of(tags);
+        return this;
+    }
+
     public NoteResponseDto build() {
         NoteResponseDto dto = new NoteResponseDto();
         dto.setId(id);
@@ -49,6 +56,7 @@ public class NoteResponseDtoBuilder {
         dto.setContent(content);
         dto.setCreatedAt(createdAt);
         dto.setUpdatedAt(updatedAt);
+        dto.setTags(tags);
 
         return dto;
     }
@@ -0,0 +1,77 @@
+package stonenotes.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteCacheInvalidatorTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:10Z");
+
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;
+
+    private InMemoryNoteInvalidationBus bus;
+    private NoteCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        bus = new InMemoryNoteInvalidationBus();
+        invalidator = new NoteCacheInvalidator(noteCacheEvictor, bus, 2, 100, Duration.ofSeconds(5),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldEvictRemoteChangesInBatches() {
+        invalidator.onNoteChange(remoteEvent(NoteChangeEvent.Type.UPDATED, 1L, NOW.minusSeconds(2)));
+        invalidator.onNoteChange(remoteEvent(NoteChangeEvent.Type.DELETED, 1L, NOW.minusSeconds(1)));
+
+        invalidator.flush();
+
+        verify(noteCacheEvictor, times(1)).evict(1L);
+        NoteCacheInvalidator.InvalidationStats stats = invalidator.stats();
+        assertThat(stats.received()).isEqualTo(2);
+        assertThat(stats.evicted()).isEqualTo(1);
+        assertThat(stats.batches()).isEqualTo(1);
+        assertThat(stats.lastLagMillis()).isEqualTo(2000);
+        assertThat(stats.pending()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreChangesPublishedByThisNode() {
+        bus.publish(NoteChangeEvent.Type.UPDATED, 1L, "test_user_id");
+
+        invalidator.flush();
+
+        verify(noteCacheEvictor, never()).evict(anyLong());
+        assertThat(invalidator.stats().received()).isZero();
+    }
+
+    @Test
+    void shouldEvictWholeRegionWhenQueueOverflows() {
+        invalidator.onNoteChange(remoteEvent(NoteChangeEvent.Type.UPDATED, 1L, NOW));
+        invalidator.onNoteChange(remoteEvent(NoteChangeEvent.Type.UPDATED, 2L, NOW));
+        invalidator.onNoteChange(remoteEvent(NoteChangeEvent.Type.UPDATED, 3L, NOW));
+
+        verify(noteCacheEvictor).evictAll();
+        assertThat(invalidator.stats().overflows()).isEqualTo(1);
+        assertThat(invalidator.stats().pending()).isZero();
+    }
+
+    private NoteChangeEvent remoteEvent(NoteChangeEvent.Type type, Long noteId, Instant occurredAt) {
+        return new NoteChangeEvent(type, noteId, "test_user_id", "other-node", occurredAt);
+    }
+}
@@ -0,0 +1,108 @@
+package stonenotes.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserIndexCacheTest {
+    private final InMemoryNoteInvalidationBus bus = new InMemoryNoteInvalidationBus();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private UserIndexCache<List<String>> cache;
+
+    @BeforeEach
+    void setUp() {
+        // Each load starts the user's index with a marker, so a reload is visible as a fresh list
+        cache = new UserIndexCache<>("notes.test", "test", userId -> new ArrayList<>(List.of("loaded:" + userId)), bus,
+                meterRegistry, clock);
+    }
+
+    private double loads() {
+        return meterRegistry.get("notes.test.loads").counter().count();
+    }
+
+    @Test
+    void shouldLoadOnFirstReadAndApplyWritesOnlyToLoadedUsers() {
+        cache.ifLoaded("alice", index -> index.add("skipped"));
+
+        cache.get("alice");
+        cache.ifLoaded("alice", index -> index.add("applied"));
+
+        assertThat(cache.get("alice")).containsExactly("loaded:alice", "applied");
+        assertThat(loads()).isEqualTo(1);
+        assertThat(cache.sum(List::size)).isEqualTo(2);
+        assertThat(meterRegistry.get("notes.test.users").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropIndexesChangedOnOtherInstancesOnly() {
+        cache.get("alice").add("local write");
+        cache.get("bob");
+
+        bus.publish(NoteChangeEvent.Type.UPDATED, 1L, "alice");
+        assertThat(cache.get("alice")).contains("local write");
+
+        cache.onNoteChange(new NoteChangeEvent(NoteChangeEvent.Type.UPDATED, 1L, "alice", "other-node", Instant.now()));
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get("alice")).containsExactly("loaded:alice");
+        assertThat(loads()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldEvictIdleUsersAndThenTheLeastRecentlyRead() {
+        cache.get("idle");
+        clock.advance(Duration.ofMinutes(20));
+        cache.get("reread");
+        clock.advance(Duration.ofMinutes(1));
+        cache.get("stale");
+        clock.advance(Duration.ofMinutes(1));
+        cache.get("newest");
+        cache.get("reread");
+
+        cache.evictIdle(Duration.ofMinutes(15), 2);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get("reread");
+        cache.get("newest");
+        assertThat(loads()).isEqualTo(4);
+        cache.get("stale");
+        assertThat(loads()).isEqualTo(5);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
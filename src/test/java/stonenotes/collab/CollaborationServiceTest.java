@@ -0,0 +1,165 @@
+package stonenotes.collab;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import stonenotes.content.ContentStoreProperties;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.service.NoteService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static stonenotes.builders.NoteResponseDtoBuilder.aNoteResponseDto;
+
+@ExtendWith(MockitoExtension.class)
+public class CollaborationServiceTest {
+    private static final Long NOTE_ID = 1L;
+    private static final String USER_ID = "user-123";
+
+    @Mock
+    private NoteService noteService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CollaborationService collaborationService;
+
+    @BeforeEach
+    void setUp() {
+        ContentStoreProperties contentStoreProperties = new ContentStoreProperties();
+        contentStoreProperties.setInlineThreshold(5);
+        collaborationService = new CollaborationService(noteService, objectMapper, new CollabProperties(), contentStoreProperties,
+                meterRegistry);
+    }
+
+    private static NoteResponseDto noteWithContent(String content) {
+        return aNoteResponseDto().withId(NOTE_ID).withContent(content).build();
+    }
+
+    private static WebSocketSession openSession() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(CollaborationService.NOTE_ID, NOTE_ID);
+        attributes.put(CollaborationService.USER_ID, USER_ID);
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getAttributes()).thenReturn(attributes);
+        return session;
+    }
+
+    private List<CollabMessage> sentTo(WebSocketSession session) throws Exception {
+        ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(session, atLeastOnce()).sendMessage(captor.capture());
+        List<CollabMessage> messages = new ArrayList<>();
+        for (WebSocketMessage<?> message : captor.getAllValues()) {
+            messages.add(objectMapper.readValue(((TextMessage) message).getPayload(), CollabMessage.class));
+        }
+        return messages;
+    }
+
+    @Test
+    void shouldRelayOperationsAndCompactMergedContentWhenLastSessionLeaves() throws Exception {
+        when(noteService.findNoteByIdAndUserId(NOTE_ID, USER_ID)).thenReturn(noteWithContent("abc"));
+        WebSocketSession first = openSession();
+        WebSocketSession second = openSession();
+        collaborationService.join(first);
+        collaborationService.join(second);
+
+        collaborationService.handle(first, "{\"type\":\"insert\",\"id\":[4,1],\"after\":[3,0],\"text\":\"d\"}");
+        collaborationService.handle(second, "{\"type\":\"delete\",\"spans\":[[1,0,1]]}");
+        collaborationService.leave(first);
+        collaborationService.leave(second);
+
+        List<CollabMessage> received = sentTo(second);
+        assertThat(received).extracting(CollabMessage::getType).containsExactly(CollabMessage.INIT, CollabMessage.INSERT);
+        assertThat(received.get(0).getSite()).isEqualTo(2);
+        assertThat(received.get(1).getText()).isEqualTo("d");
+        assertThat(sentTo(first)).extracting(CollabMessage::getType).containsExactly(CollabMessage.INIT, CollabMessage.DELETE);
+        verify(noteService).updateNoteContent(NOTE_ID, "bcd", USER_ID);
+        assertThat(meterRegistry.get("notes.collab.operations").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("notes.collab.documents").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldResetSessionsWhenNoteChangedOutsideTheSession() throws Exception {
+        when(noteService.findNoteByIdAndUserId(NOTE_ID, USER_ID)).thenReturn(noteWithContent("abc"), noteWithContent("xyz"));
+        WebSocketSession session = openSession();
+        collaborationService.join(session);
+        collaborationService.handle(session, "{\"type\":\"insert\",\"id\":[4,1],\"after\":[3,0],\"text\":\"d\"}");
+
+        collaborationService.compactAll();
+
+        verify(noteService, never()).updateNoteContent(anyLong(), anyString(), anyString());
+        List<CollabMessage> received = sentTo(session);
+        assertThat(received).extracting(CollabMessage::getType).containsExactly(CollabMessage.INIT, CollabMessage.INIT);
+        assertThat(received.get(1).getSite()).isEqualTo(1);
+        assertThat(received.get(1).getRuns()).extracting(RgaDocument.Run::text).containsExactly("xyz");
+        assertThat(meterRegistry.get("notes.collab.resyncs").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResyncOrRejectOperationsThatCannotBeApplied() throws Exception {
+        when(noteService.findNoteByIdAndUserId(NOTE_ID, USER_ID)).thenReturn(noteWithContent("abc"));
+        WebSocketSession session = openSession();
+        collaborationService.join(session);
+
+        collaborationService.handle(session, "{\"type\":\"insert\",\"id\":[10,1],\"after\":[9,7],\"text\":\"x\"}");
+        collaborationService.handle(session, "{\"type\":\"insert\",\"id\":[10,2],\"after\":[3,0],\"text\":\"x\"}");
+        collaborationService.handle(session, "not json");
+        collaborationService.leave(session);
+
+        assertThat(sentTo(session)).extracting(CollabMessage::getType)
+                .containsExactly(CollabMessage.INIT, CollabMessage.INIT, CollabMessage.ERROR, CollabMessage.ERROR);
+        verify(noteService, never()).updateNoteContent(any(), any(), any());
+    }
+
+    @Test
+    void shouldKeepNotesBelowTheInlineThreshold() throws Exception {
+        when(noteService.findNoteByIdAndUserId(NOTE_ID, USER_ID)).thenReturn(noteWithContent("abc"));
+        WebSocketSession session = openSession();
+        collaborationService.join(session);
+
+        collaborationService.handle(session, "{\"type\":\"insert\",\"id\":[4,1],\"after\":[3,0],\"text\":\"def\"}");
+        collaborationService.handle(session, "{\"type\":\"insert\",\"id\":[4,1],\"after\":[3,0],\"text\":\"de\"}");
+        collaborationService.leave(session);
+
+        List<CollabMessage> received = sentTo(session);
+        assertThat(received).extracting(CollabMessage::getType).containsExactly(CollabMessage.INIT, CollabMessage.ERROR);
+        assertThat(received.get(1).getMessage()).isEqualTo("Collaboratively edited content cannot exceed 5 characters");
+        verify(noteService).updateNoteContent(NOTE_ID, "abcde", USER_ID);
+    }
+
+    @Test
+    void shouldCloseSessionsWhenTheNoteBecameLargeOutsideTheSession() throws Exception {
+        NoteResponseDto large = noteWithContent(null);
+        large.setContentSize(50_000L);
+        when(noteService.findNoteByIdAndUserId(NOTE_ID, USER_ID)).thenReturn(noteWithContent("abc"), large);
+        WebSocketSession session = openSession();
+        collaborationService.join(session);
+        collaborationService.handle(session, "{\"type\":\"insert\",\"id\":[4,1],\"after\":[3,0],\"text\":\"d\"}");
+
+        collaborationService.compactAll();
+
+        verify(noteService, never()).updateNoteContent(anyLong(), anyString(), anyString());
+        verify(session).close(CloseStatus.GOING_AWAY.withReason("Note too large for collaborative editing"));
+        assertThat(meterRegistry.get("notes.collab.documents").gauge().value()).isZero();
+    }
+}
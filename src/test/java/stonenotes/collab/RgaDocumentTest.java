@@ -0,0 +1,131 @@
+package stonenotes.collab;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RgaDocumentTest {
+    private static final int BASE = 0;
+
+    // An insert or a delete as exchanged between replicas
+    private record Operation(ElementId id, ElementId after, String text, RgaDocument.Span span) {
+        void applyTo(RgaDocument document) {
+            assertThat(span == null ? document.insert(id, after, text) : document.delete(span)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldInsertAndDeleteInsideRuns() {
+        RgaDocument document = RgaDocument.of("Hello world", BASE);
+
+        document.insert(new ElementId(12, 1), new ElementId(5, BASE), ",");
+        document.delete(new RgaDocument.Span(7, BASE, 5));
+        document.insert(new ElementId(13, 1), new ElementId(6, BASE), "there");
+
+        assertThat(document.text()).isEqualTo("Hello, there");
+        assertThat(document.length()).isEqualTo(12);
+        assertThat(document.runs()).extracting(RgaDocument.Run::deleted).contains(5);
+    }
+
+    @Test
+    void shouldOrderConcurrentInsertsAtTheSamePositionIdentically() {
+        Operation fromFirst = new Operation(new ElementId(4, 1), new ElementId(3, BASE), "AA", null);
+        Operation fromSecond = new Operation(new ElementId(4, 2), new ElementId(3, BASE), "BB", null);
+        RgaDocument first = RgaDocument.of("abc", BASE);
+        RgaDocument second = RgaDocument.of("abc", BASE);
+
+        fromFirst.applyTo(first);
+        fromSecond.applyTo(first);
+        fromSecond.applyTo(second);
+        fromFirst.applyTo(second);
+
+        assertThat(first.text()).isEqualTo("abcBBAA").isEqualTo(second.text());
+    }
+
+    @Test
+    void shouldConvergeWhenReplicasApplyConcurrentEditsInDifferentOrders() {
+        Random random = new Random(7);
+        for (int run = 0; run < 200; run++) {
+            List<Operation> operations = new ArrayList<>();
+            // Each site edits its own replica of the origin, concurrently with the others
+            for (int site = 1; site <= 3; site++) {
+                RgaDocument replica = RgaDocument.of("The quick brown fox", BASE);
+                int clock = replica.clock();
+                for (int edit = 0; edit < 4; edit++) {
+                    Operation operation = randomEdit(random, replica, site, ++clock);
+                    operation.applyTo(replica);
+                    operations.add(operation);
+                    clock = replica.clock();
+                }
+            }
+
+            List<Operation> shuffled = new ArrayList<>(operations);
+            Collections.shuffle(shuffled, random);
+            RgaDocument inOrder = RgaDocument.of("The quick brown fox", BASE);
+            operations.forEach(operation -> operation.applyTo(inOrder));
+            RgaDocument reordered = RgaDocument.of("The quick brown fox", BASE);
+            applyRespectingCausality(shuffled, reordered);
+
+            assertThat(reordered.text()).isEqualTo(inOrder.text());
+        }
+    }
+
+    @Test
+    void shouldReportUnknownReferencesAndRejectInvalidIds() {
+        RgaDocument document = RgaDocument.of("abc", BASE);
+
+        assertThat(document.insert(new ElementId(10, 1), new ElementId(9, 5), "x")).isFalse();
+        assertThat(document.delete(new RgaDocument.Span(2, BASE, 5))).isFalse();
+        assertThat(document.text()).isEqualTo("abc");
+        assertThatThrownBy(() -> document.insert(new ElementId(2, 1), new ElementId(3, BASE), "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        document.insert(new ElementId(4, 1), new ElementId(3, BASE), "de");
+        assertThat(document.insert(new ElementId(4, 1), new ElementId(3, BASE), "de")).isTrue();
+        assertThat(document.text()).isEqualTo("abcde");
+        assertThatThrownBy(() -> document.insert(new ElementId(3, 2), new ElementId(3, BASE), "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Inserts a short text at a random visible position or deletes one visible character
+    private static Operation randomEdit(Random random, RgaDocument replica, int site, int counter) {
+        List<ElementId> visible = new ArrayList<>();
+        for (RgaDocument.Run run : replica.runs()) {
+            if (run.text() != null) {
+                for (int i = 0; i < run.text().length(); i++) {
+                    visible.add(new ElementId(run.id().counter() + i, run.id().site()));
+                }
+            }
+        }
+        if (random.nextInt(3) == 0 && !visible.isEmpty()) {
+            ElementId target = visible.get(random.nextInt(visible.size()));
+            return new Operation(null, null, null, new RgaDocument.Span(target.counter(), target.site(), 1));
+        }
+        int position = random.nextInt(visible.size() + 1);
+        ElementId after = position == 0 ? null : visible.get(position - 1);
+        return new Operation(new ElementId(counter, site), after, "s" + site + "c" + counter, null);
+    }
+
+    // A replica only receives an operation after the ones it depends on, as the server relays them
+    private static void applyRespectingCausality(List<Operation> pending, RgaDocument document) {
+        List<Operation> remaining = new ArrayList<>(pending);
+        while (!remaining.isEmpty()) {
+            Operation ready = remaining.stream()
+                    .filter(operation -> operation.span() != null
+                            ? document.contains(operation.span())
+                            : operation.after() == null || document.contains(operation.after()))
+                    .filter(operation -> operation.id() == null || remaining.stream().noneMatch(other ->
+                            other.id() != null && other.id().site() == operation.id().site() && other.id().counter() < operation.id().counter()))
+                    .findFirst()
+                    .orElseThrow();
+            ready.applyTo(document);
+            remaining.remove(ready);
+        }
+    }
+}
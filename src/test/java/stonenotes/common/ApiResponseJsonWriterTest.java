@@ -0,0 +1,109 @@
+package stonenotes.common;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import stonenotes.dto.NoteField;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.SparseNoteDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static stonenotes.builders.NoteResponseDtoBuilder.aNoteResponseDto;
+
+public class ApiResponseJsonWriterTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ApiResponseJsonWriter writer = new ApiResponseJsonWriter(objectMapper.getFactory());
+
+    @Test
+    void shouldWriteSingleNoteLikeJackson() throws IOException {
+        NoteResponseDto note = aNoteResponseDto().withTitle("Quotes \"and\" unicode é").build();
+        ApiResponse<NoteResponseDto> response = ApiResponse.success(note, "Note retrieved successfully");
+
+        assertThat(write(response)).isEqualTo(jackson(response));
+    }
+
+    @Test
+    void shouldWriteTagsLikeJackson() throws IOException {
+        NoteResponseDto note = aNoteResponseDto().withTags("reading", "work").build();
+        SparseNoteDto untagged = new SparseNoteDto(EnumSet.of(NoteField.ID, NoteField.TAGS), aNoteResponseDto().build());
+
+        assertThat(write(ApiResponse.success(note, "Note retrieved successfully")))
+                .isEqualTo(jackson(ApiResponse.success(note, "Note retrieved successfully")));
+        assertThat(write(ApiResponse.success(untagged, "Note retrieved successfully")))
+                .isEqualTo(jackson(ApiResponse.success(untagged, "Note retrieved successfully")));
+    }
+
+    @Test
+    void shouldWriteEmptyDataLikeJackson() throws IOException {
+        ApiResponse<Void> response = ApiResponse.success(null, "Note deleted successfully");
+
+        assertThat(write(response)).isEqualTo(jackson(response));
+    }
+
+    @Test
+    void shouldWritePageWithCompactMetadata() throws IOException {
+        List<NoteResponseDto> notes = List.of(aNoteResponseDto().build(), aNoteResponseDto().build());
+        Page<NoteResponseDto> page = new PageImpl<>(notes, PageRequest.of(1, 2), 7);
+
+        JsonNode json = write(ApiResponse.success(page, "Notes retrieved successfully", 200));
+
+        assertThat(json.get("data").get("content")).isEqualTo(jackson(notes));
+        assertThat(json.get("data").get("page")).isEqualTo(jackson(
+                Map.of("size", 2, "number", 1, "totalElements", 7, "totalPages", 4)));
+    }
+
+    // The reactive API has no custom writer and returns its pages as PagedModel through Jackson
+    @Test
+    void shouldWritePagesInTheShapeJacksonGivesPagedModel() throws IOException {
+        Page<NoteResponseDto> page = new PageImpl<>(List.of(aNoteResponseDto().build()), PageRequest.of(0, 10), 1);
+
+        assertThat(write(ApiResponse.success(page, "Notes retrieved successfully", 200)))
+                .isEqualTo(jackson(ApiResponse.success(new PagedModel<>(page), "Notes retrieved successfully", 200)));
+    }
+
+    @Test
+    void shouldWriteOnlyRequestedFieldsOfSparseNotes() throws IOException {
+        SparseNoteDto note = new SparseNoteDto(EnumSet.of(NoteField.ID, NoteField.UPDATED_AT), aNoteResponseDto().build());
+        ApiResponse<SparseNoteDto> response = ApiResponse.success(note, "Note retrieved successfully");
+
+        JsonNode json = write(response);
+
+        assertThat(json).isEqualTo(jackson(response));
+        assertThat(json.get("data").properties()).extracting(Map.Entry::getKey).containsExactly("id", "updatedAt");
+    }
+
+    @Test
+    void shouldOnlyClaimNoteResponseTypes() {
+        assertThat(ApiResponseHttpMessageConverter.isSupportedType(
+                new ParameterizedTypeReference<ApiResponse<Page<NoteResponseDto>>>() {}.getType())).isTrue();
+        assertThat(ApiResponseHttpMessageConverter.isSupportedType(
+                new ParameterizedTypeReference<ApiResponse<Map<String, String>>>() {}.getType())).isFalse();
+        assertThat(ApiResponseHttpMessageConverter.isSupportedType(
+                new ParameterizedTypeReference<ApiResponse<Object>>() {}.getType())).isFalse();
+    }
+
+    private JsonNode jackson(Object value) throws IOException {
+        return objectMapper.readTree(objectMapper.writeValueAsBytes(value));
+    }
+
+    private JsonNode write(ApiResponse<?> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(response, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+}
@@ -0,0 +1,92 @@
+package stonenotes.content;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChunkedContentStoreTest {
+    @TempDir
+    Path directory;
+
+    private long chunkFiles() throws Exception {
+        return files("chunks");
+    }
+
+    private long files(String subdirectory) throws Exception {
+        try (Stream<Path> files = Files.walk(directory.resolve(subdirectory))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    @Test
+    void shouldRoundTripMultiByteContentAcrossChunks() {
+        ChunkedContentStore store = new ChunkedContentStore(directory, 8, 4);
+        String content = "Notes with ümlauts and emoji 📝 span several chunks";
+
+        StoredContent stored = store.write(content);
+
+        assertThat(stored.size()).isEqualTo(content.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(store.open(stored.ref()).contentLength()).isEqualTo(stored.size());
+        assertThat(store.read(stored.ref())).isEqualTo(content);
+    }
+
+    @Test
+    void shouldStoreRepeatedChunksOnce() throws Exception {
+        ChunkedContentStore store = new ChunkedContentStore(directory, 4, 4);
+
+        StoredContent first = store.write("abcdabcdabcdwxyz");
+        StoredContent second = store.write("abcdabcdabcdwxyz");
+
+        assertThat(second.ref()).isEqualTo(first.ref());
+        assertThat(chunkFiles()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSkipToRangeStartWithoutReadingEarlierChunks() throws Exception {
+        ChunkedContentStore store = new ChunkedContentStore(directory, 4, 4);
+        StoredContent stored = store.write("0123456789abcdef");
+
+        try (InputStream in = store.open(stored.ref()).getInputStream()) {
+            assertThat(in.skip(9)).isEqualTo(9);
+            assertThat(new String(in.readNBytes(5), StandardCharsets.US_ASCII)).isEqualTo("9abcd");
+            assertThat(in.skip(100)).isEqualTo(2);
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void shouldSweepUnreferencedManifestsAndTheirUnsharedChunks() throws Exception {
+        ChunkedContentStore store = new ChunkedContentStore(directory, 4, 4);
+        StoredContent kept = store.write("abcdwxyz");
+        StoredContent dropped = store.write("abcd1234");
+
+        assertThat(store.sweep(Set.of(kept.ref()), Instant.now().minusSeconds(60))).isZero();
+        assertThat(store.sweep(Set.of(kept.ref()), Instant.now().plusSeconds(60))).isEqualTo(2);
+
+        assertThat(files("manifests")).isEqualTo(1);
+        assertThat(chunkFiles()).isEqualTo(2);
+        assertThat(store.read(kept.ref())).isEqualTo("abcdwxyz");
+        // Writing swept content again brings its files back
+        StoredContent rewritten = store.write("abcd1234");
+        assertThat(rewritten.ref()).isEqualTo(dropped.ref());
+        assertThat(store.read(rewritten.ref())).isEqualTo("abcd1234");
+    }
+
+    @Test
+    void shouldOnlyTreatContentAboveThresholdAsLarge() {
+        ChunkedContentStore store = new ChunkedContentStore(directory, 4, 10);
+
+        assertThat(store.isLarge("0123456789")).isFalse();
+        assertThat(store.isLarge("0123456789a")).isTrue();
+        assertThat(store.isLarge(null)).isFalse();
+    }
+}
@@ -0,0 +1,123 @@
+package stonenotes.content;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import stonenotes.common.JdbcInserts;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.model.Note;
+import stonenotes.repository.ContentBlobRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// These tests commit and roll back transactions of their own, so they run without the usual rollback-only test transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ContentBlobStoreTest {
+    @Autowired
+    private ContentBlobRepository contentBlobRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ContentBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        DedupProperties properties = new DedupProperties();
+        properties.setEnabled(true);
+        store = new ContentBlobStore(contentBlobRepository, jdbcTemplate, properties, new SimpleMeterRegistry());
+    }
+
+    private long refCount(String hash) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM content_blobs WHERE hash = ?", Long.class, hash);
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnceAndSweepItWhenUnreferenced() {
+        String content = "Meeting notes template " + UUID.randomUUID();
+
+        String first = store.acquire(content);
+        String second = store.acquire(content);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(refCount(first)).isEqualTo(2);
+        assertThat(store.resolve(first)).isEqualTo(content);
+
+        store.release(first);
+        store.release(first);
+        store.release(first);
+        assertThat(refCount(first)).isZero();
+
+        store.sweep();
+        assertThat(contentBlobRepository.existsById(first)).isFalse();
+    }
+
+    @Test
+    void shouldTakeBackReferencesAcquiredInARolledBackTransaction() {
+        String content = "Batch import " + UUID.randomUUID();
+        String onlyInBatch = "Only in the batch " + UUID.randomUUID();
+        String hash = store.acquire(content);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            store.acquire(content);
+            store.acquire(onlyInBatch);
+            status.setRollbackOnly();
+        });
+
+        assertThat(refCount(hash)).isEqualTo(1);
+        assertThat(contentBlobRepository.existsById(ContentHashes.sha256(onlyInBatch.getBytes(StandardCharsets.UTF_8)))).isFalse();
+    }
+
+    @Test
+    void shouldKeepTheTransactionUsableWhenTheBlobWasInsertedConcurrently() {
+        String content = "Raced note " + UUID.randomUUID();
+        String hash = store.acquire(content);
+
+        Boolean inserted = new TransactionTemplate(transactionManager).execute(status -> {
+            boolean result = JdbcInserts.insertIfAbsent(jdbcTemplate, ContentBlobStore.INSERT_SQL, hash, content,
+                    content.getBytes(StandardCharsets.UTF_8).length);
+            store.retain(hash);
+            return result;
+        });
+
+        assertThat(inserted).isFalse();
+        assertThat(refCount(hash)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepBlobsThatTrashedNotesPointAt() {
+        String hash = store.acquire("Imported note " + UUID.randomUUID());
+        Note trashed = NoteBuilder.aNote().withUserId("test_user_id").build();
+        trashed.setContent(null);
+        trashed.setContentHash(hash);
+        trashed.setDeletedAt(Instant.now());
+        Long noteId = noteRepository.save(trashed).getId();
+        store.release(hash);
+
+        store.sweep();
+        assertThat(contentBlobRepository.existsById(hash)).isTrue();
+
+        jdbcTemplate.update("DELETE FROM notes WHERE id = ?", noteId);
+        store.sweep();
+        assertThat(contentBlobRepository.existsById(hash)).isFalse();
+    }
+}
@@ -0,0 +1,66 @@
+package stonenotes.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import stonenotes.config.TestSecurityConfig;
+import stonenotes.dto.CreateNoteDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+public class NoteControllerContentNegotiationTest {
+    private final ObjectMapper cborMapper = new CBORMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldAcceptAndReturnCbor() throws Exception {
+        byte[] request = cborMapper.writeValueAsBytes(new CreateNoteDto("Binary title", "Binary content"));
+
+        byte[] created = mockMvc.perform(post("/api/notes")
+                        .header("Authorization", "Bearer token")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode response = cborMapper.readTree(created);
+        assertThat(response.get("success").asBoolean()).isTrue();
+        assertThat(response.get("data").get("title").asText()).isEqualTo("Binary title");
+    }
+
+    @Test
+    void shouldReturnSamePageStructureAsJson() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/api/notes")
+                        .header("Authorization", "Bearer token")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/api/notes")
+                        .header("Authorization", "Bearer token"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cborMapper.readTree(cbor)).isEqualTo(objectMapper.readTree(json));
+    }
+}
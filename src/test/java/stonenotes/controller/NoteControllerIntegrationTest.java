@@ -9,7 +9,12 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import stonenotes.dto.CreateNoteDto;
+import stonenotes.idempotency.IdempotencyService;
+import stonenotes.service.NoteEventBroadcaster;
+import stonenotes.service.NoteOperationsService;
+import stonenotes.service.NoteRevisionService;
 import stonenotes.service.NoteService;
+import stonenotes.stats.NoteStatsService;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -23,6 +28,16 @@ public class NoteControllerIntegrationTest {
     private ObjectMapper objectMapper;
     @MockitoBean
     private NoteService noteService;
+    @MockitoBean
+    private NoteEventBroadcaster noteEventBroadcaster;
+    @MockitoBean
+    private NoteOperationsService noteOperationsService;
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+    @MockitoBean
+    private NoteRevisionService noteRevisionService;
+    @MockitoBean
+    private NoteStatsService noteStatsService;
 
     @Test
     void shouldReturnBadRequestWhenTitleIsBlank() throws Exception {
@@ -57,7 +72,7 @@ public class NoteControllerIntegrationTest {
     @Test
     void shouldReturnBadRequestWhenContentTooLong() throws Exception {
         // Given
-        String longContent = "a".repeat(10001);
+        String longContent = "a".repeat(CreateNoteDto.MAX_CONTENT_LENGTH + 1);
         CreateNoteDto dto = new CreateNoteDto("Valid title", longContent);
         String jsonRequest = objectMapper.writeValueAsString(dto);
 
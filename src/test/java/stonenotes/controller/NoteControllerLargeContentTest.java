@@ -0,0 +1,90 @@
+package stonenotes.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import stonenotes.config.TestSecurityConfig;
+import stonenotes.dto.CreateNoteDto;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+public class NoteControllerLargeContentTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static String largeContent(int length) {
+        StringBuilder content = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            content.append((char) ('a' + i % 26));
+        }
+        return content.toString();
+    }
+
+    @Test
+    void shouldKeepLargeContentOutOfNoteAndServeRanges() throws Exception {
+        // Spans two 256KB chunks
+        String body = largeContent(300_000);
+        String jsonRequest = objectMapper.writeValueAsString(new CreateNoteDto("Large", body));
+
+        byte[] created = mockMvc.perform(post("/api/notes")
+                        .header("Authorization", "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode note = objectMapper.readTree(created).get("data");
+        assertThat(note.get("content").isNull()).isTrue();
+        assertThat(note.get("contentSize").asLong()).isEqualTo(300_000);
+
+        String contentUrl = "/api/notes/" + note.get("id").asLong() + "/content";
+        mockMvc.perform(get(contentUrl)
+                        .header("Authorization", "Bearer token")
+                        .header(HttpHeaders.RANGE, "bytes=262140-262149"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 262140-262149/300000"))
+                .andExpect(content().bytes(body.substring(262_140, 262_150).getBytes(StandardCharsets.UTF_8)));
+
+        byte[] full = mockMvc.perform(get(contentUrl)
+                        .header("Authorization", "Bearer token"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new String(full, StandardCharsets.UTF_8)).isEqualTo(body);
+    }
+
+    @Test
+    void shouldServeInlineContentThroughSameEndpoint() throws Exception {
+        String jsonRequest = objectMapper.writeValueAsString(new CreateNoteDto("Small", "Short content"));
+        byte[] created = mockMvc.perform(post("/api/notes")
+                        .header("Authorization", "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        long noteId = objectMapper.readTree(created).get("data").get("id").asLong();
+
+        mockMvc.perform(get("/api/notes/" + noteId + "/content")
+                        .header("Authorization", "Bearer token")
+                        .header(HttpHeaders.RANGE, "bytes=6-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("content"));
+    }
+}
@@ -0,0 +1,99 @@
+package stonenotes.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.config.TestSecurityConfig;
+import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.NoteOperationDto;
+import stonenotes.dto.NoteOperationsRequestDto;
+import stonenotes.model.Note;
+import stonenotes.repository.NoteRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static stonenotes.support.SqlStatements.assertStatementCount;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestSecurityConfig.class)
+public class NoteControllerSqlStatementTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private NoteRepository noteRepository;
+
+    // The user's statistics rows are inserted by their first write of the day and only updated after that
+    private void createNote() throws Exception {
+        mockMvc.perform(post("/api/notes")
+                        .header("Authorization", "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateNoteDto("Earlier", "Content"))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void createNoteShouldInsertOnceAndUpdateStatistics() throws Exception {
+        createNote();
+        String jsonRequest = objectMapper.writeValueAsString(new CreateNoteDto("Title", "Content"));
+
+        // The note INSERT, then the totals and creation-day UPDATEs of the user's statistics
+        assertStatementCount(3, () -> mockMvc.perform(post("/api/notes")
+                        .header("Authorization", "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isCreated()));
+    }
+
+    @Test
+    void firstPartialPageShouldSkipCountQuery() throws Exception {
+        assertStatementCount(1, () -> mockMvc.perform(get("/api/notes")
+                        .header("Authorization", "Bearer token"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void batchFetchShouldExecuteSingleQuery() throws Exception {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(String.valueOf(noteRepository.save(NoteBuilder.aNote().withUserId("test-user-id").build()).getId()));
+        }
+
+        // The archive tier is only queried for ids missing from the notes table
+        assertStatementCount(1, () -> mockMvc.perform(get("/api/notes")
+                        .param("ids", String.join(",", ids))
+                        .header("Authorization", "Bearer token"))
+                .andExpect(status().isOk()));
+    }
+
+    @Test
+    void operationsShouldLoadOnceAndBatchUpdates() throws Exception {
+        List<NoteOperationDto> operations = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Note note = NoteBuilder.aNote().withUserId("test-user-id").build();
+            Long noteId = noteRepository.save(note).getId();
+            operations.add(new NoteOperationDto(NoteOperationDto.Type.UPDATE, noteId, "Updated " + i, "Content"));
+        }
+        String jsonRequest = objectMapper.writeValueAsString(new NoteOperationsRequestDto(operations, NoteOperationsRequestDto.Mode.ATOMIC));
+        createNote();
+
+        // The load, one UPDATE of the user's word count for the whole batch, and the batched note UPDATEs
+        assertStatementCount(3, () -> mockMvc.perform(post("/api/notes/operations")
+                        .header("Authorization", "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk()));
+    }
+}
@@ -8,15 +8,33 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import stonenotes.builders.NoteResponseDtoBuilder;
 import stonenotes.common.ApiResponse;
 import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.DailyNoteCountDto;
+import stonenotes.dto.DuplicateGroupDto;
+import stonenotes.dto.NoteOperationDto;
+import stonenotes.dto.NoteOperationResultDto;
+import stonenotes.dto.NoteOperationsRequestDto;
+import stonenotes.dto.NoteOperationsResponseDto;
 import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.NoteRevisionDto;
+import stonenotes.dto.NoteStatsDto;
+import stonenotes.dto.NoteSuggestionDto;
+import stonenotes.dto.SimilarNoteDto;
 import stonenotes.dto.UpdateNoteDto;
 import stonenotes.exception.NoteNotFoundException;
+import stonenotes.idempotency.IdempotencyService;
+import stonenotes.service.NoteEventBroadcaster;
+import stonenotes.service.NoteOperationsService;
+import stonenotes.service.NoteRevisionService;
 import stonenotes.service.NoteService;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.tag.TagMatchMode;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
@@ -29,6 +47,21 @@ public class NoteControllerTest {
     @Mock
     private NoteService noteService;
 
+    @Mock
+    private NoteEventBroadcaster noteEventBroadcaster;
+
+    @Mock
+    private NoteOperationsService noteOperationsService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private NoteRevisionService noteRevisionService;
+
+    @Mock
+    private NoteStatsService noteStatsService;
+
     @InjectMocks
     private NoteController noteController;
 
@@ -49,7 +82,7 @@ public class NoteControllerTest {
         when(jwt.getClaim("sub")).thenReturn(userId);
         when(noteService.createNote(dto, userId)).thenReturn(expectedResponse);
 
-        ResponseEntity<ApiResponse<NoteResponseDto>> response = noteController.createNote(dto, jwt);
+        ResponseEntity<ApiResponse<NoteResponseDto>> response = noteController.createNote(dto, jwt, null);
         ApiResponse<NoteResponseDto> responseBody = response.getBody();
 
         assertNotNull(responseBody);
@@ -325,6 +358,76 @@ public class NoteControllerTest {
         verify(noteService, times(1)).findNotesByUserId(userId, pageable);
     }
 
+    @Test
+    void shouldReturnNotesMatchingAnyOfTheRequestedTags() {
+        String userId = "keycloak-user-uuid-123";
+        Jwt jwt = mock(Jwt.class);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt"));
+        NoteResponseDto tagged = NoteResponseDtoBuilder.aNoteResponseDto().withId(5L).withTags("home").build();
+        Page<NoteResponseDto> notePage = new PageImpl<>(List.of(tagged), pageable, 1);
+
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        when(noteService.findNotesByTags(userId, List.of("work", "home"), TagMatchMode.OR, pageable)).thenReturn(notePage);
+
+        ResponseEntity<ApiResponse<Page<NoteResponseDto>>> response = noteController.getNotesByTags(
+                jwt, List.of("work", "home"), "or", 0, 10, "createdAt", "desc"
+        );
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(notePage, response.getBody().getData());
+        assertThatThrownBy(() -> noteController.getNotesByTags(jwt, List.of("work"), "xor", 0, 10, "createdAt", "desc"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid tag mode: xor");
+    }
+
+    @Test
+    void shouldReturnTitleSuggestions() {
+        String userId = "keycloak-user-uuid-123";
+        Jwt jwt = mock(Jwt.class);
+        List<NoteSuggestionDto> suggestions = List.of(new NoteSuggestionDto(2L, "Meeting notes"), new NoteSuggestionDto(7L, "Meetup"));
+
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        when(noteService.suggestNotes(userId, "meet", 10)).thenReturn(suggestions);
+
+        ResponseEntity<ApiResponse<List<NoteSuggestionDto>>> response = noteController.suggestNotes(jwt, "meet", 10);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(suggestions, response.getBody().getData());
+    }
+
+    @Test
+    void shouldReturnSimilarNotesAndDuplicateGroups() {
+        String userId = "keycloak-user-uuid-123";
+        Jwt jwt = mock(Jwt.class);
+        List<SimilarNoteDto> similar = List.of(new SimilarNoteDto(4L, 0.95));
+        List<DuplicateGroupDto> duplicates = List.of(new DuplicateGroupDto(List.of(3L, 4L)));
+
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        when(noteService.findSimilarNotes(3L, userId, 10)).thenReturn(similar);
+        when(noteService.findDuplicateNotes(userId)).thenReturn(duplicates);
+
+        ResponseEntity<ApiResponse<List<SimilarNoteDto>>> similarResponse = noteController.getSimilarNotes(jwt, 3L, 10);
+        ResponseEntity<ApiResponse<List<DuplicateGroupDto>>> duplicatesResponse = noteController.getDuplicateNotes(jwt);
+
+        assertSame(similar, similarResponse.getBody().getData());
+        assertSame(duplicates, duplicatesResponse.getBody().getData());
+    }
+
+    @Test
+    void shouldReturnNoteStats() {
+        String userId = "keycloak-user-uuid-123";
+        Jwt jwt = mock(Jwt.class);
+        NoteStatsDto stats = new NoteStatsDto(12, 3400, List.of(new DailyNoteCountDto(LocalDate.of(2026, 10, 19), 2)));
+
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        when(noteStatsService.getStats(userId, 1)).thenReturn(stats);
+
+        ResponseEntity<ApiResponse<NoteStatsDto>> response = noteController.getNoteStats(jwt, 1);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(stats, response.getBody().getData());
+    }
+
     @Test
     void shouldThrowExceptionWhenSortByNotInAllowedSortFields() {
         String userId = "keycloak-user-uuid-123";
@@ -354,7 +457,7 @@ public class NoteControllerTest {
 
         RuntimeException ex = assertThrows(
                 RuntimeException.class,
-                () -> noteController.createNote(dto, jwt)
+                () -> noteController.createNote(dto, jwt, null)
         );
 
         assertEquals("Service temporarily unavailable", ex.getMessage());
@@ -376,7 +479,7 @@ public class NoteControllerTest {
 
         RuntimeException ex = assertThrows(
                 RuntimeException.class,
-                () -> noteController.createNote(dto, jwt)
+                () -> noteController.createNote(dto, jwt, null)
         );
 
         assertEquals("User ID cannot be null", ex.getMessage());
@@ -436,6 +539,24 @@ public class NoteControllerTest {
                 .hasMessage("Note not found");
     }
 
+    @Test
+    void shouldReturnNoteAsOfRequestedInstant() {
+        String userId = "keycloak-user-uuid-123";
+        Jwt jwt = mock(Jwt.class);
+        Long noteId = 2L;
+        Instant at = Instant.parse("2025-01-01T12:00:00Z");
+        NoteRevisionDto revision = new NoteRevisionDto(noteId, 3, "Note Title", "Earlier content", 15, at.minusSeconds(60));
+
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        when(noteRevisionService.findRevisionAt(noteId, userId, at)).thenReturn(revision);
+
+        ResponseEntity<ApiResponse<NoteRevisionDto>> response = noteController.getRevisionAt(jwt, noteId, at);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("Revision retrieved successfully", response.getBody().getMessage());
+        assertSame(revision, response.getBody().getData());
+    }
+
     @Test
     void shouldUpdateNoteSuccessfully() {
         String userId = "keycloak-user-uuid-123";
@@ -527,4 +648,41 @@ public class NoteControllerTest {
         verify(jwt).getClaim("sub");
         verify(noteService).deleteNote(noteId, userId);
     }
+
+    @Test
+    void shouldSubscribeToNoteStreamForUser() {
+        String userId = "keycloak-user-uuid-123";
+        Jwt jwt = mock(Jwt.class);
+        SseEmitter emitter = new SseEmitter();
+
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        when(noteEventBroadcaster.subscribe(userId, "abcd1234:42")).thenReturn(emitter);
+
+        SseEmitter result = noteController.streamNotes(jwt, "abcd1234:42");
+
+        assertSame(emitter, result);
+        verify(noteEventBroadcaster).subscribe(userId, "abcd1234:42");
+    }
+
+    @Test
+    void shouldReturnUnprocessableEntityWhenAtomicOperationsRollBack() {
+        String userId = "test_user_id";
+        Jwt jwt = mock(Jwt.class);
+        when(jwt.getClaim("sub")).thenReturn(userId);
+        List<NoteOperationDto> operations = List.of(
+                new NoteOperationDto(NoteOperationDto.Type.CREATE, null, "Title", "Content"),
+                new NoteOperationDto(NoteOperationDto.Type.DELETE, 999L, null, null));
+        NoteOperationsResponseDto result = new NoteOperationsResponseDto(false, List.of(
+                new NoteOperationResultDto(0, NoteOperationDto.Type.CREATE, 201, 1L, null),
+                new NoteOperationResultDto(1, NoteOperationDto.Type.DELETE, 404, 999L, "Note not found")));
+
+        when(noteOperationsService.applyOperations(operations, NoteOperationsRequestDto.Mode.ATOMIC, userId)).thenReturn(result);
+
+        ResponseEntity<ApiResponse<NoteOperationsResponseDto>> response = noteController.applyOperations(
+                new NoteOperationsRequestDto(operations, NoteOperationsRequestDto.Mode.ATOMIC), jwt, null);
+
+        assertEquals(422, response.getStatusCode().value());
+        assertFalse(response.getBody().isSuccess());
+        assertEquals(result, response.getBody().getData());
+    }
 }
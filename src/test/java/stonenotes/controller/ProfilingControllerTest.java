@@ -0,0 +1,85 @@
+package stonenotes.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import stonenotes.config.SecurityConfig;
+import stonenotes.profiling.ContinuousRecording;
+import stonenotes.profiling.JfrProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ProfilingController.class)
+@Import({SecurityConfig.class, ProfilingControllerTest.Properties.class})
+public class ProfilingControllerTest {
+    private static final SimpleGrantedAuthority ADMIN = new SimpleGrantedAuthority("SCOPE_notes:admin");
+
+    @TestConfiguration
+    @EnableConfigurationProperties(JfrProperties.class)
+    static class Properties {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private ContinuousRecording continuousRecording;
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Test
+    void shouldRequireAuthentication() throws Exception {
+        mockMvc.perform(post("/api/admin/jfr/snapshots").with(csrf()))
+                .andExpect(status().isUnauthorized());
+
+        verify(continuousRecording, never()).snapshot(any());
+    }
+
+    @Test
+    void shouldRejectUsersWithoutTheAdminAuthority() throws Exception {
+        mockMvc.perform(post("/api/admin/jfr/snapshots").with(csrf()).with(jwt()))
+                .andExpect(status().isForbidden());
+
+        verify(continuousRecording, never()).snapshot(any());
+    }
+
+    @Test
+    void shouldSnapshotTheRequestedWindowForAdmins() throws Exception {
+        Instant to = Instant.parse("2025-01-01T03:00:00Z");
+        when(continuousRecording.snapshot(Duration.ofMinutes(10))).thenReturn(
+                new ContinuousRecording.Snapshot("/tmp/stonenotes-20250101-030000-1.jfr", 2048, to.minusSeconds(600), to));
+
+        mockMvc.perform(post("/api/admin/jfr/snapshots").param("minutes", "10").with(csrf()).with(jwt().authorities(ADMIN)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.path").value("/tmp/stonenotes-20250101-030000-1.jfr"))
+                .andExpect(jsonPath("$.data.sizeBytes").value(2048));
+    }
+
+    // No handler maps IllegalArgumentException, so the rejection surfaces as the request's failure
+    @Test
+    void shouldRejectWindowsOutsideTheRecordedRing() {
+        assertThatThrownBy(() -> mockMvc.perform(post("/api/admin/jfr/snapshots").param("minutes", "0").with(csrf()).with(jwt().authorities(ADMIN))))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Snapshot window must be between 1 minute and 30 minutes");
+        assertThatThrownBy(() -> mockMvc.perform(post("/api/admin/jfr/snapshots").param("minutes", "31").with(csrf()).with(jwt().authorities(ADMIN))))
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,101 @@
+package stonenotes.idempotency;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import stonenotes.common.ApiResponse;
+import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.exception.IdempotencyKeyReusedException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static stonenotes.builders.NoteResponseDtoBuilder.aNoteResponseDto;
+
+public class IdempotencyServiceTest {
+    private static final TypeReference<ApiResponse<NoteResponseDto>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final IdempotencyService idempotencyService = new IdempotencyService(
+            new InMemoryIdempotencyStore(100, clock), objectMapper, new IdempotencyProperties(), clock);
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private ResponseEntity<ApiResponse<NoteResponseDto>> create() {
+        executions.incrementAndGet();
+        NoteResponseDto note = aNoteResponseDto().withId(42L).withTitle("Title").build();
+        return ResponseEntity.status(201).body(ApiResponse.success(note, "Note created successfully", 201));
+    }
+
+    @Test
+    void shouldReplayStoredResponseWithoutExecutingAgain() {
+        CreateNoteDto request = new CreateNoteDto("Title", "Content");
+
+        idempotencyService.execute("key-1", "user", "createNote", request, RESPONSE_TYPE, this::create);
+        ResponseEntity<ApiResponse<NoteResponseDto>> replayed =
+                idempotencyService.execute("key-1", "user", "createNote", request, RESPONSE_TYPE, this::create);
+
+        assertThat(executions).hasValue(1);
+        assertThat(replayed.getStatusCode().value()).isEqualTo(201);
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replayed.getBody().getData().getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void shouldScopeKeysPerUserAndRejectReuseWithDifferentRequest() {
+        idempotencyService.execute("key-1", "user", "createNote", new CreateNoteDto("Title", "Content"), RESPONSE_TYPE, this::create);
+        idempotencyService.execute("key-1", "other-user", "createNote", new CreateNoteDto("Title", "Content"), RESPONSE_TYPE, this::create);
+
+        assertThat(executions).hasValue(2);
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", "user", "createNote",
+                new CreateNoteDto("Other title", "Content"), RESPONSE_TYPE, this::create))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+    }
+
+    @Test
+    void shouldMakeConcurrentDuplicateWaitForFirstExecution() throws Exception {
+        CreateNoteDto request = new CreateNoteDto("Title", "Content");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<ApiResponse<NoteResponseDto>>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", "user", "createNote", request, RESPONSE_TYPE, () -> {
+                    started.countDown();
+                    await(release);
+                    return create();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<ApiResponse<NoteResponseDto>>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyService.execute("key-1", "user", "createNote", request, RESPONSE_TYPE, this::create));
+
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getStatusCode().value()).isEqualTo(201);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody().getData().getId()).isEqualTo(42L);
+        assertThat(executions).hasValue(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
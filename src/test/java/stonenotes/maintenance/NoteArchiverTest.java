@@ -0,0 +1,79 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.service.NoteArchiveService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class NoteArchiverTest {
+    @Mock
+    private NoteArchiveService noteArchiveService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ArchiveProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ArchiveProperties();
+        properties.setColdAfter(Duration.ofDays(90));
+        properties.setBatchSize(2);
+        properties.setPauseBetweenBatches(Duration.ZERO);
+    }
+
+    private NoteArchiver archiver() {
+        return new NoteArchiver(noteArchiveService, jdbcTemplate, properties, meterRegistry,
+                Clock.fixed(Instant.parse("2025-06-01T00:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldArchiveInBatchesUntilNoColdNotesRemain() {
+        Instant cutoff = Instant.parse("2025-03-03T00:00:00Z");
+        when(noteArchiveService.archiveNotesUpdatedBefore(cutoff, 2)).thenReturn(2, 2, 1);
+
+        archiver().archive();
+
+        verify(noteArchiveService, times(3)).archiveNotesUpdatedBefore(cutoff, 2);
+        assertThat(meterRegistry.get("notes.archive.moved").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("notes.tier.notes").tag("tier", "cold").gauge()).isNotNull();
+    }
+
+    @Test
+    void shouldStopAfterMaxBatchesPerRun() {
+        properties.setMaxBatchesPerRun(2);
+        when(noteArchiveService.archiveNotesUpdatedBefore(eq(Instant.parse("2025-03-03T00:00:00Z")), anyInt())).thenReturn(2);
+
+        archiver().archive();
+
+        verify(noteArchiveService, times(2)).archiveNotesUpdatedBefore(eq(Instant.parse("2025-03-03T00:00:00Z")), anyInt());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        properties.setEnabled(false);
+
+        archiver().archive();
+
+        verifyNoInteractions(noteArchiveService, jdbcTemplate);
+    }
+}
@@ -0,0 +1,168 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.model.Note;
+import stonenotes.model.NoteRevision;
+import stonenotes.repository.NoteRepository;
+import stonenotes.repository.NoteRevisionRepository;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+public class NotePurgeWorkerTest {
+    private static final String USER_ID = "purge_user";
+    private static final Instant NOW = Instant.parse("2025-01-01T03:00:00Z");
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteRevisionRepository noteRevisionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PurgeProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PurgeProperties();
+        properties.setBatchSize(2);
+        properties.setPauseBetweenBatches(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The rollback test commits its rows
+        jdbcTemplate.update("DELETE FROM note_revisions WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM notes WHERE user_id = ?", USER_ID);
+    }
+
+    private NotePurgeWorker workerAt(String instant) {
+        return workerAt(instant, jdbcTemplate);
+    }
+
+    private NotePurgeWorker workerAt(String instant, JdbcTemplate template) {
+        return new NotePurgeWorker(template, transactionManager, properties, meterRegistry,
+                Clock.fixed(Instant.parse(instant), ZoneOffset.UTC));
+    }
+
+    private Note deletedNote(Instant deletedAt) {
+        Note note = NoteBuilder.aNote().withUserId(USER_ID).build();
+        note.setDeletedAt(deletedAt);
+        Note saved = noteRepository.saveAndFlush(note);
+        NoteRevision revision = new NoteRevision();
+        revision.setNoteId(saved.getId());
+        revision.setUserId(USER_ID);
+        revision.setRevision(1);
+        revision.setSnapshotRevision(1);
+        revision.setKind(NoteRevision.Kind.SNAPSHOT);
+        revision.setTitle(saved.getTitle());
+        revision.setBody("");
+        revision.setContentHash("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855");
+        revision.setCreatedAt(deletedAt);
+        noteRevisionRepository.saveAndFlush(revision);
+        return saved;
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Long.class, USER_ID);
+    }
+
+    @Test
+    void shouldPurgeExpiredNotesAndTheirHistoryInBatches() {
+        for (int i = 0; i < 5; i++) {
+            deletedNote(NOW.minus(Duration.ofDays(40)));
+        }
+        Note restorable = deletedNote(NOW.minus(Duration.ofDays(10)));
+
+        workerAt("2025-01-01T03:00:00Z").purge();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notes WHERE user_id = ?", Long.class, USER_ID))
+                .containsExactly(restorable.getId());
+        assertThat(count("note_revisions")).isEqualTo(1);
+        assertThat(meterRegistry.get("notes.purge.deleted").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("notes.purge.batch").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("notes.purge.backlog").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldStopAfterMaxBatchesAndReportBacklog() {
+        properties.setMaxBatchesPerRun(2);
+        for (int i = 0; i < 5; i++) {
+            deletedNote(NOW.minus(Duration.ofDays(40)));
+        }
+
+        workerAt("2025-01-01T03:00:00Z").purge();
+
+        assertThat(count("notes")).isEqualTo(1);
+        assertThat(meterRegistry.get("notes.purge.backlog").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldKeepHistoryOfNotesWhosePurgeFailed() {
+        deletedNote(NOW.minus(Duration.ofDays(40)));
+        JdbcTemplate failingNoteDelete = new JdbcTemplate(dataSource) {
+            @Override
+            public int update(String sql, Object... args) {
+                if (sql.startsWith(NotePurgeWorker.PURGE_NOTES_SQL)) {
+                    throw new IllegalStateException("Lock wait timeout");
+                }
+                return super.update(sql, args);
+            }
+        };
+
+        assertThatThrownBy(() -> workerAt("2025-01-01T03:00:00Z", failingNoteDelete).purge())
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(count("notes")).isEqualTo(1);
+        assertThat(count("note_revisions")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotPurgeOutsideQuietWindow() {
+        deletedNote(NOW.minus(Duration.ofDays(40)));
+
+        workerAt("2025-01-01T12:00:00Z").purge();
+
+        assertThat(count("notes")).isEqualTo(1);
+        assertThat(count("note_revisions")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSupportQuietWindowsWrappingMidnight() {
+        properties.setQuietWindowStart(LocalTime.of(23, 0));
+        properties.setQuietWindowEnd(LocalTime.of(1, 0));
+        NotePurgeWorker worker = workerAt("2025-01-01T00:00:00Z");
+
+        assertThat(worker.inQuietWindow(Instant.parse("2025-01-01T23:30:00Z"))).isTrue();
+        assertThat(worker.inQuietWindow(Instant.parse("2025-01-01T00:30:00Z"))).isTrue();
+        assertThat(worker.inQuietWindow(Instant.parse("2025-01-01T01:00:00Z"))).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.model.SignatureConverter;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.service.NoteService;
+import stonenotes.similar.MinHash;
+import stonenotes.similar.NoteSimilarityIndex;
+import stonenotes.similar.SimilarityProperties;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ExtendWith(MockitoExtension.class)
+public class NoteSignatureBackfillTest {
+    private static final String USER_ID = "test_user_id";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NoteService noteService;
+
+    @Mock
+    private NoteSimilarityIndex noteSimilarityIndex;
+
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private int[] storedSignature(String table, Long id) {
+        byte[] column = jdbcTemplate.queryForObject("SELECT content_signature FROM " + table + " WHERE id = ?", byte[].class, id);
+        return SignatureConverter.fromBytes(column);
+    }
+
+    @Test
+    void shouldSignNotesWrittenBeforeSignaturesInBothTiers() {
+        Note first = noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withContent("first unsigned note").build());
+        Note second = noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withContent("second unsigned note").build());
+        Note signed = NoteBuilder.aNote().withUserId(USER_ID).withContent("already signed").build();
+        signed.setContentSignature(MinHash.signature("already signed"));
+        signed = noteRepository.saveAndFlush(signed);
+        Note cold = NoteBuilder.aNote().withId(1_000_000L).withUserId(USER_ID).withContent("archived unsigned note").build();
+        archivedNoteRepository.saveAndFlush(ArchivedNote.of(cold, cold.getContent(), Instant.now()));
+        when(noteService.readContent(any(Note.class))).thenAnswer(invocation -> invocation.<Note>getArgument(0).getContent());
+        SimilarityProperties properties = new SimilarityProperties();
+        properties.setBackfillBatchSize(1);
+
+        new NoteSignatureBackfill(noteRepository, archivedNoteRepository, noteService, noteSimilarityIndex, noteCacheEvictor,
+                jdbcTemplate, properties, meterRegistry).backfill();
+
+        assertThat(storedSignature("notes", first.getId())).isEqualTo(MinHash.signature("first unsigned note"));
+        assertThat(storedSignature("notes", second.getId())).isEqualTo(MinHash.signature("second unsigned note"));
+        assertThat(storedSignature("archived_notes", 1_000_000L)).isEqualTo(MinHash.signature("archived unsigned note"));
+        verify(noteSimilarityIndex).put(USER_ID, first.getId(), MinHash.signature("first unsigned note"));
+        verify(noteSimilarityIndex).put(USER_ID, 1_000_000L, MinHash.signature("archived unsigned note"));
+        verify(noteSimilarityIndex, never()).put(eq(USER_ID), eq(signed.getId()), any());
+        verify(noteCacheEvictor).evict(second.getId());
+        assertThat(meterRegistry.get("notes.similar.backfilled").counter().count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,136 @@
+package stonenotes.maintenance;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.service.NoteService;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.stats.StatsProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ExtendWith(MockitoExtension.class)
+public class NoteStatsRebuilderTest {
+    private static final String USER_ID = "stats_rebuilder_user";
+    private static final Instant NOW = Instant.parse("2025-01-01T03:00:00Z");
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NoteService noteService;
+
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NoteStatsRebuilder rebuilderAt(Instant instant, StatsProperties properties) {
+        return new NoteStatsRebuilder(noteRepository, archivedNoteRepository, noteService, new NoteStatsService(jdbcTemplate, transactionManager),
+                noteCacheEvictor, jdbcTemplate, properties, meterRegistry, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    private StatsProperties enabled() {
+        StatsProperties properties = new StatsProperties();
+        properties.setRebuildEnabled(true);
+        return properties;
+    }
+
+    private double rebuiltUsers() {
+        return meterRegistry.get("notes.stats.rebuilt").counter().count();
+    }
+
+    private Long storedWordCount(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT word_count FROM " + table + " WHERE id = ?", Long.class, id);
+    }
+
+    @Test
+    void shouldCountWordsOfOlderNotesAndRebuildStatistics() {
+        Note first = noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withContent("two words").build());
+        Note second = noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withContent("three more words").build());
+        Note cold = NoteBuilder.aNote().withId(1_000_000L).withUserId(USER_ID).withContent("archived note with five words").build();
+        archivedNoteRepository.saveAndFlush(ArchivedNote.of(cold, cold.getContent(), Instant.now()));
+        when(noteService.readContent(any(Note.class))).thenAnswer(invocation -> invocation.<Note>getArgument(0).getContent());
+        StatsProperties properties = enabled();
+        properties.setBackfillBatchSize(1);
+
+        rebuilderAt(NOW, properties).rebuild();
+
+        assertThat(storedWordCount("notes", first.getId())).isEqualTo(2);
+        assertThat(storedWordCount("notes", second.getId())).isEqualTo(3);
+        assertThat(storedWordCount("archived_notes", 1_000_000L)).isEqualTo(5);
+        verify(noteCacheEvictor).evict(second.getId());
+        assertThat(meterRegistry.get("notes.stats.backfilled").counter().count()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT note_count FROM note_stats WHERE user_id = ?", Long.class, USER_ID)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT word_count FROM note_stats WHERE user_id = ?", Long.class, USER_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRebuildOnFirstStartupAndLaterOnlyWhenEnabled() {
+        noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withContent("two words").build());
+        when(noteService.readContent(any(Note.class))).thenAnswer(invocation -> invocation.<Note>getArgument(0).getContent());
+
+        rebuilderAt(NOW, new StatsProperties()).rebuild();
+        assertThat(rebuiltUsers()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT note_count FROM note_stats WHERE user_id = ?", Long.class, USER_ID)).isEqualTo(1);
+
+        Instant nextRollout = NOW.plus(Duration.ofDays(1));
+        rebuilderAt(nextRollout, new StatsProperties()).rebuild();
+        assertThat(rebuiltUsers()).isEqualTo(1);
+
+        rebuilderAt(nextRollout, enabled()).rebuild();
+        assertThat(rebuiltUsers()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLetOneInstanceClaimTheRebuildPerClaimPeriod() {
+        StatsProperties properties = enabled();
+        properties.setRebuildClaimPeriod(Duration.ofHours(12));
+
+        assertThat(rebuilderAt(NOW, properties).claim()).isTrue();
+        assertThat(rebuilderAt(NOW, properties).claim()).isFalse();
+        assertThat(rebuilderAt(NOW.plus(Duration.ofHours(11)), properties).claim()).isFalse();
+        assertThat(rebuilderAt(NOW.plus(Duration.ofHours(13)), properties).claim()).isTrue();
+        assertThat(rebuilderAt(NOW.plus(Duration.ofHours(13)), properties).claim()).isFalse();
+    }
+
+    @Test
+    void shouldSkipTheRebuildClaimedByAnotherInstance() {
+        noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withContent("two words").build());
+        rebuilderAt(NOW.minus(Duration.ofMinutes(1)), enabled()).claim();
+
+        rebuilderAt(NOW, enabled()).rebuild();
+
+        assertThat(rebuiltUsers()).isZero();
+    }
+}
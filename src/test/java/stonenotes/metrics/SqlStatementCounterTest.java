@@ -0,0 +1,56 @@
+package stonenotes.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.config.SqlMonitoringConfig;
+import stonenotes.repository.NoteRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(SqlMonitoringConfig.class)
+class SqlStatementCounterTest {
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void shouldCountStatementsExecutedOnCurrentThread() {
+        testEntityManager.persistAndFlush(NoteBuilder.aNote().withUserId("test_user_id").build());
+        testEntityManager.clear();
+
+        SqlStatementCounter.begin();
+        noteRepository.findByUserIdOrderByCreatedAtDesc("test_user_id");
+        noteRepository.findByUserIdOrderByCreatedAtDesc("other_user_id");
+        SqlStatementCounter.Recording recording = SqlStatementCounter.end();
+
+        assertThat(recording.total()).isEqualTo(2);
+        assertThat(recording.mostRepeated()).hasValueSatisfying(entry -> assertThat(entry.getValue()).isEqualTo(2));
+    }
+
+    @Test
+    void shouldNotCountOutsideOfScope() {
+        noteRepository.findByUserIdOrderByCreatedAtDesc("test_user_id");
+
+        assertThat(SqlStatementCounter.end().total()).isZero();
+    }
+
+    @Test
+    void shouldCountInNestedScopes() {
+        SqlStatementCounter.begin();
+        noteRepository.findByUserIdOrderByCreatedAtDesc("test_user_id");
+        SqlStatementCounter.begin();
+        noteRepository.findByUserIdOrderByCreatedAtDesc("test_user_id");
+        SqlStatementCounter.Recording inner = SqlStatementCounter.end();
+        SqlStatementCounter.Recording outer = SqlStatementCounter.end();
+
+        assertThat(inner.total()).isEqualTo(1);
+        assertThat(outer.total()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,119 @@
+package stonenotes.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.UpdateNoteDto;
+import stonenotes.exception.NoteNotFoundException;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveNoteServiceTest {
+    @Mock
+    private ReactiveNoteRepository noteRepository;
+
+    @InjectMocks
+    private ReactiveNoteService noteService;
+
+    @Test
+    void shouldReturnPageWithTotalCount() {
+        String userId = "test_user_id";
+        Pageable pageable = PageRequest.of(0, 2);
+
+        when(noteRepository.findByUserIdAndDeletedAtIsNull(userId, pageable)).thenReturn(Flux.just(aNote(1L, userId), aNote(2L, userId)));
+        when(noteRepository.countByUserIdAndDeletedAtIsNull(userId)).thenReturn(Mono.just(5L));
+
+        Page<NoteResponseDto> result = noteService.findNotesByUserId(userId, pageable).block();
+
+        assertThat(result).isNotNull();
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        assertThat(result.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldSignalNoteNotFoundWhenUpdatingMissingNote() {
+        String userId = "test_user_id";
+
+        when(noteRepository.findByIdAndUserIdAndDeletedAtIsNull(999L, userId)).thenReturn(Mono.empty());
+
+        assertThatThrownBy(() -> noteService.updateNote(999L, new UpdateNoteDto("Title", "Content"), userId).block())
+                .isInstanceOf(NoteNotFoundException.class)
+                .hasMessage("Note not found");
+
+        verify(noteRepository, never()).save(any(ReactiveNote.class));
+    }
+
+    @Test
+    void shouldReplaceALargeBodyWithTheUpdatedInlineContent() {
+        String userId = "test_user_id";
+        ReactiveNote note = aNote(1L, userId);
+        note.setContent(null);
+        note.setContentRef("manifest-ref");
+        note.setContentSize(50_000L);
+
+        when(noteRepository.findByIdAndUserIdAndDeletedAtIsNull(1L, userId)).thenReturn(Mono.just(note));
+        when(noteRepository.save(note)).thenReturn(Mono.just(note));
+
+        assertThat(noteService.findNoteByIdAndUserId(1L, userId).block().getContentSize()).isEqualTo(50_000L);
+
+        NoteResponseDto updated = noteService.updateNote(1L, new UpdateNoteDto("Title", "Short again"), userId).block();
+
+        assertThat(updated.getContent()).isEqualTo("Short again");
+        assertThat(updated.getContentSize()).isNull();
+        assertThat(note.getContentRef()).isNull();
+    }
+
+    @Test
+    void shouldResolveDeduplicatedBodiesAndReleaseThemOnUpdate() {
+        String userId = "test_user_id";
+        ReactiveNote note = aNote(1L, userId);
+        note.setContent(null);
+        note.setContentHash("blob-hash");
+        note.setWordCount(2L);
+        note.setContentSignature(new byte[]{1, 2, 3});
+
+        when(noteRepository.findByIdAndUserIdAndDeletedAtIsNull(1L, userId)).thenReturn(Mono.just(note));
+        when(noteRepository.findBlobContent("blob-hash")).thenReturn(Mono.just("Shared body"));
+        when(noteRepository.releaseBlob("blob-hash")).thenReturn(Mono.just(1));
+        when(noteRepository.save(note)).thenReturn(Mono.just(note));
+
+        assertThat(noteService.findNoteByIdAndUserId(1L, userId).block().getContent()).isEqualTo("Shared body");
+
+        note.setContent(null);
+        NoteResponseDto updated = noteService.updateNote(1L, new UpdateNoteDto("Title", "Own body"), userId).block();
+
+        assertThat(updated.getContent()).isEqualTo("Own body");
+        assertThat(note.getContentHash()).isNull();
+        assertThat(note.getWordCount()).isNull();
+        assertThat(note.getContentSignature()).isNull();
+        verify(noteRepository).releaseBlob("blob-hash");
+    }
+
+    private ReactiveNote aNote(Long id, String userId) {
+        ReactiveNote note = new ReactiveNote();
+        note.setId(id);
+        note.setTitle("Note " + id);
+        note.setContent("Content " + id);
+        note.setUserId(userId);
+        note.setCreatedAt(Instant.now());
+        note.setUpdatedAt(Instant.now());
+        return note;
+    }
+}
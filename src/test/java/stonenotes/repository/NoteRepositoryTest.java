@@ -1,7 +1,11 @@
 package stonenotes.repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +16,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.context.annotation.Import;
 import stonenotes.builders.NoteBuilder;
+import stonenotes.config.SqlMonitoringConfig;
+import stonenotes.dto.NoteField;
+import stonenotes.dto.SparseNoteDto;
+import stonenotes.metrics.SqlStatementCounter;
 import stonenotes.model.Note;
+import stonenotes.support.SqlStatements;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(SqlMonitoringConfig.class)
 class NoteRepositoryTest {
     @Autowired
     private NoteRepository noteRepository;
@@ -165,4 +176,50 @@ class NoteRepositoryTest {
         assertThat(result.getContent().get(1).getTitle()).isEqualTo("Note 2");
         assertThat(result.getContent().get(2).getTitle()).isEqualTo("Note 3");
     }
+
+    @Test
+    void shouldSelectOnlyRequestedColumns() throws Exception {
+        String userId = "test_user_id";
+
+        createAndSaveNote("Note 1", "Content 1", userId);
+        createAndSaveNote("Note 2", "Content 2", userId);
+        createAndSaveNote("Other", "Other content", "other_user_id");
+
+        Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "title"));
+        Set<NoteField> fields = EnumSet.of(NoteField.ID, NoteField.TITLE);
+
+        List<Page<SparseNoteDto>> result = new ArrayList<>();
+        SqlStatementCounter.Recording recording = SqlStatements.record(
+                () -> result.add(noteRepository.findByUserId(userId, fields, pageable)));
+
+        Page<SparseNoteDto> page = result.get(0);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(note -> note.getNote().getTitle()).containsExactly("Note 1", "Note 2");
+        assertThat(page.getContent().get(0).values()).containsOnlyKeys("id", "title");
+        assertThat(recording.executions().keySet())
+                .hasSize(1)
+                .allSatisfy(sql -> assertThat(sql.toLowerCase()).doesNotContain("content", "created_at"));
+    }
+
+    @Test
+    void shouldHideSoftDeletedNotesExceptFromTrash() {
+        String userId = "test_user_id";
+        Note kept = createNote("Kept", "Content", userId);
+        Note deleted = createNote("Deleted", "Content", userId);
+        deleted.setDeletedAt(Instant.now());
+        testEntityManager.persistAndFlush(kept);
+        testEntityManager.persistAndFlush(deleted);
+        testEntityManager.clear();
+
+        Page<Note> notes = noteRepository.findByUserId(userId, PageRequest.of(0, 10));
+        Page<Note> trash = noteRepository.findDeletedByUserId(userId, PageRequest.of(0, 10));
+
+        assertThat(notes.getContent()).extracting(Note::getTitle).containsExactly("Kept");
+        assertThat(trash.getContent()).extracting(Note::getTitle).containsExactly("Deleted");
+        assertThat(noteRepository.findByIdAndUserId(deleted.getId(), userId)).isEmpty();
+
+        assertThat(noteRepository.restore(deleted.getId(), userId)).isEqualTo(1);
+        testEntityManager.clear();
+        assertThat(noteRepository.findByUserId(userId, PageRequest.of(0, 10)).getContent()).hasSize(2);
+    }
 }
@@ -0,0 +1,63 @@
+package stonenotes.revision;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextDeltaTest {
+
+    @Test
+    void shouldEncodeALocalEditAsCopiesAroundTheInsertedText() {
+        String base = "The quick brown fox jumps over the lazy dog. ".repeat(100);
+        String target = base.substring(0, 2000) + "EDIT" + base.substring(2000);
+
+        String delta = TextDelta.encode(base, target);
+
+        assertThat(delta).startsWith("c0,2000;i4:EDIT");
+        assertThat(TextDelta.apply(base, delta)).isEqualTo(target);
+    }
+
+    @Test
+    void shouldCopyPassagesMovedWithinTheText() {
+        String first = "First paragraph of the note, long enough to span several blocks.\n";
+        String second = "Second paragraph, also long enough to be matched block by block.\n";
+
+        String delta = TextDelta.encode(first + second, second + first);
+
+        assertThat(delta).doesNotContain("i");
+        assertThat(TextDelta.apply(first + second, delta)).isEqualTo(second + first);
+    }
+
+    @Test
+    void shouldRoundTripRandomEdits() {
+        Random random = new Random(42);
+        for (int run = 0; run < 500; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(2_000);
+            for (int i = 0; i < length; i++) {
+                text.append((char) ('a' + random.nextInt(run % 2 == 0 ? 2 : 26)));
+            }
+            String base = text.toString();
+            for (int edit = random.nextInt(5); edit > 0; edit--) {
+                int position = text.isEmpty() ? 0 : random.nextInt(text.length());
+                if (random.nextBoolean()) {
+                    text.insert(position, "inserted text " + edit);
+                } else {
+                    text.delete(position, Math.min(text.length(), position + random.nextInt(40)));
+                }
+            }
+            String target = text.toString();
+
+            assertThat(TextDelta.apply(base, TextDelta.encode(base, target))).isEqualTo(target);
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedDeltas() {
+        assertThatThrownBy(() -> TextDelta.apply("base", "x1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package stonenotes.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.NoteChangeEvent;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.content.ContentBlobStore;
+import stonenotes.dto.NoteResponseDto;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@Import(NoteArchiveService.class)
+class NoteArchiveServiceTest {
+    @Autowired
+    private NoteArchiveService noteArchiveService;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private NoteInvalidationBus noteInvalidationBus;
+
+    @MockitoBean
+    private ContentBlobStore contentBlobStore;
+
+    @Test
+    void shouldMoveColdNotesToCompressedArchiveAndPromoteThemBack() {
+        String userId = "test_user_id";
+        String content = "Rarely read content. ".repeat(500);
+        Note cold = testEntityManager.persistAndFlush(NoteBuilder.aNote().withTitle("Cold").withContent(content).withUserId(userId).build());
+        Long id = cold.getId();
+        testEntityManager.clear();
+
+        int moved = noteArchiveService.archiveNotesUpdatedBefore(Instant.now().plusSeconds(60), 10);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(noteRepository.findByIdAndUserId(id, userId)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT OCTET_LENGTH(content_compressed) FROM archived_notes WHERE id = ?", Long.class, id))
+                .isLessThan(content.length() / 10);
+        assertThat(noteArchiveService.findNote(id, userId)).get().extracting(NoteResponseDto::getContent).isEqualTo(content);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.UPDATED, id, userId);
+
+        Optional<Note> promoted = noteArchiveService.promote(id, userId);
+        testEntityManager.clear();
+
+        assertThat(promoted).get().extracting(Note::getContent).isEqualTo(content);
+        assertThat(noteRepository.findByIdAndUserId(id, userId)).isPresent();
+        assertThat(archivedNoteRepository.findById(id)).isEmpty();
+    }
+
+    @Test
+    void shouldListBothTiersInSortOrder() {
+        String userId = "test_user_id";
+        Note older = testEntityManager.persistAndFlush(NoteBuilder.aNote().withTitle("Older").withUserId(userId).build());
+        testEntityManager.clear();
+        noteArchiveService.archiveNotesUpdatedBefore(Instant.now().plusSeconds(60), 10);
+        testEntityManager.flush();
+        testEntityManager.persistAndFlush(NoteBuilder.aNote().withTitle("Newer").withUserId(userId).build());
+
+        Page<NoteResponseDto> page = noteRepository.findByUserIdAcrossTiers(userId, PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "title")));
+
+        assertThat(page.getContent()).extracting(NoteResponseDto::getTitle).containsExactly("Newer", "Older");
+        assertThat(page.getContent().get(1).getContent()).isEqualTo(older.getContent());
+        assertThat(page.getContent()).allSatisfy(note -> assertThat(note.getCreatedAt()).isNotNull());
+    }
+}
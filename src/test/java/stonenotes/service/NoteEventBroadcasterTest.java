@@ -0,0 +1,167 @@
+package stonenotes.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import stonenotes.cache.InMemoryNoteInvalidationBus;
+import stonenotes.cache.NoteChangeEvent;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NoteEventBroadcasterTest {
+    private static final String USER_ID = "stream_user";
+
+    private final InMemoryNoteInvalidationBus bus = new InMemoryNoteInvalidationBus();
+    private final List<Runnable> queuedSends = new ArrayList<>();
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private NoteEventBroadcaster broadcaster;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new NoteEventBroadcaster(bus, Duration.ofMinutes(30), 2, Duration.ofMinutes(10), queuedSends::add, clock) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new RecordingEmitter();
+            }
+        };
+        prefix = bus.nodeId().substring(0, 8);
+    }
+
+    private void publish(long noteId) {
+        bus.publish(NoteChangeEvent.Type.UPDATED, noteId, USER_ID);
+    }
+
+    private void runQueuedSends() {
+        List<Runnable> sends = new ArrayList<>(queuedSends);
+        queuedSends.clear();
+        sends.forEach(Runnable::run);
+    }
+
+    @Test
+    void shouldSendEventsFromTheSenderInsteadOfThePublishingThread() {
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe(USER_ID, null);
+
+        publish(1L);
+        publish(2L);
+
+        assertThat(emitter.events).isEmpty();
+        assertThat(queuedSends).hasSize(1);
+        runQueuedSends();
+        assertThat(emitter.events).hasSize(2);
+        assertThat(emitter.events.get(0)).startsWith("id:" + prefix + ":1\n");
+        assertThat(emitter.events.get(1)).startsWith("id:" + prefix + ":2\n");
+    }
+
+    @Test
+    void shouldReplayEventsAfterLastEventId() {
+        publish(1L);
+        publish(2L);
+
+        RecordingEmitter emitter = (RecordingEmitter) broadcaster.subscribe(USER_ID, prefix + ":1");
+
+        assertThat(emitter.events).hasSize(1);
+        assertThat(emitter.events.get(0)).startsWith("id:" + prefix + ":2\n");
+    }
+
+    @Test
+    void shouldAskForResyncWhenTheEventsWereDroppedFromTheBuffer() {
+        publish(1L);
+        publish(2L);
+        publish(3L);
+
+        RecordingEmitter dropped = (RecordingEmitter) broadcaster.subscribe(USER_ID, prefix + ":0");
+        RecordingEmitter otherInstance = (RecordingEmitter) broadcaster.subscribe(USER_ID, "ffffffff:3");
+
+        assertThat(dropped.events).containsExactly("event:resync\ndata:");
+        assertThat(otherInstance.events).containsExactly("event:resync\ndata:");
+    }
+
+    @Test
+    void shouldAskForResyncAfterAnIdleStreamWasEvicted() {
+        publish(1L);
+        clock.advance(Duration.ofMinutes(11));
+        broadcaster.heartbeat();
+
+        RecordingEmitter reconnected = (RecordingEmitter) broadcaster.subscribe(USER_ID, prefix + ":0");
+        RecordingEmitter upToDate = (RecordingEmitter) broadcaster.subscribe(USER_ID, prefix + ":1");
+
+        assertThat(reconnected.events).containsExactly("event:resync\ndata:");
+        assertThat(upToDate.events).isEmpty();
+    }
+
+    @Test
+    void shouldDropClosedConnectionsAndKeepActiveStreams() {
+        RecordingEmitter closed = (RecordingEmitter) broadcaster.subscribe(USER_ID, null);
+        closed.closed = true;
+
+        broadcaster.heartbeat();
+        runQueuedSends();
+
+        assertThat(broadcaster.connectionCount()).isZero();
+
+        RecordingEmitter open = (RecordingEmitter) broadcaster.subscribe(USER_ID, null);
+        clock.advance(Duration.ofMinutes(11));
+        broadcaster.heartbeat();
+        runQueuedSends();
+
+        assertThat(open.events).containsExactly(":heartbeat");
+        assertThat(broadcaster.connectionCount()).isEqualTo(1);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private boolean closed;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (closed) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String data) {
+                    text.append(data);
+                }
+            }
+            events.add(text.toString().stripTrailing());
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package stonenotes.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.cache.NoteChangeEvent;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.content.ChunkedContentStore;
+import stonenotes.content.ContentBlobStore;
+import stonenotes.dto.NoteOperationDto;
+import stonenotes.dto.NoteOperationResultDto;
+import stonenotes.dto.NoteOperationsRequestDto;
+import stonenotes.dto.NoteOperationsResponseDto;
+import stonenotes.model.Note;
+import stonenotes.repository.NoteRepository;
+import stonenotes.similar.NoteSimilarityIndex;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.suggest.NoteTitleIndex;
+import stonenotes.tag.NoteTagIndex;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+// Batches commit or roll back for real here, so the tests run outside a test transaction and clean up after themselves
+@DataJpaTest
+@ExtendWith(MockitoExtension.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class NoteOperationsServiceTest {
+    private static final String USER_ID = "operations_user";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;
+
+    @Mock
+    private NoteInvalidationBus noteInvalidationBus;
+
+    @Mock
+    private NoteArchiveService noteArchiveService;
+
+    @Mock
+    private ChunkedContentStore contentStore;
+
+    @Mock
+    private ContentBlobStore contentBlobStore;
+
+    @Mock
+    private NoteRevisionService noteRevisionService;
+
+    @Mock
+    private NoteTagIndex noteTagIndex;
+
+    @Mock
+    private NoteTitleIndex noteTitleIndex;
+
+    @Mock
+    private NoteSimilarityIndex noteSimilarityIndex;
+
+    private NoteOperationsService service;
+    private Note kept;
+    private Note trashed;
+
+    @BeforeEach
+    void setUp() {
+        NoteStatsService noteStatsService = new NoteStatsService(jdbcTemplate, transactionManager);
+        NoteService noteService = new NoteService(noteRepository, noteCacheEvictor, noteInvalidationBus, noteArchiveService,
+                contentStore, contentBlobStore, noteRevisionService, noteTagIndex, noteTitleIndex, noteSimilarityIndex,
+                noteStatsService, transactionManager);
+        service = new NoteOperationsService(noteRepository, noteService, noteArchiveService, noteCacheEvictor, noteStatsService,
+                transactionManager);
+        kept = noteRepository.save(NoteBuilder.aNote().withUserId(USER_ID).withTitle("Original").withContent("one two").build());
+        trashed = noteRepository.save(NoteBuilder.aNote().withUserId(USER_ID).withTitle("Obsolete").withContent("gone").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM notes WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM note_stats WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM note_daily_stats WHERE user_id = ?", USER_ID);
+    }
+
+    // Everything but the last operation succeeds
+    private List<NoteOperationDto> batchEndingInAMissingNote() {
+        return List.of(
+                new NoteOperationDto(NoteOperationDto.Type.CREATE, null, "Created", "three new words"),
+                new NoteOperationDto(NoteOperationDto.Type.UPDATE, kept.getId(), "Renamed", "one two three"),
+                new NoteOperationDto(NoteOperationDto.Type.DELETE, trashed.getId(), null, null),
+                new NoteOperationDto(NoteOperationDto.Type.UPDATE, 999_999L, "Missing", "content"));
+    }
+
+    private List<String> activeTitles() {
+        return jdbcTemplate.queryForList("SELECT title FROM notes WHERE user_id = ? AND deleted_at IS NULL ORDER BY id",
+                String.class, USER_ID);
+    }
+
+    private List<Long> storedTotals() {
+        return jdbcTemplate.query("SELECT note_count, word_count FROM note_stats WHERE user_id = ?",
+                (rs, row) -> List.of(rs.getLong(1), rs.getLong(2)), USER_ID).stream().findFirst().orElse(List.of());
+    }
+
+    @Test
+    void shouldRollBackEarlierCreatesAndUpdatesWhenAnAtomicBatchFails() {
+        NoteOperationsResponseDto response = service.applyOperations(batchEndingInAMissingNote(),
+                NoteOperationsRequestDto.Mode.ATOMIC, USER_ID);
+
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getResults()).extracting(NoteOperationResultDto::getStatus).containsExactly(201, 200, 200, 404);
+        assertThat(activeTitles()).containsExactly("Original", "Obsolete");
+        assertThat(storedTotals()).isEmpty();
+        verifyNoInteractions(noteInvalidationBus, noteTagIndex, noteTitleIndex, noteSimilarityIndex);
+    }
+
+    @Test
+    void shouldCommitTheSucceededOperationsOfABestEffortBatch() {
+        NoteOperationsResponseDto response = service.applyOperations(batchEndingInAMissingNote(),
+                NoteOperationsRequestDto.Mode.BEST_EFFORT, USER_ID);
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getResults()).extracting(NoteOperationResultDto::getStatus).containsExactly(201, 200, 200, 404);
+        Long createdId = response.getResults().get(0).getNoteId();
+        assertThat(response.getResults().get(1).getNote().getTitle()).isEqualTo("Renamed");
+        assertThat(activeTitles()).containsExactly("Renamed", "Created");
+        // One note added and one removed; 3 words created, 1 added by the update and 1 trashed
+        assertThat(storedTotals()).containsExactly(0L, 3L);
+
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.CREATED, createdId, USER_ID);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.UPDATED, kept.getId(), USER_ID);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.DELETED, trashed.getId(), USER_ID);
+        verify(noteTitleIndex).put(USER_ID, kept.getId(), "Renamed");
+        verify(noteTitleIndex).remove(USER_ID, trashed.getId());
+        verify(noteCacheEvictor).evict(kept.getId());
+    }
+}
@@ -0,0 +1,128 @@
+package stonenotes.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.dto.NoteRevisionDto;
+import stonenotes.exception.NoteNotFoundException;
+import stonenotes.model.NoteRevision;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+import stonenotes.repository.NoteRevisionRepository;
+import stonenotes.revision.NoteVersion;
+import stonenotes.revision.RevisionProperties;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+public class NoteRevisionServiceTest {
+    private static final String USER_ID = "test_user_id";
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private NoteRevisionRepository noteRevisionRepository;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    private NoteRevisionService service;
+    private Long noteId;
+
+    @BeforeEach
+    void setUp() {
+        RevisionProperties properties = new RevisionProperties();
+        properties.setEnabled(true);
+        properties.setSnapshotInterval(3);
+        service = new NoteRevisionService(noteRevisionRepository, noteRepository, archivedNoteRepository, properties);
+        noteId = noteRepository.save(NoteBuilder.aNote().withUserId(USER_ID).build()).getId();
+    }
+
+    private static String version(int edit) {
+        return "Line of a long running note that is edited a little at a time.\n".repeat(20) + "Edit " + edit;
+    }
+
+    private List<NoteVersion> recordUpdates(int updates) {
+        List<NoteVersion> versions = new ArrayList<>();
+        versions.add(new NoteVersion("Title 0", version(0), START));
+        for (int i = 1; i <= updates; i++) {
+            NoteVersion current = new NoteVersion("Title " + i, version(i), START.plusSeconds(60L * i));
+            service.record(noteId, USER_ID, versions.get(i - 1), current);
+            versions.add(current);
+        }
+        return versions;
+    }
+
+    @Test
+    void shouldStoreDeltasBetweenSnapshotsAndRebuildEveryRevision() {
+        List<NoteVersion> versions = recordUpdates(5);
+
+        List<NoteRevision> stored = noteRevisionRepository.findByNoteIdAndRevisionBetweenOrderByRevision(noteId, 1, 6);
+        assertThat(stored).extracting(NoteRevision::getKind).containsExactly(
+                NoteRevision.Kind.SNAPSHOT, NoteRevision.Kind.DELTA, NoteRevision.Kind.DELTA,
+                NoteRevision.Kind.SNAPSHOT, NoteRevision.Kind.DELTA, NoteRevision.Kind.DELTA);
+        assertThat(stored.get(1).getBody().length()).isLessThan(version(1).length() / 10);
+
+        for (int revision = 1; revision <= 6; revision++) {
+            NoteRevisionDto dto = service.findRevision(noteId, USER_ID, revision);
+            assertThat(dto.getTitle()).isEqualTo(versions.get(revision - 1).title());
+            assertThat(dto.getContent()).isEqualTo(versions.get(revision - 1).content());
+        }
+    }
+
+    @Test
+    void shouldListRevisionsNewestFirstWithoutContent() {
+        recordUpdates(3);
+
+        List<NoteRevisionDto> revisions = service.findRevisions(noteId, USER_ID, PageRequest.of(0, 10)).getContent();
+
+        assertThat(revisions).extracting(NoteRevisionDto::getRevision).containsExactly(4, 3, 2, 1);
+        assertThat(revisions).allSatisfy(revision -> assertThat(revision.getContent()).isNull());
+    }
+
+    @Test
+    void shouldReadTheVersionCurrentAtAnInstant() {
+        recordUpdates(3);
+
+        NoteRevisionDto revision = service.findRevisionAt(noteId, USER_ID, START.plusSeconds(150));
+
+        assertThat(revision.getRevision()).isEqualTo(3);
+        assertThat(revision.getContent()).isEqualTo(version(2));
+        assertThatThrownBy(() -> service.findRevisionAt(noteId, USER_ID, START.minusSeconds(1)))
+                .isInstanceOf(NoteNotFoundException.class);
+    }
+
+    @Test
+    void shouldSnapshotVersionsChangedOutsideTheHistory() {
+        recordUpdates(1);
+
+        // The note was changed without a revision being recorded, so the base of the next delta is stored first
+        NoteVersion outOfBand = new NoteVersion("Title", version(7), START.plusSeconds(600));
+        service.record(noteId, USER_ID, outOfBand, new NoteVersion("Title", version(8), START.plusSeconds(660)));
+
+        assertThat(noteRevisionRepository.findByNoteIdAndRevisionBetweenOrderByRevision(noteId, 3, 4))
+                .extracting(NoteRevision::getKind)
+                .containsExactly(NoteRevision.Kind.SNAPSHOT, NoteRevision.Kind.DELTA);
+        assertThat(service.findRevision(noteId, USER_ID, 4).getContent()).isEqualTo(version(8));
+    }
+
+    @Test
+    void shouldNotExposeRevisionsOfOtherUsersNotes() {
+        recordUpdates(1);
+
+        assertThatThrownBy(() -> service.findRevisions(noteId, "other_user", PageRequest.of(0, 10)))
+                .isInstanceOf(NoteNotFoundException.class);
+        assertThatThrownBy(() -> service.findRevision(noteId, "other_user", 1))
+                .isInstanceOf(NoteNotFoundException.class);
+    }
+}
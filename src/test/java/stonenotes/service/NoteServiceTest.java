@@ -2,29 +2,55 @@ package stonenotes.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.NoteCacheEvictor;
+import stonenotes.cache.NoteChangeEvent;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.content.ChunkedContentStore;
+import stonenotes.content.ContentBlobStore;
+import stonenotes.content.StoredContent;
 import stonenotes.dto.CreateNoteDto;
+import stonenotes.dto.NoteBatchResponseDto;
 import stonenotes.dto.NoteResponseDto;
+import stonenotes.dto.NoteSuggestionDto;
+import stonenotes.dto.SimilarNoteDto;
 import stonenotes.dto.UpdateNoteDto;
 import stonenotes.exception.NoteNotFoundException;
 import stonenotes.model.Note;
 import stonenotes.repository.NoteRepository;
+import stonenotes.revision.NoteVersion;
+import stonenotes.similar.MinHash;
+import stonenotes.similar.NoteSimilarityIndex;
+import stonenotes.stats.NoteStatsDelta;
+import stonenotes.stats.NoteStatsService;
+import stonenotes.suggest.NoteTitleIndex;
+import stonenotes.tag.NoteTagIndex;
+import stonenotes.tag.TagMatchMode;
 
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +58,39 @@ public class NoteServiceTest {
     @Mock
     private NoteRepository noteRepository;
 
+    @Mock
+    private NoteCacheEvictor noteCacheEvictor;
+
+    @Mock
+    private NoteInvalidationBus noteInvalidationBus;
+
+    @Mock
+    private NoteArchiveService noteArchiveService;
+
+    @Mock
+    private ChunkedContentStore contentStore;
+
+    @Mock
+    private ContentBlobStore contentBlobStore;
+
+    @Mock
+    private NoteRevisionService noteRevisionService;
+
+    @Mock
+    private NoteTagIndex noteTagIndex;
+
+    @Mock
+    private NoteTitleIndex noteTitleIndex;
+
+    @Mock
+    private NoteSimilarityIndex noteSimilarityIndex;
+
+    @Mock
+    private NoteStatsService noteStatsService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private NoteService noteService;
 
@@ -60,6 +119,51 @@ public class NoteServiceTest {
         assertThat(result.getUpdatedAt()).isNotNull();
 
         verify(noteRepository).save(any(Note.class));
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.CREATED, 1L, userId);
+    }
+
+    @Test
+    void shouldKeepLargeContentInChunkStore() {
+        String userId = "test_user_id";
+        String content = "x".repeat(20_000);
+        when(contentStore.isLarge(content)).thenReturn(true);
+        when(contentStore.write(content)).thenReturn(new StoredContent("ref", 20_000));
+        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NoteResponseDto result = noteService.createNote(new CreateNoteDto("Large", content), userId);
+
+        ArgumentCaptor<Note> saved = ArgumentCaptor.forClass(Note.class);
+        verify(noteRepository).save(saved.capture());
+        assertThat(saved.getValue().getContent()).isNull();
+        assertThat(saved.getValue().getContentRef()).isEqualTo("ref");
+        assertThat(result.getContent()).isNull();
+        assertThat(result.getContentSize()).isEqualTo(20_000);
+    }
+
+    @Test
+    void shouldPointAtDeduplicatedContentAndReleaseThePreviousBody() {
+        String userId = "test_user_id";
+        Note note = NoteBuilder.aNote().withId(1L).withUserId(userId).build();
+        note.setContent(null);
+        note.setContentHash("old-hash");
+
+        when(noteRepository.findByIdAndUserId(1L, userId)).thenReturn(Optional.of(note));
+        when(contentBlobStore.isEnabled()).thenReturn(true);
+        when(contentBlobStore.acquire("Shared template")).thenReturn("new-hash");
+        when(contentBlobStore.resolve("new-hash")).thenReturn("Shared template");
+        when(noteRepository.save(note)).thenReturn(note);
+
+        NoteResponseDto result = noteService.updateNote(1L, new UpdateNoteDto("Title", "Shared template"), userId);
+
+        assertThat(note.getContent()).isNull();
+        assertThat(note.getContentHash()).isEqualTo("new-hash");
+        assertThat(result.getContent()).isEqualTo("Shared template");
+        // Released by the write transaction, so a failed save keeps the reference
+        InOrder inOrder = inOrder(contentBlobStore, noteRepository, transactionManager);
+        inOrder.verify(contentBlobStore).acquire("Shared template");
+        inOrder.verify(noteRepository).save(note);
+        inOrder.verify(contentBlobStore).release("old-hash");
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
@@ -76,6 +180,118 @@ public class NoteServiceTest {
                 .hasMessage("Title cannot be blank");
     }
 
+    @Test
+    void shouldNormalizeTagsAndIndexThemOnCreate() {
+        String userId = "test_user_id";
+        CreateNoteDto createNoteDto = new CreateNoteDto("Tagged", "Content");
+        createNoteDto.setTags(List.of("Work", " reading", "work"));
+        Note savedNote = NoteBuilder.aNote().withId(4L).withUserId(userId).withTags("reading", "work").build();
+
+        when(noteRepository.save(any(Note.class))).thenReturn(savedNote);
+
+        NoteResponseDto result = noteService.createNote(createNoteDto, userId);
+
+        ArgumentCaptor<Note> captor = ArgumentCaptor.forClass(Note.class);
+        verify(noteRepository).save(captor.capture());
+        assertThat(captor.getValue().getTags()).containsExactly("reading", "work");
+        assertThat(result.getTags()).containsExactly("reading", "work");
+        verify(noteTagIndex).put(userId, 4L, List.of("reading", "work"));
+
+        createNoteDto.setTags(List.of("not,a tag"));
+        assertThatThrownBy(() -> noteService.createNote(createNoteDto, userId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid tag: not,a tag");
+    }
+
+    @Test
+    void shouldSuggestNotesFromTheTitleIndex() {
+        String userId = "test_user_id";
+        List<NoteSuggestionDto> suggestions = List.of(new NoteSuggestionDto(3L, "Meeting notes"));
+        when(noteTitleIndex.suggest(userId, "meet", 5)).thenReturn(suggestions);
+
+        assertThat(noteService.suggestNotes(userId, "meet", 5)).isSameAs(suggestions);
+        assertThatThrownBy(() -> noteService.suggestNotes(userId, " ", 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Prefix cannot be blank");
+        assertThatThrownBy(() -> noteService.suggestNotes(userId, "meet", NoteService.MAX_SUGGESTIONS + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be between 1 and " + NoteService.MAX_SUGGESTIONS);
+        verifyNoInteractions(noteRepository);
+    }
+
+    @Test
+    void shouldSignContentOnCreateAndFindSimilarNotesThroughTheIndex() {
+        String userId = "test_user_id";
+        String content = "Ship the new release on Friday after the final review";
+        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> {
+            Note note = invocation.getArgument(0);
+            note.setId(6L);
+            return note;
+        });
+
+        noteService.createNote(new CreateNoteDto("Release", content), userId);
+
+        ArgumentCaptor<Note> saved = ArgumentCaptor.forClass(Note.class);
+        verify(noteRepository).save(saved.capture());
+        assertThat(saved.getValue().getContentSignature()).isEqualTo(MinHash.signature(content));
+        verify(noteSimilarityIndex).put(userId, 6L, saved.getValue().getContentSignature());
+
+        when(noteSimilarityIndex.findSimilar(userId, 6L, 10)).thenReturn(Optional.of(List.of(new SimilarNoteDto(8L, 0.9))));
+        when(noteSimilarityIndex.findSimilar(userId, 7L, 10)).thenReturn(Optional.empty());
+        assertThat(noteService.findSimilarNotes(6L, userId, 10)).extracting(SimilarNoteDto::getId).containsExactly(8L);
+        assertThatThrownBy(() -> noteService.findSimilarNotes(7L, userId, 10))
+                .isInstanceOf(NoteNotFoundException.class);
+    }
+
+    @Test
+    void shouldCountWordsAndRecordStatisticsInTheWriteTransaction() {
+        String userId = "test_user_id";
+        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> {
+            Note note = invocation.getArgument(0);
+            note.setId(9L);
+            note.setCreatedAt(Instant.now());
+            return note;
+        });
+
+        noteService.createNote(new CreateNoteDto("Plan", "Three words here"), userId);
+
+        ArgumentCaptor<Note> saved = ArgumentCaptor.forClass(Note.class);
+        verify(noteRepository).save(saved.capture());
+        Note note = saved.getValue();
+        assertThat(note.getWordCount()).isEqualTo(3);
+        verify(noteStatsService).record(eq(userId), any(NoteStatsDelta.class));
+        verify(transactionManager).commit(any());
+
+        // Same number of words: the statistics are left alone
+        when(noteRepository.findByIdAndUserId(9L, userId)).thenReturn(Optional.of(note));
+        noteService.updateNote(9L, new UpdateNoteDto("Plan", "Three other words"), userId);
+        verify(noteStatsService).record(eq(userId), any(NoteStatsDelta.class));
+
+        noteService.deleteNote(9L, userId);
+        verify(noteStatsService, times(2)).record(eq(userId), any(NoteStatsDelta.class));
+    }
+
+    @Test
+    void shouldReadOnlyTheTaggedPageChosenByTheIndex() {
+        String userId = "test_user_id";
+        Pageable pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Note newer = NoteBuilder.aNote().withId(9L).withUserId(userId).withTags("work").build();
+        Note older = NoteBuilder.aNote().withId(3L).withUserId(userId).withTags("work").build();
+
+        when(noteTagIndex.find(userId, List.of("work"), TagMatchMode.AND, 2L, 2, false))
+                .thenReturn(new NoteTagIndex.TagMatch(7, List.of(9L, 3L)));
+        when(noteRepository.findByUserIdAndIdIn(userId, List.of(9L, 3L))).thenReturn(List.of(older, newer));
+
+        Page<NoteResponseDto> result = noteService.findNotesByTags(userId, List.of("Work"), TagMatchMode.AND, pageable);
+
+        assertThat(result.getContent()).extracting(NoteResponseDto::getId).containsExactly(9L, 3L);
+        assertThat(result.getTotalElements()).isEqualTo(7);
+        assertThatThrownBy(() -> noteService.findNotesByTags(userId, List.of("work"), TagMatchMode.OR,
+                PageRequest.of(0, 10, Sort.by("title"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Notes filtered by tag can only be sorted by createdAt");
+    }
+
     @Test
     void shouldReturnUserNotesOrderedByCreatedAtDesc() {
         String userId = "test_user_id";
@@ -147,10 +363,10 @@ public class NoteServiceTest {
                 .withUpdatedAt(Instant.now().minusSeconds(3600))
                 .build();
 
-        List<Note> noteList = Arrays.asList(note2, note1);
-        Page<Note> notePage = new PageImpl<>(noteList, pageable, 5);
+        List<NoteResponseDto> noteList = Arrays.asList(noteService.convertToResponseDto(note2), noteService.convertToResponseDto(note1));
+        Page<NoteResponseDto> notePage = new PageImpl<>(noteList, pageable, 5);
 
-        when(noteRepository.findByUserId(userId, pageable)).thenReturn(notePage);
+        when(noteRepository.findByUserIdAcrossTiers(userId, pageable)).thenReturn(notePage);
 
         Page<NoteResponseDto> result = noteService.findNotesByUserId(userId, pageable);
 
@@ -162,7 +378,7 @@ public class NoteServiceTest {
         assertThat(result.getContent().get(0).getTitle()).isEqualTo("Second Note");
         assertThat(result.getContent().get(1).getTitle()).isEqualTo("First Note");
 
-        verify(noteRepository).findByUserId(userId, pageable);
+        verify(noteRepository).findByUserIdAcrossTiers(userId, pageable);
     }
 
     @Test
@@ -203,6 +419,38 @@ public class NoteServiceTest {
         verify(noteRepository).findByIdAndUserId(noteId, userId);
     }
 
+    @Test
+    void shouldFallThroughToArchiveWhenNoteIsNotInHotTable() {
+        String userId = "test_user_id";
+        NoteResponseDto archived = new NoteResponseDto();
+        archived.setId(7L);
+        archived.setTitle("Archived");
+
+        when(noteRepository.findByIdAndUserId(7L, userId)).thenReturn(Optional.empty());
+        when(noteArchiveService.findNote(7L, userId)).thenReturn(Optional.of(archived));
+
+        NoteResponseDto result = noteService.findNoteByIdAndUserId(7L, userId);
+
+        assertThat(result.getTitle()).isEqualTo("Archived");
+    }
+
+    @Test
+    void shouldPromoteArchivedNoteBeforeUpdatingIt() {
+        String userId = "test_user_id";
+        Long noteId = 7L;
+        Note promoted = NoteBuilder.aNote().withId(noteId).withTitle("Archived").withUserId(userId).build();
+
+        when(noteRepository.findByIdAndUserId(noteId, userId)).thenReturn(Optional.empty());
+        when(noteArchiveService.promote(noteId, userId)).thenReturn(Optional.of(promoted));
+        when(noteRepository.save(promoted)).thenReturn(promoted);
+
+        NoteResponseDto result = noteService.updateNote(noteId, new UpdateNoteDto("Updated Title", "Updated content"), userId);
+
+        assertThat(result.getTitle()).isEqualTo("Updated Title");
+        verify(noteRepository).save(promoted);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.UPDATED, noteId, userId);
+    }
+
     @Test
     void shouldUpdateNoteSuccessfully() {
         String userId = "test_user_id";
@@ -241,6 +489,33 @@ public class NoteServiceTest {
 
         verify(noteRepository).findByIdAndUserId(noteId, userId);
         verify(noteRepository).save(any(Note.class));
+        verify(noteCacheEvictor).evict(noteId);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.UPDATED, noteId, userId);
+    }
+
+    @Test
+    void shouldRecordRevisionFromPreviousVersionWhenHistoryIsEnabled() {
+        String userId = "test_user_id";
+        Long noteId = 1L;
+        Instant originalTime = Instant.now().minusSeconds(3600);
+        Instant updateTime = Instant.now();
+        Note existingNote = NoteBuilder.aNote().withId(noteId).withTitle("Original Title").withContent("Original content")
+                .withUserId(userId).withUpdatedAt(originalTime).build();
+        Note updatedNote = NoteBuilder.aNote().withId(noteId).withTitle("Updated Title").withContent("Updated content")
+                .withUserId(userId).withUpdatedAt(updateTime).build();
+
+        when(noteRevisionService.isEnabled()).thenReturn(true);
+        when(noteRepository.findByIdAndUserId(noteId, userId)).thenReturn(Optional.of(existingNote));
+        when(noteRepository.save(any(Note.class))).thenReturn(updatedNote);
+
+        noteService.updateNote(noteId, new UpdateNoteDto("Updated Title", "Updated content"), userId);
+
+        InOrder inOrder = inOrder(noteRepository, noteRevisionService, transactionManager);
+        inOrder.verify(noteRepository).flush();
+        inOrder.verify(noteRevisionService).record(noteId, userId,
+                new NoteVersion("Original Title", "Original content", originalTime),
+                new NoteVersion("Updated Title", "Updated content", updateTime));
+        inOrder.verify(transactionManager).commit(any());
     }
 
     @Test
@@ -276,7 +551,14 @@ public class NoteServiceTest {
         noteService.deleteNote(noteId, userId);
 
         verify(noteRepository).findByIdAndUserId(noteId, userId);
-        verify(noteRepository).delete(note);
+        verify(noteRepository).save(note);
+        verify(noteRepository, never()).delete(any(Note.class));
+        assertThat(note.getDeletedAt()).isNotNull();
+        verify(noteTagIndex).remove(userId, noteId);
+        verify(noteTitleIndex).remove(userId, noteId);
+        verify(noteSimilarityIndex).remove(userId, noteId);
+        verify(noteCacheEvictor).evict(noteId);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.DELETED, noteId, userId);
     }
 
     @Test
@@ -292,5 +574,64 @@ public class NoteServiceTest {
 
         verify(noteRepository).findByIdAndUserId(noteId, userId);
         verify(noteRepository, never()).delete(any(Note.class));
+        verify(noteRepository, never()).save(any(Note.class));
+    }
+
+    @Test
+    void shouldRestoreDeletedNote() {
+        String userId = "test_user_id";
+        Long noteId = 1L;
+        Note note = NoteBuilder.aNote().withId(noteId).withUserId(userId).build();
+
+        when(noteRepository.restore(noteId, userId)).thenReturn(1);
+        when(noteRepository.findByIdAndUserId(noteId, userId)).thenReturn(Optional.of(note));
+
+        NoteResponseDto result = noteService.restoreNote(noteId, userId);
+
+        assertThat(result.getId()).isEqualTo(noteId);
+        assertThat(result.getDeletedAt()).isNull();
+        verify(noteCacheEvictor).evict(noteId);
+        verify(noteInvalidationBus).publish(NoteChangeEvent.Type.UPDATED, noteId, userId);
+    }
+
+    @Test
+    void shouldThrowExceptionWhenRestoringNoteNotInTrash() {
+        String userId = "test_user_id";
+
+        when(noteRepository.restore(999L, userId)).thenReturn(0);
+
+        assertThatThrownBy(() -> noteService.restoreNote(999L, userId))
+                .isInstanceOf(NoteNotFoundException.class)
+                .hasMessage("Note not found");
+    }
+
+    @Test
+    void shouldReturnBatchInRequestOrderAndReportMissingIds() {
+        String userId = "test_user_id";
+        Note first = NoteBuilder.aNote().withId(1L).withUserId(userId).build();
+        Note third = NoteBuilder.aNote().withId(3L).withUserId(userId).build();
+
+        when(noteRepository.findByUserIdAndIdIn(userId, List.of(3L, 2L, 1L))).thenReturn(List.of(first, third));
+
+        NoteBatchResponseDto result = noteService.findNotesByIdsAndUserId(List.of(3L, 2L, 1L, 3L), userId);
+
+        assertThat(result.getNotes()).extracting(NoteResponseDto::getId).containsExactly(3L, 1L);
+        assertThat(result.getMissingIds()).containsExactly(2L);
+    }
+
+    @Test
+    void shouldChunkLargeBatchesAndRejectOversizedOnes() {
+        String userId = "test_user_id";
+        List<Long> ids = LongStream.rangeClosed(1, NoteService.BATCH_CHUNK_SIZE + 1).boxed().toList();
+
+        when(noteRepository.findByUserIdAndIdIn(eq(userId), anyList())).thenReturn(List.of());
+
+        NoteBatchResponseDto result = noteService.findNotesByIdsAndUserId(ids, userId);
+
+        assertThat(result.getMissingIds()).hasSize(ids.size());
+        verify(noteRepository, times(2)).findByUserIdAndIdIn(eq(userId), anyList());
+        assertThatThrownBy(() -> noteService.findNotesByIdsAndUserId(
+                LongStream.rangeClosed(1, NoteService.MAX_BATCH_IDS + 1).boxed().toList(), userId))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 }
@@ -0,0 +1,31 @@
+package stonenotes.similar;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MinHashTest {
+    static final String MEETING = "The quarterly planning meeting covered the hiring plan for the platform team, the budget"
+            + " for cloud infrastructure, and the timeline for migrating the billing service to the new database cluster."
+            + " Action items were assigned to each team lead with a review scheduled for the first week of next month.";
+
+    @Test
+    void shouldEstimateSimilarityOfSharedPhrases() {
+        int[] meeting = MinHash.signature(MEETING);
+        String edited = MEETING.replace("first week of next month", "second week of next month");
+        String unrelated = "Buy milk, eggs and bread on the way home, then call the plumber about the leaking kitchen tap.";
+
+        assertThat(meeting).hasSize(MinHash.SIGNATURE_LENGTH);
+        assertThat(MinHash.similarity(meeting, MinHash.signature(MEETING.toUpperCase() + "!"))).isEqualTo(1.0);
+        assertThat(MinHash.similarity(meeting, MinHash.signature(edited))).isGreaterThan(0.7).isLessThan(1.0);
+        assertThat(MinHash.similarity(meeting, MinHash.signature(unrelated))).isLessThan(0.2);
+    }
+
+    @Test
+    void shouldGiveContentWithoutWordsAnEmptySignature() {
+        assertThat(MinHash.signature(null)).isEmpty();
+        assertThat(MinHash.signature(" -- ")).isEmpty();
+        assertThat(MinHash.signature("hello")).hasSize(MinHash.SIGNATURE_LENGTH);
+        assertThat(MinHash.similarity(MinHash.signature(""), MinHash.signature(""))).isZero();
+    }
+}
@@ -0,0 +1,123 @@
+package stonenotes.similar;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.InMemoryNoteInvalidationBus;
+import stonenotes.dto.DuplicateGroupDto;
+import stonenotes.dto.SimilarNoteDto;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static stonenotes.similar.MinHashTest.MEETING;
+
+@DataJpaTest
+public class NoteSimilarityIndexTest {
+    private static final String USER_ID = "test_user_id";
+    private static final String TRIP = "Trip checklist: renew the passport, book the flights to Lisbon, reserve a hotel near the old town,"
+            + " buy travel insurance, and ask the neighbours to water the plants while we are away for two weeks.";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private NoteSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteSimilarityIndex(jdbcTemplate, new InMemoryNoteInvalidationBus(), new SimilarityProperties(), new SimpleMeterRegistry());
+    }
+
+    private Note note(String userId, String content) {
+        Note note = NoteBuilder.aNote().withUserId(userId).withContent(content).build();
+        note.setContentSignature(MinHash.signature(content));
+        return note;
+    }
+
+    private Long save(String content) {
+        return noteRepository.saveAndFlush(note(USER_ID, content)).getId();
+    }
+
+    private List<Long> similarIds(Long noteId) {
+        return index.findSimilar(USER_ID, noteId, 10).orElseThrow().stream().map(SimilarNoteDto::getId).toList();
+    }
+
+    @Test
+    void shouldRankNearDuplicatesMostSimilarFirst() {
+        Long meeting = save(MEETING);
+        Long meetingWithThanks = save(MEETING + " Thanks everyone.");
+        save(TRIP);
+        Note cold = note(USER_ID, "Notes: " + MEETING);
+        cold.setId(2_000_000L);
+        archivedNoteRepository.saveAndFlush(ArchivedNote.of(cold, cold.getContent(), Instant.now()));
+
+        List<SimilarNoteDto> similar = index.findSimilar(USER_ID, meeting, 10).orElseThrow();
+
+        assertThat(similar).extracting(SimilarNoteDto::getId).containsExactly(2_000_000L, meetingWithThanks);
+        assertThat(similar.get(0).getSimilarity()).isGreaterThan(similar.get(1).getSimilarity());
+        assertThat(index.findSimilar(USER_ID, meeting, 1).orElseThrow()).extracting(SimilarNoteDto::getId)
+                .containsExactly(2_000_000L);
+    }
+
+    @Test
+    void shouldGroupDuplicatesLargestFirst() {
+        Long trip = save(TRIP);
+        Long tripWithReturn = save(TRIP + " Back on the 14th.");
+        Long meeting = save(MEETING);
+        Long meetingWithThanks = save(MEETING + " Thanks everyone.");
+        Long meetingWithDate = save(MEETING + " Moved to Thursday.");
+        save("");
+
+        assertThat(index.findDuplicates(USER_ID)).extracting(DuplicateGroupDto::getNoteIds).containsExactly(
+                List.of(meeting, meetingWithThanks, meetingWithDate),
+                List.of(trip, tripWithReturn));
+    }
+
+    @Test
+    void shouldTellUnsignedNotesFromUnknownOnes() {
+        Long meeting = save(MEETING);
+        Note unsigned = NoteBuilder.aNote().withUserId(USER_ID).withContent(MEETING).build();
+        Long pending = noteRepository.saveAndFlush(unsigned).getId();
+
+        assertThat(index.findSimilar(USER_ID, pending, 10)).contains(List.of());
+        assertThat(index.findSimilar(USER_ID, 999_999L, 10)).isEmpty();
+        assertThat(similarIds(meeting)).isEmpty();
+
+        // The signature backfill signs it later
+        index.put(USER_ID, pending, MinHash.signature(MEETING));
+        assertThat(similarIds(meeting)).containsExactly(pending);
+    }
+
+    @Test
+    void shouldApplyLocalWrites() {
+        Long meeting = save(MEETING);
+        Long copy = save(MEETING + " Thanks everyone.");
+        Long trip = save(TRIP);
+        assertThat(similarIds(meeting)).containsExactly(copy);
+
+        index.put(USER_ID, trip, MinHash.signature(MEETING + " Thanks, see you then."));
+        assertThat(similarIds(meeting)).containsExactlyInAnyOrder(copy, trip);
+        index.remove(USER_ID, copy);
+        index.put(USER_ID, trip, null);
+
+        assertThat(similarIds(meeting)).isEmpty();
+        assertThat(similarIds(trip)).isEmpty();
+        assertThat(index.findSimilar(USER_ID, copy, 10)).isEmpty();
+        assertThat(index.findDuplicates(USER_ID)).isEmpty();
+    }
+}
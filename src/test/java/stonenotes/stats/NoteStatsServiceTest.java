@@ -0,0 +1,113 @@
+package stonenotes.stats;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.dto.DailyNoteCountDto;
+import stonenotes.dto.NoteStatsDto;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+public class NoteStatsServiceTest {
+    private static final Instant NOW = Instant.parse("2026-10-19T10:00:00Z");
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private NoteStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NoteStatsService(jdbcTemplate, transactionManager, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private Map<LocalDate, Long> storedDays(String userId) {
+        Map<LocalDate, Long> days = new TreeMap<>();
+        jdbcTemplate.query("SELECT created_on, created_count FROM note_daily_stats WHERE user_id = ?",
+                rs -> {
+                    days.put(rs.getObject(1, LocalDate.class), rs.getLong(2));
+                }, userId);
+        return days;
+    }
+
+    @Test
+    void shouldApplyDeltasAndReadEveryDayOfTheRange() {
+        String userId = "stats_deltas";
+        Instant yesterday = NOW.minus(Duration.ofDays(1));
+
+        service.record(userId, new NoteStatsDelta().added(NOW, 5).added(NOW, 3).added(yesterday, 10));
+        service.record(userId, new NoteStatsDelta().reworded(5, 7));
+        service.record(userId, new NoteStatsDelta().removed(yesterday, 10));
+
+        NoteStatsDto stats = service.getStats(userId, 3);
+        assertThat(stats.getNoteCount()).isEqualTo(2);
+        assertThat(stats.getWordCount()).isEqualTo(10);
+        assertThat(stats.getCreatedPerDay()).extracting(DailyNoteCountDto::getDay, DailyNoteCountDto::getCreated).containsExactly(
+                tuple(LocalDate.of(2026, 10, 17), 0L),
+                tuple(LocalDate.of(2026, 10, 18), 0L),
+                tuple(LocalDate.of(2026, 10, 19), 2L));
+
+        NoteStatsDto empty = service.getStats("stats_without_notes", 1);
+        assertThat(empty.getNoteCount()).isZero();
+        assertThat(empty.getCreatedPerDay()).extracting(DailyNoteCountDto::getCreated).containsExactly(0L);
+        assertThatThrownBy(() -> service.getStats(userId, NoteStatsService.MAX_DAYS + 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Days must be between 1 and " + NoteStatsService.MAX_DAYS);
+    }
+
+    @Test
+    void shouldRebuildFromLiveNotesInBothTiers() {
+        String userId = "stats_rebuild";
+        Note hot = NoteBuilder.aNote().withUserId(userId).build();
+        hot.setWordCount(3L);
+        hot = noteRepository.saveAndFlush(hot);
+        Note trashed = NoteBuilder.aNote().withUserId(userId).build();
+        trashed.setWordCount(4L);
+        trashed.setDeletedAt(Instant.now());
+        noteRepository.saveAndFlush(trashed);
+        Note cold = NoteBuilder.aNote().withId(2_000_000L).withUserId(userId).withCreatedAt(Instant.parse("2026-01-05T12:00:00Z")).build();
+        cold.setWordCount(2L);
+        archivedNoteRepository.saveAndFlush(ArchivedNote.of(cold, cold.getContent(), Instant.now()));
+        Note other = NoteBuilder.aNote().withUserId("stats_rebuild_other").build();
+        other.setWordCount(50L);
+        noteRepository.saveAndFlush(other);
+        // Drifted statistics are replaced, not added to
+        service.record(userId, new NoteStatsDelta().added(Instant.parse("2025-01-01T00:00:00Z"), 100));
+
+        service.rebuild(userId);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT note_count FROM note_stats WHERE user_id = ?", Long.class, userId)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT word_count FROM note_stats WHERE user_id = ?", Long.class, userId)).isEqualTo(5);
+        assertThat(storedDays(userId)).containsExactlyEntriesOf(new TreeMap<>(Map.of(
+                LocalDate.of(2026, 1, 5), 1L,
+                LocalDate.ofInstant(hot.getCreatedAt(), ZoneOffset.UTC), 1L)));
+    }
+}
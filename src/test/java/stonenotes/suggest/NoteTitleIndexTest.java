@@ -0,0 +1,94 @@
+package stonenotes.suggest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.InMemoryNoteInvalidationBus;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.dto.NoteSuggestionDto;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+public class NoteTitleIndexTest {
+    private static final String USER_ID = "test_user_id";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final NoteInvalidationBus bus = new InMemoryNoteInvalidationBus();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NoteTitleIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteTitleIndex(jdbcTemplate, bus, new TitleIndexProperties(), meterRegistry);
+    }
+
+    private Long save(String title) {
+        return noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withTitle(title).build()).getId();
+    }
+
+    private List<String> suggest(String prefix, int limit) {
+        return index.suggest(USER_ID, prefix, limit).stream().map(NoteSuggestionDto::getTitle).toList();
+    }
+
+    @Test
+    void shouldSuggestByPrefixIgnoringCaseAndLeadingWhitespace() {
+        save("Meeting notes");
+        save("  meetup ideas");
+        save("MEETING AGENDA");
+        save("Groceries");
+        Note cold = NoteBuilder.aNote().withId(1_000_000L).withUserId(USER_ID).withTitle("Meeting archive").build();
+        archivedNoteRepository.saveAndFlush(ArchivedNote.of(cold, cold.getContent(), Instant.now()));
+
+        assertThat(suggest("meet", 10)).containsExactly("MEETING AGENDA", "Meeting archive", "Meeting notes", "  meetup ideas");
+        assertThat(suggest("  Meetup", 10)).containsExactly("  meetup ideas");
+        assertThat(suggest("meeting a", 1)).containsExactly("MEETING AGENDA");
+        assertThat(suggest("meetings", 10)).isEmpty();
+        assertThat(suggest("", 2)).containsExactly("Groceries", "MEETING AGENDA");
+    }
+
+    @Test
+    void shouldOrderEqualTitlesById() {
+        Long first = save("Daily log");
+        Long second = save("daily log");
+
+        assertThat(index.suggest(USER_ID, "daily", 10)).extracting(NoteSuggestionDto::getId).containsExactly(first, second);
+    }
+
+    @Test
+    void shouldKeepTitlesSortedThroughWrites() {
+        Long renamed = save("Alpha");
+        assertThat(suggest("a", 10)).containsExactly("Alpha");
+
+        // Grows the array loaded with a single title
+        for (int i = 0; i < 20; i++) {
+            index.put(USER_ID, 100L + i, String.format("Chapter %02d", 19 - i));
+        }
+        index.put(USER_ID, renamed, "Chapter 10b");
+        index.remove(USER_ID, 100L);
+
+        assertThat(suggest("a", 10)).isEmpty();
+        assertThat(suggest("chapter 1", 3)).containsExactly("Chapter 10", "Chapter 10b", "Chapter 11");
+        assertThat(suggest("chapter", 20)).hasSize(20).doesNotContain("Chapter 19");
+        assertThat(meterRegistry.get("notes.suggest.titles").gauge().value()).isEqualTo(20);
+    }
+}
@@ -0,0 +1,34 @@
+package stonenotes.support;
+
+import stonenotes.metrics.SqlStatementCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Test helpers for pinning the number of SQL statements an action executes on the current thread
+public final class SqlStatements {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private SqlStatements() {}
+
+    public static SqlStatementCounter.Recording record(Action action) throws Exception {
+        SqlStatementCounter.begin();
+        try {
+            action.run();
+        } catch (Exception ex) {
+            SqlStatementCounter.end();
+            throw ex;
+        }
+        return SqlStatementCounter.end();
+    }
+
+    public static void assertStatementCount(int expected, Action action) throws Exception {
+        SqlStatementCounter.Recording recording = record(action);
+        assertThat(recording.total())
+                .as("SQL statements executed: %s", recording.executions())
+                .isEqualTo(expected);
+    }
+}
@@ -0,0 +1,113 @@
+package stonenotes.tag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import stonenotes.builders.NoteBuilder;
+import stonenotes.cache.InMemoryNoteInvalidationBus;
+import stonenotes.cache.NoteInvalidationBus;
+import stonenotes.model.ArchivedNote;
+import stonenotes.model.Note;
+import stonenotes.repository.ArchivedNoteRepository;
+import stonenotes.repository.NoteRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+public class NoteTagIndexTest {
+    private static final String USER_ID = "test_user_id";
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private ArchivedNoteRepository archivedNoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final NoteInvalidationBus bus = new InMemoryNoteInvalidationBus();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NoteTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NoteTagIndex(jdbcTemplate, bus, new TagIndexProperties(), meterRegistry);
+    }
+
+    private Long save(String... tags) {
+        return noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId(USER_ID).withTags(tags).build()).getId();
+    }
+
+    private List<Long> find(TagMatchMode mode, String... tags) {
+        return index.find(USER_ID, List.of(tags), mode, 0, 10, true).noteIds();
+    }
+
+    @Test
+    void shouldMatchAllOrAnyTagsAcrossTiers() {
+        Long workAndUrgent = save("urgent", "work");
+        Long work = save("work");
+        Long home = save("home");
+        Note trashed = NoteBuilder.aNote().withUserId(USER_ID).withTags("work").build();
+        trashed.setDeletedAt(Instant.now());
+        noteRepository.saveAndFlush(trashed);
+        Note cold = NoteBuilder.aNote().withId(1_000_000L).withUserId(USER_ID).withTags("urgent", "work").build();
+        archivedNoteRepository.saveAndFlush(ArchivedNote.of(cold, cold.getContent(), Instant.now()));
+        noteRepository.saveAndFlush(NoteBuilder.aNote().withUserId("other_user").withTags("work").build());
+
+        assertThat(find(TagMatchMode.AND, "work", "urgent")).containsExactly(workAndUrgent, 1_000_000L);
+        assertThat(find(TagMatchMode.OR, "urgent", "home")).containsExactly(workAndUrgent, home, 1_000_000L);
+        assertThat(find(TagMatchMode.OR, "work")).containsExactly(workAndUrgent, work, 1_000_000L);
+        assertThat(find(TagMatchMode.AND, "work", "missing")).isEmpty();
+    }
+
+    @Test
+    void shouldReturnOnlyTheRequestedPageNewestFirst() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(save("reading"));
+        }
+
+        NoteTagIndex.TagMatch descending = index.find(USER_ID, List.of("reading"), TagMatchMode.AND, 2, 2, false);
+        NoteTagIndex.TagMatch ascending = index.find(USER_ID, List.of("reading"), TagMatchMode.AND, 4, 2, true);
+
+        assertThat(descending.total()).isEqualTo(5);
+        assertThat(descending.noteIds()).containsExactly(ids.get(2), ids.get(1));
+        assertThat(ascending.noteIds()).containsExactly(ids.get(4));
+    }
+
+    @Test
+    void shouldReplaceTheTagsOfAnUpdatedNote() {
+        Long first = save("work");
+        Long second = save("work", "home");
+        assertThat(find(TagMatchMode.AND, "work")).containsExactly(first, second);
+        double loadedBytes = meterRegistry.get("notes.tags.bytes").gauge().value();
+
+        index.put(USER_ID, first, List.of("home"));
+        index.remove(USER_ID, second);
+
+        assertThat(find(TagMatchMode.OR, "work", "home")).containsExactly(first);
+        // The emptied "work" bitmap is dropped rather than kept as an empty match
+        assertThat(find(TagMatchMode.AND, "home", "work")).isEmpty();
+        assertThat(meterRegistry.get("notes.tags.bytes").gauge().value()).isPositive().isLessThan(loadedBytes);
+    }
+
+    @Test
+    void shouldRejectNoteIdsBeyondTheBitmapRange() {
+        save("work");
+        find(TagMatchMode.AND, "work");
+
+        assertThatThrownBy(() -> index.put(USER_ID, 1L << 32, List.of("work")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("4294967296");
+        assertThat(index.find(USER_ID, List.of("work"), TagMatchMode.AND, 0, 10, true).total()).isEqualTo(1);
+    }
+}